@@ -0,0 +1,58 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EndpointStats {
+    private static final long maxLatency = TimeUnit.MINUTES.toMicros(1);
+
+    private final String endpoint;
+    // от запланированного момента отправки: включает ожидание в очереди генератора,
+    // поэтому не страдает от coordinated omission
+    private final Histogram latency = new ConcurrentHistogram(maxLatency, 3);
+    // от фактической отправки: только время обслуживания, для сравнения
+    private final Histogram serviceTime = new ConcurrentHistogram(maxLatency, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    public EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public void record(long intendedStart, long actualStart, long end, int status) {
+        latency.recordValue(toMicros(end - intendedStart));
+        serviceTime.recordValue(toMicros(end - actualStart));
+        if (status == 429) {
+            throttled.increment();
+        } else if (status < 200 || status >= 300) {
+            errors.increment();
+        }
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    public Histogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getThrottled() {
+        return throttled.sum();
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), maxLatency);
+    }
+}
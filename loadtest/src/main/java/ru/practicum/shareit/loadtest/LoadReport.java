@@ -0,0 +1,69 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class LoadReport {
+    private static final double[] percentiles = {50, 90, 99, 99.9};
+
+    private volatile Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    public EndpointStats forEndpoint(String endpoint) {
+        return stats.computeIfAbsent(endpoint, EndpointStats::new);
+    }
+
+    public void reset() {
+        stats = new ConcurrentHashMap<>();
+    }
+
+    public void print(PrintStream out, double seconds) {
+        out.printf(Locale.ROOT, "%-32s %9s %9s %7s %7s %9s %9s %9s %9s %9s %11s%n",
+                "endpoint", "count", "rps", "errors", "429", "p50,ms", "p90,ms", "p99,ms", "p99.9,ms", "max,ms",
+                "svc p99,ms");
+        for (EndpointStats endpoint : sorted()) {
+            Histogram latency = endpoint.getLatency();
+            out.printf(Locale.ROOT, "%-32s %9d %9.1f %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %11.2f%n",
+                    endpoint.getEndpoint(), latency.getTotalCount(), latency.getTotalCount() / seconds,
+                    endpoint.getErrors(), endpoint.getThrottled(),
+                    millis(latency, percentiles[0]), millis(latency, percentiles[1]),
+                    millis(latency, percentiles[2]), millis(latency, percentiles[3]),
+                    latency.getMaxValue() / 1000.0, millis(endpoint.getServiceTime(), 99));
+        }
+    }
+
+    public void writeCsv(Path path, double seconds) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("endpoint,count,rps,errors,throttled,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,service_p99_ms");
+        for (EndpointStats endpoint : sorted()) {
+            Histogram latency = endpoint.getLatency();
+            lines.add(String.format(Locale.ROOT, "%s,%d,%.2f,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                    endpoint.getEndpoint(), latency.getTotalCount(), latency.getTotalCount() / seconds,
+                    endpoint.getErrors(), endpoint.getThrottled(),
+                    millis(latency, percentiles[0]), millis(latency, percentiles[1]),
+                    millis(latency, percentiles[2]), millis(latency, percentiles[3]),
+                    latency.getMaxValue() / 1000.0, millis(endpoint.getServiceTime(), 99)));
+        }
+        Files.write(path, lines, StandardCharsets.UTF_8);
+    }
+
+    private List<EndpointStats> sorted() {
+        List<EndpointStats> sorted = new ArrayList<>(stats.values());
+        sorted.sort(Comparator.comparing(EndpointStats::getEndpoint));
+        return sorted;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.file.Path;
+
+public class LoadTestApp {
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+        LoadReport report = new LoadReport();
+        ShareItClient client = new ShareItClient(config.getBaseUrl(), config.getTimeout());
+        ShareItScenario scenario = new ShareItScenario(client, report, config);
+
+        System.out.printf("Подготовка данных на %s%n", config.getBaseUrl());
+        scenario.setUp();
+        try (OpenModelDriver driver = new OpenModelDriver(config.getRate(), config.getThreads())) {
+            System.out.printf("Прогрев: %s с при %s запросов/с%n", config.getWarmup().toSeconds(), config.getRate());
+            driver.run(config.getWarmup(), scenario);
+            report.reset();
+
+            System.out.printf("Замер: %s с при %s запросов/с%n", config.getDuration().toSeconds(), config.getRate());
+            long started = System.nanoTime();
+            long issued = driver.run(config.getDuration(), scenario);
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            System.out.printf("Отправлено %s операций за %.1f с%n", issued, seconds);
+            report.print(System.out, seconds);
+            if (config.getReport() != null) {
+                report.writeCsv(Path.of(config.getReport()), seconds);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+public class LoadTestConfig {
+    private final String baseUrl;
+    private final double rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int owners;
+    private final int bookers;
+    private final int itemsPerOwner;
+    private final int threads;
+    private final Duration timeout;
+    private final String report;
+
+    private LoadTestConfig(Map<String, String> args) {
+        this.baseUrl = args.getOrDefault("base-url", "http://localhost:8080");
+        this.rate = Double.parseDouble(args.getOrDefault("rate", "200"));
+        this.duration = Duration.ofSeconds(Long.parseLong(args.getOrDefault("duration", "60")));
+        this.warmup = Duration.ofSeconds(Long.parseLong(args.getOrDefault("warmup", "10")));
+        this.owners = Integer.parseInt(args.getOrDefault("owners", "20"));
+        this.bookers = Integer.parseInt(args.getOrDefault("bookers", "50"));
+        this.itemsPerOwner = Integer.parseInt(args.getOrDefault("items-per-owner", "5"));
+        this.threads = Integer.parseInt(args.getOrDefault("threads", "256"));
+        this.timeout = Duration.ofSeconds(Long.parseLong(args.getOrDefault("timeout", "10")));
+        this.report = args.get("report");
+    }
+
+    // аргументы в виде --rate=500 --duration=120
+    public static LoadTestConfig fromArgs(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Ожидается аргумент вида --name=value: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestConfig(values);
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public int getOwners() {
+        return owners;
+    }
+
+    public int getBookers() {
+        return bookers;
+    }
+
+    public int getItemsPerOwner() {
+        return itemsPerOwner;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public String getReport() {
+        return report;
+    }
+}
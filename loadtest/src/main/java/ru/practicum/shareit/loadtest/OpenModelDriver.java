@@ -0,0 +1,69 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Открытая модель нагрузки: запросы приходят по расписанию независимо от того, успел ли сервер
+// ответить на предыдущие. Если рабочие потоки заняты, операция ждёт в очереди, и это ожидание
+// попадает в задержку, потому что она отсчитывается от запланированного момента.
+public class OpenModelDriver implements AutoCloseable {
+    private final double rate;
+    private final ExecutorService workers;
+    private final AtomicLong pending = new AtomicLong();
+
+    public OpenModelDriver(double rate, int threads) {
+        this.rate = rate;
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public long run(Duration duration, Operation operation) throws InterruptedException {
+        double period = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long issued = 0;
+        while (true) {
+            long intendedStart = start + (long) (issued * period);
+            if (intendedStart >= end) {
+                break;
+            }
+            long delay = intendedStart - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            pending.incrementAndGet();
+            workers.execute(() -> {
+                try {
+                    operation.execute(intendedStart);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    System.err.println("Ошибка сценария: " + e);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+            issued++;
+        }
+        while (pending.get() > 0) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        return issued;
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    public interface Operation {
+        void execute(long intendedStart) throws InterruptedException;
+    }
+}
@@ -0,0 +1,227 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public class ShareItScenario implements OpenModelDriver.Operation {
+    private static final String[] keywords = {"дрель", "пила", "лестница", "палатка", "велосипед", "проектор"};
+
+    private final ShareItClient client;
+    private final LoadReport report;
+    private final LoadTestConfig config;
+    private final List<Long> owners = new ArrayList<>();
+    private final List<Long> bookers = new ArrayList<>();
+    private final List<ItemRef> items = Collections.synchronizedList(new ArrayList<>());
+    // пары бронирующий-вещь с завершённой бронью: только по ним можно оставлять отзывы
+    private final List<ItemRef> commentable = new ArrayList<>();
+    private final Queue<long[]> waitingBookings = new ConcurrentLinkedQueue<>();
+    private final WeightedChoice<Step> steps = new WeightedChoice<Step>()
+            .add(25, this::searchItems)
+            .add(15, this::getItem)
+            .add(15, this::getOwnerBookings)
+            .add(12, this::createBooking)
+            .add(10, this::approveBooking)
+            .add(8, this::addComment)
+            .add(5, this::createItem)
+            .add(5, this::createRequest)
+            .add(5, this::getAllRequests);
+
+    public ShareItScenario(ShareItClient client, LoadReport report, LoadTestConfig config) {
+        this.client = client;
+        this.report = report;
+        this.config = config;
+    }
+
+    public void setUp() throws IOException, InterruptedException {
+        String run = String.valueOf(System.currentTimeMillis());
+        for (int i = 0; i < config.getOwners(); i++) {
+            owners.add(createUser("owner", run, i));
+        }
+        for (int i = 0; i < config.getBookers(); i++) {
+            bookers.add(createUser("booker", run, i));
+        }
+        for (Long owner : owners) {
+            for (int i = 0; i < config.getItemsPerOwner(); i++) {
+                items.add(new ItemRef(postItem(owner, System.nanoTime()), owner, null));
+            }
+        }
+        // короткие брони, которые закончатся до начала замера, чтобы сценарий мог писать отзывы
+        LocalDateTime lastEnd = LocalDateTime.now();
+        for (Long booker : bookers) {
+            ItemRef item = randomItem();
+            LocalDateTime start = LocalDateTime.now().plusSeconds(2).truncatedTo(ChronoUnit.SECONDS);
+            long bookingId = client.post("/bookings", booker, Map.of(
+                    "itemId", item.id,
+                    "start", start.toString(),
+                    "end", start.plusSeconds(1).toString())).getId();
+            client.patch("/bookings/" + bookingId + "?approved=true", item.ownerId);
+            commentable.add(new ItemRef(item.id, item.ownerId, booker));
+            lastEnd = start.plusSeconds(1);
+        }
+        TimeUnit.MILLISECONDS.sleep(Math.max(ChronoUnit.MILLIS.between(LocalDateTime.now(), lastEnd), 0) + 1000);
+    }
+
+    @Override
+    public void execute(long intendedStart) throws InterruptedException {
+        try {
+            steps.next().run(intendedStart);
+        } catch (IOException e) {
+            // сетевые ошибки уже учтены в статистике эндпоинта
+        }
+    }
+
+    private void searchItems(long intendedStart) throws IOException, InterruptedException {
+        call("GET /items/search", intendedStart, () -> client.get("/items/search?text="
+                + URLEncoder.encode(pick(keywords), StandardCharsets.UTF_8)
+                + "&from=0&size=10", pick(bookers)));
+    }
+
+    private void getItem(long intendedStart) throws IOException, InterruptedException {
+        ItemRef item = randomItem();
+        call("GET /items/{itemId}", intendedStart, () -> client.get("/items/" + item.id, pick(bookers)));
+    }
+
+    private void getOwnerBookings(long intendedStart) throws IOException, InterruptedException {
+        int from = ThreadLocalRandom.current().nextInt(3) * 10;
+        call("GET /bookings/owner", intendedStart, () -> client.get(
+                "/bookings/owner?state=ALL&from=" + from + "&size=10", pick(owners)));
+    }
+
+    private void createBooking(long intendedStart) throws IOException, InterruptedException {
+        ItemRef item = randomItem();
+        LocalDateTime start = LocalDateTime.now().plusDays(ThreadLocalRandom.current().nextInt(1, 60))
+                .truncatedTo(ChronoUnit.SECONDS);
+        ShareItClient.Response response = call("POST /bookings", intendedStart, () -> client.post("/bookings",
+                pick(bookers), Map.of("itemId", item.id, "start", start.toString(), "end", start.plusDays(1).toString())));
+        if (response.isSuccessful()) {
+            waitingBookings.add(new long[]{response.getId(), item.ownerId});
+        }
+    }
+
+    private void approveBooking(long intendedStart) throws IOException, InterruptedException {
+        long[] booking = waitingBookings.poll();
+        if (booking == null) {
+            createBooking(intendedStart);
+            return;
+        }
+        boolean approved = ThreadLocalRandom.current().nextInt(10) > 0;
+        call("PATCH /bookings/{bookingId}", intendedStart, () -> client.patch(
+                "/bookings/" + booking[0] + "?approved=" + approved, booking[1]));
+    }
+
+    private void addComment(long intendedStart) throws IOException, InterruptedException {
+        ItemRef pair = commentable.get(ThreadLocalRandom.current().nextInt(commentable.size()));
+        call("POST /items/{itemId}/comment", intendedStart, () -> client.post("/items/" + pair.id + "/comment",
+                pair.bookerId, Map.of("text", "Отличная вещь, всё работает")));
+    }
+
+    private void createItem(long intendedStart) throws IOException, InterruptedException {
+        Long owner = pick(owners);
+        items.add(new ItemRef(postItem(owner, intendedStart), owner, null));
+    }
+
+    private void createRequest(long intendedStart) throws IOException, InterruptedException {
+        call("POST /requests", intendedStart, () -> client.post("/requests", pick(bookers),
+                Map.of("description", "Нужна " + pick(keywords) + " на выходные")));
+    }
+
+    private void getAllRequests(long intendedStart) throws IOException, InterruptedException {
+        call("GET /requests/all", intendedStart, () -> client.get("/requests/all?from=0&size=10", pick(owners)));
+    }
+
+    private long createUser(String role, String run, int index) throws IOException, InterruptedException {
+        return call("POST /users", System.nanoTime(), () -> client.post("/users", null, Map.of(
+                "name", role + index,
+                "email", String.format("%s%s-%s@loadtest.example", role, index, run)))).getId();
+    }
+
+    private long postItem(Long owner, long intendedStart) throws IOException, InterruptedException {
+        String keyword = pick(keywords);
+        return call("POST /items", intendedStart, () -> client.post("/items", owner, Map.of(
+                "name", keyword + " " + ThreadLocalRandom.current().nextInt(1000),
+                "description", "Почти новая " + keyword,
+                "available", true))).getId();
+    }
+
+    private ShareItClient.Response call(String endpoint, long intendedStart, Call call)
+            throws IOException, InterruptedException {
+        EndpointStats stats = report.forEndpoint(endpoint);
+        long sent = System.nanoTime();
+        try {
+            ShareItClient.Response response = call.execute();
+            stats.record(intendedStart, sent, System.nanoTime(), response.getStatus());
+            return response;
+        } catch (IOException e) {
+            stats.record(intendedStart, sent, System.nanoTime(), -1);
+            throw e;
+        }
+    }
+
+    private ItemRef randomItem() {
+        synchronized (items) {
+            return items.get(ThreadLocalRandom.current().nextInt(items.size()));
+        }
+    }
+
+    private static <T> T pick(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private static <T> T pick(T[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
+    }
+
+    private interface Step {
+        void run(long intendedStart) throws IOException, InterruptedException;
+    }
+
+    private interface Call {
+        ShareItClient.Response execute() throws IOException, InterruptedException;
+    }
+
+    private static class ItemRef {
+        private final long id;
+        private final long ownerId;
+        private final Long bookerId;
+
+        ItemRef(long id, long ownerId, Long bookerId) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.bookerId = bookerId;
+        }
+    }
+
+    private static class WeightedChoice<T> {
+        private final List<T> values = new ArrayList<>();
+        private final List<Integer> bounds = new ArrayList<>();
+        private int total;
+
+        WeightedChoice<T> add(int weight, T value) {
+            total += weight;
+            values.add(value);
+            bounds.add(total);
+            return this;
+        }
+
+        T next() {
+            int point = ThreadLocalRandom.current().nextInt(total);
+            for (int i = 0; i < bounds.size(); i++) {
+                if (point < bounds.get(i)) {
+                    return values.get(i);
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+}
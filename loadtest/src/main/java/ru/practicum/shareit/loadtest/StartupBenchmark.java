@@ -0,0 +1,80 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Время от запуска процесса до первого успешного GET /items/search — именно столько новый под
+// не принимает трафик. Команду запуска можно менять, чтобы сравнить обычный старт, CDS и профиль lazy.
+public class StartupBenchmark {
+    private static final Duration startTimeout = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        String command = "java -jar ../target/shareit-0.0.1-SNAPSHOT.jar";
+        int runs = 5;
+        for (String arg : args) {
+            if (arg.startsWith("--command=")) {
+                command = arg.substring("--command=".length());
+            } else if (arg.startsWith("--runs=")) {
+                runs = Integer.parseInt(arg.substring("--runs=".length()));
+            } else {
+                throw new IllegalArgumentException("Неизвестный аргумент: " + arg);
+            }
+        }
+
+        List<Long> results = new ArrayList<>();
+        for (int run = 1; run <= runs; run++) {
+            long millis = measure(command);
+            results.add(millis);
+            System.out.printf("Запуск %d: %d мс%n", run, millis);
+        }
+        Collections.sort(results);
+        System.out.printf("До первого успешного поиска: min %d мс, медиана %d мс, max %d мс%n",
+                results.get(0), results.get(results.size() / 2), results.get(results.size() - 1));
+    }
+
+    private static long measure(String command) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> arguments = new ArrayList<>(Arrays.asList(command.trim().split("\\s+")));
+        arguments.add("--server.port=" + port);
+        ShareItClient client = new ShareItClient("http://localhost:" + port, Duration.ofSeconds(5));
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(arguments)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - started < startTimeout.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Приложение завершилось с кодом " + process.exitValue());
+                }
+                try {
+                    if (client.get("/items/search?text=benchmark", 1L).isSuccessful()) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    }
+                } catch (IOException e) {
+                    // порт ещё не слушается
+                }
+                TimeUnit.MILLISECONDS.sleep(20);
+            }
+            throw new IllegalStateException("Приложение не ответило за " + startTimeout.toSeconds() + " с");
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
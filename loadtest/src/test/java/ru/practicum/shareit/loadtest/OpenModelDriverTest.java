@@ -0,0 +1,31 @@
+package ru.practicum.shareit.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpenModelDriverTest {
+
+    @Test
+    public void latencyIncludesQueueingBehindSlowRequests() throws InterruptedException {
+        EndpointStats stats = new EndpointStats("GET /slow");
+        try (OpenModelDriver driver = new OpenModelDriver(100, 1)) {
+            long issued = driver.run(Duration.ofMillis(500), intendedStart -> {
+                long sent = System.nanoTime();
+                TimeUnit.MILLISECONDS.sleep(20);
+                stats.record(intendedStart, sent, System.nanoTime(), 200);
+            });
+
+            assertThat(issued).isEqualTo(50);
+        }
+
+        // один поток обслуживает 50 запросов/с при 100 приходящих: очередь растёт,
+        // и закрытая модель (время обслуживания) этого бы не увидела
+        assertThat(stats.getLatency().getTotalCount()).isEqualTo(50);
+        assertThat(stats.getServiceTime().getValueAtPercentile(99)).isLessThan(TimeUnit.MILLISECONDS.toMicros(200));
+        assertThat(stats.getLatency().getMaxValue()).isGreaterThan(TimeUnit.MILLISECONDS.toMicros(400));
+    }
+}
@@ -7,10 +7,19 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingCompactListDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.service.BookingCounterService;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.stream.BookingStreamService;
+import ru.practicum.shareit.count.TotalCountHeaders;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.fields.SparseFieldsAdvice;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
@@ -23,7 +32,10 @@ import javax.validation.constraints.Min;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingStreamService bookingStreamService;
+    private final BookingCounterService bookingCounterService;
     private static final String userIdHeader = "X-Sharer-User-Id";
+    private static final String lastEventIdHeader = "Last-Event-ID";
 
     @PostMapping
     public ResponseEntity<BookingDtoResponse> createBooking(@RequestHeader(userIdHeader) @Min(1) Long bookerId,
@@ -38,6 +50,24 @@ public class BookingController {
         return ResponseEntity.status(HttpStatus.OK).body(bookingService.approveBooking(ownerId, bookingId, approved));
     }
 
+    @GetMapping("stream")
+    public SseEmitter getBookingStream(@RequestHeader(userIdHeader) @Min(1) Long userId,
+                                       @RequestHeader(value = lastEventIdHeader, required = false) @Min(0) Long lastEventId) {
+        return bookingStreamService.subscribe(userId, lastEventId);
+    }
+
+    @GetMapping("summary")
+    public ResponseEntity<BookingSummaryDto> getBookingSummaryForUser(
+            @RequestHeader(userIdHeader) @Min(1) Long userId) {
+        return ResponseEntity.status(HttpStatus.OK).body(bookingCounterService.getSummary(userId, BookingRole.BOOKER));
+    }
+
+    @GetMapping("owner/summary")
+    public ResponseEntity<BookingSummaryDto> getBookingSummaryForItemsUser(
+            @RequestHeader(userIdHeader) @Min(1) Long userId) {
+        return ResponseEntity.status(HttpStatus.OK).body(bookingCounterService.getSummary(userId, BookingRole.OWNER));
+    }
+
     @GetMapping("{bookingId}")
     public ResponseEntity<BookingDtoResponse> getBookingByIdForOwnerAndBooker(
             @PathVariable @Min(1) Long bookingId,
@@ -51,18 +81,44 @@ public class BookingController {
             @RequestHeader(userIdHeader) @Min(1) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size) {
-        return ResponseEntity.status(HttpStatus.OK)
-                .body(bookingService.getAllBookingsForUser(PageRequest.of(from / size, size), userId, state));
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = SparseFieldsAdvice.FIELDS_PARAMETER, required = false) String fields) {
+        BookingListDto bookings = bookingService.getAllBookingsForUser(PageRequest.of(from / size, size), userId, state,
+                FieldSet.parse(fields));
+        return ResponseEntity.status(HttpStatus.OK).headers(TotalCountHeaders.of(bookings.getTotal())).body(bookings);
     }
 
     @GetMapping("owner")
     public ResponseEntity<BookingListDto> getAllBookingsForItemsUser(
+            @RequestHeader(userIdHeader) @Min(1) Long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = SparseFieldsAdvice.FIELDS_PARAMETER, required = false) String fields) {
+        BookingListDto bookings = bookingService.getAllBookingsForItemsUser(
+                PageRequest.of(from / size, size), userId, state, FieldSet.parse(fields));
+        return ResponseEntity.status(HttpStatus.OK).headers(TotalCountHeaders.of(bookings.getTotal())).body(bookings);
+    }
+
+    @GetMapping(params = "view=compact")
+    public ResponseEntity<BookingCompactListDto> getCompactBookingsForUser(
             @RequestHeader(userIdHeader) @Min(1) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
             @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size) {
-        return ResponseEntity.status(HttpStatus.OK)
-                .body(bookingService.getAllBookingsForItemsUser(PageRequest.of(from / size, size), userId, state));
+        BookingCompactListDto bookings = bookingService.getCompactBookingsForUser(
+                PageRequest.of(from / size, size), userId, state);
+        return ResponseEntity.status(HttpStatus.OK).headers(TotalCountHeaders.of(bookings.getTotal())).body(bookings);
+    }
+
+    @GetMapping(value = "owner", params = "view=compact")
+    public ResponseEntity<BookingCompactListDto> getCompactBookingsForItemsUser(
+            @RequestHeader(userIdHeader) @Min(1) Long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size) {
+        BookingCompactListDto bookings = bookingService.getCompactBookingsForItemsUser(
+                PageRequest.of(from / size, size), userId, state);
+        return ResponseEntity.status(HttpStatus.OK).headers(TotalCountHeaders.of(bookings.getTotal())).body(bookings);
     }
 }
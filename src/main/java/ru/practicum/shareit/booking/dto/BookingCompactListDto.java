@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.count.TotalCount;
+
+import java.util.List;
+import java.util.Map;
+
+// view=compact: бронирования ссылаются на вещи и бронирующих по id, сами они передаются один раз в словарях
+@Builder
+@Getter
+public class BookingCompactListDto {
+    private List<BookingCompactDto> bookings;
+    private Map<Long, BookingDtoResponse.ItemData> items;
+    private Map<Long, BookingDtoResponse.UserData> users;
+    @JsonIgnore
+    private TotalCount total;
+}
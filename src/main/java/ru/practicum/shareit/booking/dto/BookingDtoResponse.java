@@ -10,6 +10,8 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class BookingDtoResponse {
     private Long id;
     private LocalDateTime start;
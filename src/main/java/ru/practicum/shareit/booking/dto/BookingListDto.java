@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.dto;
 import com.fasterxml.jackson.annotation.JsonValue;
 import lombok.Builder;
 import lombok.Getter;
+import ru.practicum.shareit.count.TotalCount;
 
 import java.util.List;
 
@@ -11,4 +12,5 @@ import java.util.List;
 public class BookingListDto {
     @JsonValue
     private List<BookingDtoResponse> bookings;
+    private TotalCount total;
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.enums;
+
+public enum BookingEventType {
+    CREATED("booking-created"),
+    APPROVED("booking-approved"),
+    REJECTED("booking-rejected");
+
+    private final String eventName;
+
+    BookingEventType(String eventName) {
+        this.eventName = eventName;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.enums.BookingEventType;
+
+@Getter
+@Builder
+public class BookingChangedEvent {
+    private final BookingEventType type;
+    private final Long ownerId;
+    private final Long bookerId;
+    private final BookingDtoResponse booking;
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.booking.maintenance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.db.DatabasePlatform;
+import ru.practicum.shareit.shard.ShardRouter;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+// Секционирование bookings есть только в schema-postgresql.sql, на H2 задача ничего не делает.
+// Бронирования с окончанием дальше months-ahead попадают в bookings_default; когда приходит время их месяца,
+// строки переносятся в новую секцию. Прошлые месяцы, чьи строки лежат в bookings_default (миграция до появления
+// секций истории), получают свои секции так же, иначе их не отсекали бы запросы и не касалась архивация. Архивация включается retention-months > 0: секции старше срока
+// отсоединяются от bookings, и их бронирования пропадают из списков PAST/ALL, из счётчиков при пересчёте
+// и из проверки «была ли бронь» при добавлении комментария.
+@Slf4j
+@Component
+public class BookingPartitionMaintenance {
+    private static final String PARTITION_PREFIX = "bookings_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbc;
+    private final DatabasePlatform platform;
+    private final ShardRouter router;
+    private final TransactionTemplate transactions;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final String archiveSchema;
+
+    @Autowired
+    public BookingPartitionMaintenance(JdbcTemplate jdbc,
+                                       DatabasePlatform platform,
+                                       ShardRouter router,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${shareit.booking.partitions.enabled:true}") boolean enabled,
+                                       @Value("${shareit.booking.partitions.months-ahead:3}") int monthsAhead,
+                                       @Value("${shareit.booking.partitions.retention-months:0}") int retentionMonths,
+                                       @Value("${shareit.booking.partitions.archive-schema:bookings_archive}") String archiveSchema) {
+        this.jdbc = jdbc;
+        this.platform = platform;
+        this.router = router;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archiveSchema = archiveSchema;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.booking.partitions.cron:0 30 3 * * *}")
+    public void maintain() {
+        if (enabled) {
+            router.forEachShard(this::maintainShard);
+        }
+    }
+
+    private void maintainShard() {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth currentMonth = YearMonth.now();
+        for (YearMonth month : findPastMonthsInDefault(currentMonth)) {
+            createPartition(month);
+        }
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(currentMonth.plusMonths(i));
+        }
+        if (retentionMonths <= 0) {
+            return;
+        }
+        YearMonth oldestKept = currentMonth.minusMonths(retentionMonths);
+        for (String partition : findPartitions()) {
+            YearMonth month = monthOf(partition);
+            if (month != null && month.isBefore(oldestKept)) {
+                archive(partition);
+            }
+        }
+    }
+
+    private boolean isPartitioned() {
+        if (!platform.isPostgres()) {
+            return false;
+        }
+        return Boolean.TRUE.equals(jdbc.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('bookings'))",
+                Boolean.class));
+    }
+
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        if (jdbc.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition)) {
+            return;
+        }
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        String create = String.format("CREATE TABLE %s PARTITION OF bookings FOR VALUES FROM ('%s') TO ('%s')",
+                partition, from, to);
+        try {
+            int moved = transactions.execute(status -> {
+                if (!jdbc.queryForObject("SELECT EXISTS (SELECT 1 FROM bookings_default " +
+                        "WHERE end_date >= ? AND end_date < ?)", Boolean.class, from, to)) {
+                    jdbc.execute(create);
+                    return 0;
+                }
+                // секцию нельзя создать, пока её строки лежат в bookings_default: отсоединяем default
+                // (вставки в bookings ждут блокировку до конца транзакции), переносим строки и возвращаем default
+                jdbc.execute("ALTER TABLE bookings DETACH PARTITION bookings_default");
+                jdbc.execute(create);
+                int rows = jdbc.update("INSERT INTO " + partition + " SELECT * FROM bookings_default " +
+                        "WHERE end_date >= ? AND end_date < ?", from, to);
+                jdbc.update("DELETE FROM bookings_default WHERE end_date >= ? AND end_date < ?", from, to);
+                jdbc.execute("ALTER TABLE bookings ATTACH PARTITION bookings_default DEFAULT");
+                return rows;
+            });
+            if (moved > 0) {
+                log.info("Секция {} создана, из bookings_default перенесено {} бронирований", partition, moved);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Не удалось создать секцию бронирований за {}: {}", month, e.getMessage());
+        }
+    }
+
+    private List<YearMonth> findPastMonthsInDefault(YearMonth currentMonth) {
+        return jdbc.query("SELECT DISTINCT date_trunc('month', end_date) AS month FROM bookings_default " +
+                        "WHERE end_date < ? ORDER BY month",
+                (rs, rowNum) -> YearMonth.from(rs.getTimestamp("month").toLocalDateTime()),
+                currentMonth.atDay(1).atStartOfDay());
+    }
+
+    private List<String> findPartitions() {
+        return jdbc.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'bookings'::regclass", String.class);
+    }
+
+    private void archive(String partition) {
+        try {
+            transactions.executeWithoutResult(status -> {
+                jdbc.execute(String.format("ALTER TABLE bookings DETACH PARTITION %s", partition));
+                jdbc.execute(String.format("ALTER TABLE %s SET SCHEMA %s", partition, archiveSchema));
+            });
+            log.info("Секция {} перенесена в архив {}", partition, archiveSchema);
+        } catch (DataAccessException e) {
+            log.warn("Не удалось перенести секцию {} в архив: {}", partition, e.getMessage());
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private static YearMonth monthOf(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
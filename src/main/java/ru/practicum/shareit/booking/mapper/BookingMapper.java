@@ -14,6 +14,7 @@ public interface BookingMapper {
 
     Booking mapToBookingFromBookingDto(BookingDto bookingDto);
 
+    @Mapping(target = "item.userId", source = "item.owner.id")
     BookingDtoResponse mapToBookingDtoResponse(Booking booking);
 
     ItemShortDto mapToItemShortDtoFromItem(Item item);
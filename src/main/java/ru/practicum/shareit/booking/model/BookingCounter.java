@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.booking.enums.BookingRole;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+@Getter
+@Setter
+@RequiredArgsConstructor
+@Entity
+@IdClass(BookingCounter.Key.class)
+@Table(name = "booking_counters")
+public class BookingCounter {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "user_role")
+    private BookingRole role;
+    @Column(name = "total_count", nullable = false)
+    private long totalCount;
+    @Column(name = "waiting_count", nullable = false)
+    private long waitingCount;
+    @Column(name = "rejected_count", nullable = false)
+    private long rejectedCount;
+    @Column(name = "future_count", nullable = false)
+    private long futureCount;
+    @Column(name = "current_count", nullable = false)
+    private long currentCount;
+    @Column(name = "past_count", nullable = false)
+    private long pastCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private BookingRole role;
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@RequiredArgsConstructor
+@Entity
+@Table(name = "booking_counter_clock")
+public class BookingCounterClock {
+    @Id
+    @Column(name = "clock_id")
+    private Integer id;
+    @Column(name = "processed_until", nullable = false)
+    private LocalDateTime processedUntil;
+}
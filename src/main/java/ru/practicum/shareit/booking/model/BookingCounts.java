@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+
+@Getter
+public class BookingCounts {
+    private final long total;
+    private final long waiting;
+    private final long rejected;
+    private final long future;
+    private final long current;
+    private final long past;
+
+    public BookingCounts(Long total, Long waiting, Long rejected, Long future, Long current, Long past) {
+        this.total = valueOf(total);
+        this.waiting = valueOf(waiting);
+        this.rejected = valueOf(rejected);
+        this.future = valueOf(future);
+        this.current = valueOf(current);
+        this.past = valueOf(past);
+    }
+
+    private static long valueOf(Long count) {
+        return count == null ? 0 : count;
+    }
+}
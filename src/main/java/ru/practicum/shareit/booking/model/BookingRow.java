@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.model;
+
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+
+public interface BookingRow {
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Status getStatus();
+
+    Long getItemId();
+
+    Long getItemOwnerId();
+
+    String getItemName();
+
+    String getItemDescription();
+
+    Boolean getItemAvailable();
+
+    Long getBookerId();
+
+    String getBookerEmail();
+
+    String getBookerName();
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingTransition {
+    private final Long bookerId;
+    private final Long ownerId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
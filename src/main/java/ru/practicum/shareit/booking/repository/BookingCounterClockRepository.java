@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.model.BookingCounterClock;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+public interface BookingCounterClockRepository extends JpaRepository<BookingCounterClock, Integer> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM BookingCounterClock c WHERE c.id = 1")
+    Optional<BookingCounterClock> lockForUpdate();
+}
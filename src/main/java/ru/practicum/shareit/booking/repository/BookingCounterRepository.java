@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.BookingCounter;
+import ru.practicum.shareit.booking.model.BookingCounts;
+import ru.practicum.shareit.booking.model.BookingTransition;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingCounterRepository extends JpaRepository<BookingCounter, BookingCounter.Key> {
+    @Modifying
+    @Query("UPDATE BookingCounter c SET c.totalCount = c.totalCount + :total, " +
+            "c.waitingCount = c.waitingCount + :waiting, c.rejectedCount = c.rejectedCount + :rejected, " +
+            "c.futureCount = c.futureCount + :future, c.currentCount = c.currentCount + :current, " +
+            "c.pastCount = c.pastCount + :past " +
+            "WHERE c.userId = :userId AND c.role = :role")
+    int applyDelta(@Param("userId") Long userId, @Param("role") BookingRole role,
+                   @Param("total") long total, @Param("waiting") long waiting, @Param("rejected") long rejected,
+                   @Param("future") long future, @Param("current") long current, @Param("past") long past);
+
+    // вставка строки, если её ещё нет; 0 — строку уже вставила параллельная транзакция
+    @Modifying
+    @Query(value = "INSERT INTO booking_counters (user_id, user_role, total_count, waiting_count, rejected_count, " +
+            "future_count, current_count, past_count) " +
+            "VALUES (:userId, :role, :total, :waiting, :rejected, :future, :current, :past) " +
+            "ON CONFLICT (user_id, user_role) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("role") String role,
+                       @Param("total") long total, @Param("waiting") long waiting, @Param("rejected") long rejected,
+                       @Param("future") long future, @Param("current") long current, @Param("past") long past);
+
+    // то же для H2, где нет ON CONFLICT
+    @Modifying
+    @Query(value = "MERGE INTO booking_counters c " +
+            "USING (VALUES (CAST(:userId AS BIGINT), CAST(:role AS VARCHAR(10)))) AS v (user_id, user_role) " +
+            "ON c.user_id = v.user_id AND c.user_role = v.user_role " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, user_role, total_count, waiting_count, rejected_count, " +
+            "future_count, current_count, past_count) " +
+            "VALUES (v.user_id, v.user_role, :total, :waiting, :rejected, :future, :current, :past)",
+            nativeQuery = true)
+    int mergeIfAbsent(@Param("userId") Long userId, @Param("role") String role,
+                      @Param("total") long total, @Param("waiting") long waiting, @Param("rejected") long rejected,
+                      @Param("future") long future, @Param("current") long current, @Param("past") long past);
+
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingCounts(COUNT(b), " +
+            "SUM(CASE WHEN b.status = :waiting THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.status = :rejected THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.start > :at THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.start <= :at AND b.end > :at THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.end <= :at THEN 1 ELSE 0 END)) " +
+            "FROM Booking b WHERE b.booker.id = :userId")
+    BookingCounts countForBooker(@Param("userId") Long userId, @Param("at") LocalDateTime at,
+                                 @Param("waiting") Status waiting, @Param("rejected") Status rejected);
+
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingCounts(COUNT(b), " +
+            "SUM(CASE WHEN b.status = :waiting THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.status = :rejected THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.start > :at THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.start <= :at AND b.end > :at THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.end <= :at THEN 1 ELSE 0 END)) " +
+            "FROM Booking b WHERE b.item.owner.id = :userId")
+    BookingCounts countForOwner(@Param("userId") Long userId, @Param("at") LocalDateTime at,
+                                @Param("waiting") Status waiting, @Param("rejected") Status rejected);
+
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingTransition(b.booker.id, b.item.owner.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE (b.start > :from AND b.start <= :to) OR (b.end > :from AND b.end <= :to)")
+    List<BookingTransition> findTransitions(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
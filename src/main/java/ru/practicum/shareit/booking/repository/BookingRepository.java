@@ -3,8 +3,10 @@ package ru.practicum.shareit.booking.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRow;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
@@ -19,11 +21,24 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findAllByBookerIdAndEndIsBeforeOrderByStartDesc(Pageable pageable, Long bookerId, LocalDateTime end);
 
+    // условие на end_date избыточно (end > start), но позволяет отсечь секции с прошедшими бронированиями
+    @Query("SELECT b FROM Booking AS b WHERE b.booker.id = ?1 AND b.start > ?2 AND b.end > ?2 ORDER BY b.start DESC")
     List<Booking> findAllByBookerIdAndStartIsAfterOrderByStartDesc(
             Pageable pageable, Long bookerId, LocalDateTime start);
 
     List<Booking> findAllByBookerIdAndStatusIsOrderByStartDesc(Pageable pageable, Long bookerId, Status status);
 
+    // view=compact: бронирование, вещь и бронирующий одной плоской строкой, без загрузки сущностей
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end, b.status AS status, " +
+            "i.id AS itemId, i.owner.id AS itemOwnerId, i.name AS itemName, i.description AS itemDescription, " +
+            "i.available AS itemAvailable, u.id AS bookerId, u.email AS bookerEmail, u.name AS bookerName " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE u.id = ?1 AND b.start > ?2 AND b.start < ?3 AND b.end > ?4 AND b.end < ?5 AND b.status IN ?6 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingRow> findRowsByBookerId(Long bookerId, LocalDateTime startAfter, LocalDateTime startBefore,
+                                        LocalDateTime endAfter, LocalDateTime endBefore, Collection<Status> statuses,
+                                        Pageable pageable);
+
     List<Booking> findAllByItemIdInOrderByStartDesc(Pageable pageable, Collection<Long> itemId);
 
     List<Booking> findAllByItemIdInAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
@@ -32,12 +47,37 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findAllByItemIdInAndEndIsBeforeOrderByStartDesc(
             Pageable pageable, Collection<Long> itemId, LocalDateTime end);
 
+    @Query("SELECT b FROM Booking AS b WHERE b.item.id IN ?1 AND b.start > ?2 AND b.end > ?2 ORDER BY b.start DESC")
     List<Booking> findAllByItemIdInAndStartIsAfterOrderByStartDesc(
             Pageable pageable, Collection<Long> itemId, LocalDateTime start);
 
     List<Booking> findAllByItemIdInAndStatusIsOrderByStartDesc(
             Pageable pageable, Collection<Long> itemId, Status status);
 
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end, b.status AS status, " +
+            "i.id AS itemId, i.owner.id AS itemOwnerId, i.name AS itemName, i.description AS itemDescription, " +
+            "i.available AS itemAvailable, u.id AS bookerId, u.email AS bookerEmail, u.name AS bookerName " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE i.owner.id = ?1 AND b.start > ?2 AND b.start < ?3 AND b.end > ?4 AND b.end < ?5 AND b.status IN ?6 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingRow> findRowsByOwnerId(Long ownerId, LocalDateTime startAfter, LocalDateTime startBefore,
+                                       LocalDateTime endAfter, LocalDateTime endBefore, Collection<Status> statuses,
+                                       Pageable pageable);
+
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end, b.status AS status, " +
+            "i.id AS itemId, i.owner.id AS itemOwnerId, i.name AS itemName, i.description AS itemDescription, " +
+            "i.available AS itemAvailable, u.id AS bookerId, u.email AS bookerEmail, u.name AS bookerName " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE b.id IN ?1")
+    List<BookingRow> findRowsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end, b.status AS status, " +
+            "i.id AS itemId, i.owner.id AS itemOwnerId, i.name AS itemName, i.description AS itemDescription, " +
+            "i.available AS itemAvailable, u.id AS bookerId, u.email AS bookerEmail, u.name AS bookerName " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE i.id IN ?1 ORDER BY b.start DESC, b.id DESC")
+    List<BookingRow> findRowsByItemIdIn(Collection<Long> itemIds);
+
     Optional<Booking> findFirstByItemIdAndEndBeforeAndStatusOrderByEndDesc(Long itemId, LocalDateTime end, Status status); // постман требует от меня null
 
     Optional<Booking> findFirstByItemIdAndEndBeforeAndStatusOrderByStartDesc(Long itemId, LocalDateTime start, Status status);
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+
+public interface BookingCounterService {
+    BookingSummaryDto getSummary(Long userId, BookingRole role);
+
+    void onBookingChanged(BookingChangedEvent event);
+
+    void advanceClock();
+}
@@ -0,0 +1,219 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.enums.BookingEventType;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.State;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.BookingCounter;
+import ru.practicum.shareit.booking.model.BookingCounterClock;
+import ru.practicum.shareit.booking.model.BookingCounts;
+import ru.practicum.shareit.booking.model.BookingTransition;
+import ru.practicum.shareit.booking.repository.BookingCounterClockRepository;
+import ru.practicum.shareit.booking.repository.BookingCounterRepository;
+import ru.practicum.shareit.db.DatabasePlatform;
+import ru.practicum.shareit.error.handler.exception.ObjectNotFoundException;
+import ru.practicum.shareit.shard.ShardRouter;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+// FUTURE/CURRENT/PAST считаются относительно часов booking_counter_clock, а не текущего времени:
+// advanceClock сдвигает часы и переносит бронирования, чьё начало или окончание попало в пройденный отрезок.
+// Часы отстают от текущего времени на gracePeriod, чтобы не обогнать ещё не закоммиченные бронирования.
+// Строка счётчика создаётся лениво при первом обращении вставкой «если нет», без гонки за первичный ключ.
+// При чтении итогов вставка идёт в отдельной транзакции: списки бронирований читают их из read-only транзакции.
+@Service
+public class BookingCounterServiceImpl implements BookingCounterService {
+    private static final Comparator<BookingCounter.Key> KEY_ORDER = Comparator
+            .comparing(BookingCounter.Key::getUserId)
+            .thenComparing(BookingCounter.Key::getRole);
+
+    private final BookingCounterRepository counters;
+    private final BookingCounterClockRepository clocks;
+    private final UserRepository users;
+    private final ShardRouter router;
+    private final DatabasePlatform platform;
+    private final TransactionTemplate transactions;
+    private final TransactionTemplate newTransactions;
+    private final long gracePeriod;
+
+    @Autowired
+    public BookingCounterServiceImpl(BookingCounterRepository counters,
+                                     BookingCounterClockRepository clocks,
+                                     UserRepository users,
+                                     ShardRouter router,
+                                     DatabasePlatform platform,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${shareit.booking.counters.grace-period:60000}") long gracePeriod) {
+        this.counters = counters;
+        this.clocks = clocks;
+        this.users = users;
+        this.router = router;
+        this.platform = platform;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.newTransactions = new TransactionTemplate(transactionManager);
+        this.newTransactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.gracePeriod = gracePeriod;
+    }
+
+    @Override
+    @Transactional
+    public BookingSummaryDto getSummary(Long userId, BookingRole role) {
+        if (!users.existsById(userId)) {
+            throw new ObjectNotFoundException("Пользователя с id=%s нет", userId);
+        }
+        BookingCounter.Key key = new BookingCounter.Key(userId, role);
+        BookingCounter counter = counters.findById(key).orElseGet(() -> {
+            newTransactions.executeWithoutResult(status -> initialize(key, clockTime()));
+            return counters.findById(key).orElseThrow();
+        });
+        return BookingSummaryDto.builder()
+                .all(counter.getTotalCount())
+                .current(counter.getCurrentCount())
+                .past(counter.getPastCount())
+                .future(counter.getFutureCount())
+                .waiting(counter.getWaitingCount())
+                .rejected(counter.getRejectedCount())
+                .build();
+    }
+
+    @Override
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingDtoResponse booking = event.getBooking();
+        LocalDateTime at = clockTime();
+        Delta delta = new Delta();
+        if (event.getType() == BookingEventType.CREATED) {
+            delta.total = 1;
+            delta.add(stateAt(booking.getStart(), booking.getEnd(), at), 1);
+            delta.add(booking.getStatus(), 1);
+        } else {
+            delta.add(Status.WAITING, -1);
+            delta.add(booking.getStatus(), 1);
+        }
+        Map<BookingCounter.Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        deltas.put(new BookingCounter.Key(event.getBookerId(), BookingRole.BOOKER), delta);
+        deltas.put(new BookingCounter.Key(event.getOwnerId(), BookingRole.OWNER), delta);
+        apply(deltas, at);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${shareit.booking.counters.tick:60000}")
+    public void advanceClock() {
+        router.forEachShard(() -> transactions.executeWithoutResult(status -> advanceShardClock()));
+    }
+
+    private void advanceShardClock() {
+        BookingCounterClock clock = clocks.lockForUpdate().orElseThrow(
+                () -> new IllegalStateException("Часы счётчиков бронирований не инициализированы"));
+        LocalDateTime from = clock.getProcessedUntil();
+        LocalDateTime to = LocalDateTime.now().minus(Duration.ofMillis(gracePeriod));
+        if (!to.isAfter(from)) {
+            return;
+        }
+        Map<BookingCounter.Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        for (BookingTransition transition : counters.findTransitions(from, to)) {
+            State before = stateAt(transition.getStart(), transition.getEnd(), from);
+            State after = stateAt(transition.getStart(), transition.getEnd(), to);
+            if (before == after) {
+                continue;
+            }
+            for (BookingCounter.Key key : new BookingCounter.Key[]{
+                    new BookingCounter.Key(transition.getBookerId(), BookingRole.BOOKER),
+                    new BookingCounter.Key(transition.getOwnerId(), BookingRole.OWNER)}) {
+                Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+                delta.add(before, -1);
+                delta.add(after, 1);
+            }
+        }
+        deltas.forEach(this::update);
+        clock.setProcessedUntil(to);
+    }
+
+    private LocalDateTime clockTime() {
+        return clocks.findById(1).map(BookingCounterClock::getProcessedUntil).orElseGet(LocalDateTime::now);
+    }
+
+    private void apply(Map<BookingCounter.Key, Delta> deltas, LocalDateTime at) {
+        deltas.forEach((key, delta) -> {
+            // строки ещё нет: считаем с нуля, изменение текущей транзакции уже видно в запросе.
+            // Если строку успела вставить параллельная транзакция, наше изменение в её подсчёт не попало
+            if (!update(key, delta) && !initialize(key, at)) {
+                update(key, delta);
+            }
+        });
+    }
+
+    private boolean update(BookingCounter.Key key, Delta delta) {
+        return counters.applyDelta(key.getUserId(), key.getRole(), delta.total, delta.waiting, delta.rejected,
+                delta.future, delta.current, delta.past) > 0;
+    }
+
+    private boolean initialize(BookingCounter.Key key, LocalDateTime at) {
+        BookingCounts counts = key.getRole() == BookingRole.BOOKER
+                ? counters.countForBooker(key.getUserId(), at, Status.WAITING, Status.REJECTED)
+                : counters.countForOwner(key.getUserId(), at, Status.WAITING, Status.REJECTED);
+        int inserted = platform.isPostgres()
+                ? counters.insertIfAbsent(key.getUserId(), key.getRole().name(), counts.getTotal(),
+                counts.getWaiting(), counts.getRejected(), counts.getFuture(), counts.getCurrent(), counts.getPast())
+                : counters.mergeIfAbsent(key.getUserId(), key.getRole().name(), counts.getTotal(),
+                counts.getWaiting(), counts.getRejected(), counts.getFuture(), counts.getCurrent(), counts.getPast());
+        return inserted > 0;
+    }
+
+    private static State stateAt(LocalDateTime start, LocalDateTime end, LocalDateTime at) {
+        if (start.isAfter(at)) {
+            return State.FUTURE;
+        }
+        return end.isAfter(at) ? State.CURRENT : State.PAST;
+    }
+
+    private static class Delta {
+        private long total;
+        private long waiting;
+        private long rejected;
+        private long future;
+        private long current;
+        private long past;
+
+        void add(State state, long value) {
+            switch (state) {
+                case FUTURE:
+                    future += value;
+                    break;
+                case CURRENT:
+                    current += value;
+                    break;
+                case PAST:
+                    past += value;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        void add(Status status, long value) {
+            if (status == Status.WAITING) {
+                waiting += value;
+            } else if (status == Status.REJECTED) {
+                rejected += value;
+            }
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingCompactListDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.fields.FieldSet;
 
 public interface BookingService {
     BookingDtoResponse createBooking(Long bookerId, BookingDto bookingDto);
@@ -14,5 +16,13 @@ public interface BookingService {
 
     BookingListDto getAllBookingsForUser(Pageable pageable, Long userId, String state);
 
+    BookingListDto getAllBookingsForUser(Pageable pageable, Long userId, String state, FieldSet fields);
+
     BookingListDto getAllBookingsForItemsUser(Pageable pageable, Long userId, String state);
+
+    BookingListDto getAllBookingsForItemsUser(Pageable pageable, Long userId, String state, FieldSet fields);
+
+    BookingCompactListDto getCompactBookingsForUser(Pageable pageable, Long userId, String state);
+
+    BookingCompactListDto getCompactBookingsForItemsUser(Pageable pageable, Long userId, String state);
 }
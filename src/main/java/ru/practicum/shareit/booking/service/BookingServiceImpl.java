@@ -2,37 +2,62 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+import ru.practicum.shareit.booking.dto.BookingCompactListDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.enums.BookingEventType;
 import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRow;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.count.TotalCount;
 import ru.practicum.shareit.error.handler.exception.InvalidDataException;
+import ru.practicum.shareit.fields.FieldSet;
 import ru.practicum.shareit.error.handler.exception.ObjectNotAvailableException;
 import ru.practicum.shareit.error.handler.exception.ObjectNotFoundException;
 import ru.practicum.shareit.error.handler.exception.StateException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class BookingServiceImpl implements BookingService {
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final BookingRepository bookings;
     private final UserRepository users;
     private final ItemRepository items;
     private final BookingMapper mapper;
+    private final ApplicationEventPublisher events;
+    private final OutboxService outbox;
+    // счётчики своего шарда: при шардировании итоги шардов складывает ShardedBookingService
+    private final BookingCounterServiceImpl bookingCounters;
 
     @Override
     @Transactional
@@ -41,17 +66,19 @@ public class BookingServiceImpl implements BookingService {
             throw new InvalidDataException("Дата окончания бронирования не может быть раньше даты начала");
         }
         Item item = items.findById(bookingDto.getItemId()).orElseThrow(
-                () -> new ObjectNotFoundException(String.format("Предмета с id=%s нет", bookingDto.getItemId())));
+                () -> new ObjectNotFoundException("Предмета с id=%s нет", bookingDto.getItemId()));
         if (!item.getOwner().getId().equals(bookerId)) {
             if (item.getAvailable()) {
                 User user = users.findById(bookerId).orElseThrow(
-                        () -> new ObjectNotFoundException(String.format("Пользователя с id=%s нет", bookerId)));
+                        () -> new ObjectNotFoundException("Пользователя с id=%s нет", bookerId));
                 Booking booking = mapper.mapToBookingFromBookingDto(bookingDto);
                 booking.setItem(item);
                 booking.setBooker(user);
-                return mapper.mapToBookingDtoResponse(bookings.save(booking));
+                BookingDtoResponse created = mapper.mapToBookingDtoResponse(bookings.save(booking));
+                publishChange(BookingEventType.CREATED, item.getOwner().getId(), bookerId, created);
+                return created;
             } else {
-                throw new ObjectNotAvailableException(String.format("Вещь с id=%s недоступна для бронирования", item.getId()));
+                throw new ObjectNotAvailableException("Вещь с id=%s недоступна для бронирования", item.getId());
             }
         } else {
             throw new ObjectNotFoundException("Владелец не может забронировать свою вещь");
@@ -66,9 +93,9 @@ public class BookingServiceImpl implements BookingService {
             throw new ObjectNotAvailableException("Неккоректный параметр строки approved");
         }
         Booking booking = bookings.findById(bookingId).orElseThrow(
-                () -> new ObjectNotFoundException(String.format("Бронирования с id=%s нет", bookingId)));
+                () -> new ObjectNotFoundException("Бронирования с id=%s нет", bookingId));
         if (!booking.getStatus().equals(Status.WAITING)) {
-            throw new ObjectNotAvailableException("Невозможно изменить статус брони со статусом " + booking.getStatus());
+            throw new ObjectNotAvailableException("Невозможно изменить статус брони со статусом %s", booking.getStatus());
         }
         if (booking.getItem().getOwner().getId().equals(ownerId)) {
             if (approve.equals("true")) {
@@ -76,9 +103,12 @@ public class BookingServiceImpl implements BookingService {
             } else {
                 booking.setStatus(Status.REJECTED);
             }
-            return mapper.mapToBookingDtoResponse(bookings.save(booking));
+            BookingDtoResponse approvedBooking = mapper.mapToBookingDtoResponse(bookings.save(booking));
+            publishChange(booking.getStatus() == Status.APPROVED ? BookingEventType.APPROVED : BookingEventType.REJECTED,
+                    ownerId, booking.getBooker().getId(), approvedBooking);
+            return approvedBooking;
         } else {
-            throw new ObjectNotFoundException(String.format("Пользователь с id=%s не является владельцем вещи с id=%s", ownerId, booking.getItem().getOwner().getId()));
+            throw new ObjectNotFoundException("Пользователь с id=%s не является владельцем вещи с id=%s", ownerId, booking.getItem().getOwner().getId());
         }
     }
 
@@ -86,9 +116,9 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public BookingDtoResponse getBookingByIdForOwnerAndBooker(Long bookingId, Long userId) {
         Booking booking = bookings.findById(bookingId).orElseThrow(
-                () -> new ObjectNotFoundException("Бронирования с id=" + bookingId + " нет"));
+                () -> new ObjectNotFoundException("Бронирования с id=%s нет", bookingId));
         if (!(booking.getBooker().getId().equals(userId) || booking.getItem().getOwner().getId().equals(userId))) {
-            throw new ObjectNotFoundException(String.format("Пользователь с id=%s не является автором бронирования или владельцем вещи, к которой относится бронирование", userId));
+            throw new ObjectNotFoundException("Пользователь с id=%s не является автором бронирования или владельцем вещи, к которой относится бронирование", userId);
         }
         return mapper.mapToBookingDtoResponse(booking);
     }
@@ -96,25 +126,186 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional(readOnly = true)
     public BookingListDto getAllBookingsForUser(Pageable pageable, Long userId, String state) {
+        return getAllBookingsForUser(pageable, userId, state, FieldSet.ALL);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingListDto getAllBookingsForUser(Pageable pageable, Long userId, String state, FieldSet fields) {
         if (!users.existsById(userId)) {
-            throw new ObjectNotFoundException(String.format("Пользователя с id=%s не существует", userId));
+            throw new ObjectNotFoundException("Пользователя с id=%s не существует", userId);
         } else {
-            return getListBookings(pageable, state, userId, false);
+            BookingListDto list = fields.isAll()
+                    ? getListBookings(pageable, state, userId, false)
+                    : getSparseBookings(pageable, state, userId, BookingRole.BOOKER, fields);
+            return withTotal(list, pageable, userId, BookingRole.BOOKER, state);
         }
     }
 
     @Override
     @Transactional(readOnly = true)
     public BookingListDto getAllBookingsForItemsUser(Pageable pageable, Long userId, String state) {
+        return getAllBookingsForItemsUser(pageable, userId, state, FieldSet.ALL);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingListDto getAllBookingsForItemsUser(Pageable pageable, Long userId, String state, FieldSet fields) {
         if (!users.existsById(userId)) {
-            throw new ObjectNotFoundException(String.format("Пользователя с id=%s не существует", userId));
+            throw new ObjectNotFoundException("Пользователя с id=%s не существует", userId);
         }
         if (!items.existsItemByOwnerId(userId)) {
-            throw new ObjectNotFoundException(String.format("У пользователя с id=%s нет зарегестрированых вещей", userId));
+            throw new ObjectNotFoundException("У пользователя с id=%s нет зарегестрированых вещей", userId);
         } else {
-            return getListBookings(pageable, state, userId, true);
+            BookingListDto list = fields.isAll()
+                    ? getListBookings(pageable, state, userId, true)
+                    : getSparseBookings(pageable, state, userId, BookingRole.OWNER, fields);
+            return withTotal(list, pageable, userId, BookingRole.OWNER, state);
+        }
+
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingCompactListDto getCompactBookingsForUser(Pageable pageable, Long userId, String state) {
+        if (!users.existsById(userId)) {
+            throw new ObjectNotFoundException("Пользователя с id=%s не существует", userId);
+        }
+        return getCompactBookings(pageable, state, userId, BookingRole.BOOKER);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingCompactListDto getCompactBookingsForItemsUser(Pageable pageable, Long userId, String state) {
+        if (!users.existsById(userId)) {
+            throw new ObjectNotFoundException("Пользователя с id=%s не существует", userId);
+        }
+        if (!items.existsItemByOwnerId(userId)) {
+            throw new ObjectNotFoundException("У пользователя с id=%s нет зарегестрированых вещей", userId);
+        }
+        return getCompactBookings(pageable, state, userId, BookingRole.OWNER);
+    }
+
+    private BookingCompactListDto getCompactBookings(Pageable pageable, String state, Long userId, BookingRole role) {
+        List<BookingRow> rows = findRows(pageable, state, userId, role);
+        List<BookingCompactDto> page = new ArrayList<>(rows.size());
+        Map<Long, BookingDtoResponse.ItemData> itemsById = new LinkedHashMap<>();
+        Map<Long, BookingDtoResponse.UserData> usersById = new LinkedHashMap<>();
+        for (BookingRow row : rows) {
+            page.add(BookingCompactDto.builder()
+                    .id(row.getId())
+                    .start(row.getStart())
+                    .end(row.getEnd())
+                    .itemId(row.getItemId())
+                    .bookerId(row.getBookerId())
+                    .status(row.getStatus())
+                    .build());
+            itemsById.computeIfAbsent(row.getItemId(), id -> itemData(row));
+            usersById.computeIfAbsent(row.getBookerId(), id -> userData(row));
+        }
+        return BookingCompactListDto.builder()
+                .bookings(page)
+                .items(itemsById)
+                .users(usersById)
+                .total(countBookings(pageable, page.size(), userId, role, state))
+                .build();
+    }
+
+    // с fields= страница читается той же плоской проекцией без загрузки сущностей,
+    // вещь и бронирующий собираются из строки, только если выбраны
+    private BookingListDto getSparseBookings(Pageable pageable, String state, Long userId, BookingRole role,
+                                             FieldSet fields) {
+        boolean withItem = fields.includes("item");
+        boolean withBooker = fields.includes("booker");
+        return BookingListDto.builder()
+                .bookings(findRows(pageable, state, userId, role).stream()
+                        .map(row -> BookingDtoResponse.builder()
+                                .id(row.getId())
+                                .start(row.getStart())
+                                .end(row.getEnd())
+                                .item(withItem ? itemData(row) : null)
+                                .booker(withBooker ? userData(row) : null)
+                                .status(row.getStatus())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    // состояние задаётся окном по start/end и набором статусов, поэтому на роль хватает одного запроса
+    private List<BookingRow> findRows(Pageable pageable, String state, Long userId, BookingRole role) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime startAfter = EARLIEST;
+        LocalDateTime startBefore = LATEST;
+        LocalDateTime endAfter = EARLIEST;
+        LocalDateTime endBefore = LATEST;
+        Set<Status> statuses = EnumSet.allOf(Status.class);
+        switch (State.fromValue(state.toUpperCase())) {
+            case ALL:
+                break;
+            case CURRENT:
+                startBefore = now;
+                endAfter = now;
+                break;
+            case PAST:
+                endBefore = now;
+                break;
+            case FUTURE:
+                startAfter = now;
+                endAfter = now;
+                break;
+            case WAITING:
+                statuses = EnumSet.of(Status.WAITING);
+                break;
+            case REJECTED:
+                statuses = EnumSet.of(Status.REJECTED);
+                break;
+            default:
+                throw new StateException("Unknown state: %s", state);
         }
+        return role == BookingRole.OWNER
+                ? bookings.findRowsByOwnerId(userId, startAfter, startBefore, endAfter, endBefore, statuses, pageable)
+                : bookings.findRowsByBookerId(userId, startAfter, startBefore, endAfter, endBefore, statuses, pageable);
+    }
+
+    private static BookingDtoResponse.ItemData itemData(BookingRow row) {
+        return new BookingDtoResponse.ItemData(row.getItemId(), row.getItemOwnerId(), row.getItemName(),
+                row.getItemDescription(), row.getItemAvailable());
+    }
 
+    private static BookingDtoResponse.UserData userData(BookingRow row) {
+        return new BookingDtoResponse.UserData(row.getBookerId(), row.getBookerEmail(), row.getBookerName());
+    }
+
+    private BookingListDto withTotal(BookingListDto list, Pageable pageable, Long userId, BookingRole role,
+                                     String state) {
+        return BookingListDto.builder()
+                .bookings(list.getBookings())
+                .total(countBookings(pageable, list.getBookings().size(), userId, role, state))
+                .build();
+    }
+
+    // полные страницы считаются по счётчикам booking_counters: ALL, WAITING и REJECTED в них точные,
+    // а CURRENT, PAST и FUTURE отстают на шаг часов счётчиков
+    private TotalCount countBookings(Pageable pageable, int fetched, Long userId, BookingRole role, String state) {
+        return TotalCount.ofPage(pageable, fetched).orElseGet(() -> {
+            BookingSummaryDto summary = bookingCounters.getSummary(userId, role);
+            switch (State.fromValue(state.toUpperCase())) {
+                case ALL:
+                    return TotalCount.exact(summary.getAll());
+                case WAITING:
+                    return TotalCount.exact(summary.getWaiting());
+                case REJECTED:
+                    return TotalCount.exact(summary.getRejected());
+                case CURRENT:
+                    return TotalCount.approximate(summary.getCurrent());
+                case PAST:
+                    return TotalCount.approximate(summary.getPast());
+                case FUTURE:
+                    return TotalCount.approximate(summary.getFuture());
+                default:
+                    throw new StateException("Unknown state: %s", state);
+            }
+        });
     }
 
     private BookingListDto getListBookings(Pageable pageable, String state, Long userId, Boolean isOwner) {
@@ -207,8 +398,29 @@ public class BookingServiceImpl implements BookingService {
                             .build();
                 }
             default:
-                throw new StateException("Unknown state: " + state);
+                throw new StateException("Unknown state: %s", state);
+        }
+    }
+
+    private void publishChange(BookingEventType type, Long ownerId, Long bookerId, BookingDtoResponse booking) {
+        OutboxEventType outboxEventType;
+        switch (type) {
+            case CREATED:
+                outboxEventType = OutboxEventType.BOOKING_CREATED;
+                break;
+            case APPROVED:
+                outboxEventType = OutboxEventType.BOOKING_APPROVED;
+                break;
+            default:
+                outboxEventType = OutboxEventType.BOOKING_REJECTED;
         }
+        outbox.record(AggregateType.BOOKING, booking.getId(), outboxEventType, booking);
+        events.publishEvent(BookingChangedEvent.builder()
+                .type(type)
+                .ownerId(ownerId)
+                .bookerId(bookerId)
+                .booking(booking)
+                .build());
     }
 
     private boolean isNotValidDate(LocalDateTime startBooking, LocalDateTime endBooking) {
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.shard.ShardRouter;
+
+import java.util.List;
+
+@Service
+@Primary
+@ConditionalOnProperty(name = "shareit.sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ShardedBookingCounterService implements BookingCounterService {
+    private final BookingCounterServiceImpl delegate;
+    private final ShardRouter router;
+
+    @Override
+    public BookingSummaryDto getSummary(Long userId, BookingRole role) {
+        if (role == BookingRole.OWNER) {
+            return router.onShard(router.shardForOwner(userId), () -> delegate.getSummary(userId, role));
+        }
+        List<BookingSummaryDto> summaries = router.onEachShard(() -> delegate.getSummary(userId, role));
+        return BookingSummaryDto.builder()
+                .all(summaries.stream().mapToLong(BookingSummaryDto::getAll).sum())
+                .current(summaries.stream().mapToLong(BookingSummaryDto::getCurrent).sum())
+                .past(summaries.stream().mapToLong(BookingSummaryDto::getPast).sum())
+                .future(summaries.stream().mapToLong(BookingSummaryDto::getFuture).sum())
+                .waiting(summaries.stream().mapToLong(BookingSummaryDto::getWaiting).sum())
+                .rejected(summaries.stream().mapToLong(BookingSummaryDto::getRejected).sum())
+                .build();
+    }
+
+    @Override
+    public void onBookingChanged(BookingChangedEvent event) {
+        delegate.onBookingChanged(event);
+    }
+
+    @Override
+    public void advanceClock() {
+        delegate.advanceClock();
+    }
+}
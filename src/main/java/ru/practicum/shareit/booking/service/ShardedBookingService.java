@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+import ru.practicum.shareit.booking.dto.BookingCompactListDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.count.TotalCount;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.shard.ShardRouter;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Service
+@Primary
+@ConditionalOnProperty(name = "shareit.sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ShardedBookingService implements BookingService {
+    private static final Comparator<BookingDtoResponse> START_DESC = Comparator
+            .comparing(BookingDtoResponse::getStart).reversed()
+            .thenComparing(BookingDtoResponse::getId, Comparator.reverseOrder());
+    private static final Comparator<BookingCompactDto> COMPACT_START_DESC = Comparator
+            .comparing(BookingCompactDto::getStart).reversed()
+            .thenComparing(BookingCompactDto::getId, Comparator.reverseOrder());
+
+    private final BookingServiceImpl delegate;
+    private final ShardRouter router;
+
+    @Override
+    public BookingDtoResponse createBooking(Long bookerId, BookingDto bookingDto) {
+        return router.onShard(router.shardForId(bookingDto.getItemId()),
+                () -> delegate.createBooking(bookerId, bookingDto));
+    }
+
+    @Override
+    public BookingDtoResponse approveBooking(Long ownerId, Long bookingId, String approved) {
+        return router.onShard(router.shardForId(bookingId), () -> delegate.approveBooking(ownerId, bookingId, approved));
+    }
+
+    @Override
+    public BookingDtoResponse getBookingByIdForOwnerAndBooker(Long bookingId, Long userId) {
+        return router.onShard(router.shardForId(bookingId),
+                () -> delegate.getBookingByIdForOwnerAndBooker(bookingId, userId));
+    }
+
+    @Override
+    public BookingListDto getAllBookingsForUser(Pageable pageable, Long userId, String state) {
+        return getAllBookingsForUser(pageable, userId, state, FieldSet.ALL);
+    }
+
+    @Override
+    public BookingListDto getAllBookingsForUser(Pageable pageable, Long userId, String state, FieldSet fields) {
+        // каждый шард отдаёт первые (page + 1) * size своих бронирований, страница собирается слиянием по start
+        Pageable head = PageRequest.of(0, (pageable.getPageNumber() + 1) * pageable.getPageSize());
+        List<BookingListDto> shards = router.onEachShard(
+                () -> delegate.getAllBookingsForUser(head, userId, state, fields));
+        List<List<BookingDtoResponse>> found = shards.stream().map(BookingListDto::getBookings)
+                .collect(Collectors.toList());
+        return BookingListDto.builder()
+                .bookings(ShardRouter.merge(found, START_DESC, pageable.getOffset(), pageable.getPageSize()))
+                .total(shards.stream().map(BookingListDto::getTotal).filter(Objects::nonNull)
+                        .reduce(TotalCount::plus).orElse(null))
+                .build();
+    }
+
+    @Override
+    public BookingListDto getAllBookingsForItemsUser(Pageable pageable, Long userId, String state) {
+        return getAllBookingsForItemsUser(pageable, userId, state, FieldSet.ALL);
+    }
+
+    @Override
+    public BookingListDto getAllBookingsForItemsUser(Pageable pageable, Long userId, String state, FieldSet fields) {
+        return router.onShard(router.shardForOwner(userId),
+                () -> delegate.getAllBookingsForItemsUser(pageable, userId, state, fields));
+    }
+
+    @Override
+    public BookingCompactListDto getCompactBookingsForUser(Pageable pageable, Long userId, String state) {
+        Pageable head = PageRequest.of(0, (pageable.getPageNumber() + 1) * pageable.getPageSize());
+        List<BookingCompactListDto> shards = router.onEachShard(
+                () -> delegate.getCompactBookingsForUser(head, userId, state));
+        List<List<BookingCompactDto>> found = shards.stream().map(BookingCompactListDto::getBookings)
+                .collect(Collectors.toList());
+        List<BookingCompactDto> page = ShardRouter.merge(found, COMPACT_START_DESC, pageable.getOffset(),
+                pageable.getPageSize());
+        // в словари попадают только вещи и пользователи бронирований итоговой страницы
+        Map<Long, BookingDtoResponse.ItemData> items = new LinkedHashMap<>();
+        Map<Long, BookingDtoResponse.UserData> users = new LinkedHashMap<>();
+        for (BookingCompactDto booking : page) {
+            shards.forEach(shard -> {
+                items.computeIfAbsent(booking.getItemId(), shard.getItems()::get);
+                users.computeIfAbsent(booking.getBookerId(), shard.getUsers()::get);
+            });
+        }
+        return BookingCompactListDto.builder()
+                .bookings(page)
+                .items(items)
+                .users(users)
+                .total(shards.stream().map(BookingCompactListDto::getTotal).filter(Objects::nonNull)
+                        .reduce(TotalCount::plus).orElse(null))
+                .build();
+    }
+
+    @Override
+    public BookingCompactListDto getCompactBookingsForItemsUser(Pageable pageable, Long userId, String state) {
+        return router.onShard(router.shardForOwner(userId),
+                () -> delegate.getCompactBookingsForItemsUser(pageable, userId, state));
+    }
+}
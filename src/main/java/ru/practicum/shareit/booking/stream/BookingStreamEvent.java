@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.stream;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.enums.BookingEventType;
+
+@Getter
+@Builder
+public class BookingStreamEvent {
+    private final long id;
+    private final BookingEventType type;
+    private final Long ownerId;
+    private final Long bookerId;
+    private final BookingDtoResponse booking;
+
+    public boolean isAddressedTo(Long userId) {
+        return userId.equals(ownerId) || userId.equals(bookerId);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.outbox.event.DomainEvent;
+
+public interface BookingStreamService {
+    SseEmitter subscribe(Long userId, Long lastEventId);
+
+    void onDomainEvent(DomainEvent event);
+}
@@ -0,0 +1,330 @@
+package ru.practicum.shareit.booking.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.enums.BookingEventType;
+import ru.practicum.shareit.error.handler.exception.ObjectNotFoundException;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.OutboxEventType;
+import ru.practicum.shareit.outbox.event.DomainEvent;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.shard.ShardRouter;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Поток строится из событий outbox: свои приходят после коммита, чужие — через рассылку релея,
+// поэтому клиент видит бронирования, изменённые на любом узле. id события в потоке — event_id outbox,
+// и Last-Event-ID, полученный от одного узла, годится для продолжения на другом
+@Slf4j
+@Service
+public class BookingStreamServiceImpl implements BookingStreamService {
+    private static final String RESET_EVENT = "stream-reset";
+
+    private final UserRepository users;
+    private final OutboxEventRepository outboxEvents;
+    private final ShardRouter router;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactions;
+    private final long emitterTimeout;
+    private final int bufferSize;
+    private final int historySize;
+    // события в порядке прихода на узел: event_id выдаётся при вставке, а не при коммите, и у шардов растёт
+    // независимо, поэтому событие с меньшим id может прийти позже. Повтор идёт по порядку прихода
+    private final LinkedHashMap<Long, BookingStreamEvent> history = new LinkedHashMap<>();
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeats;
+    // последнее вытесненное из истории событие: клиенту, видевшему его, повторяется вся история
+    private Long lastEvicted;
+
+    @Autowired
+    public BookingStreamServiceImpl(UserRepository users,
+                                    OutboxEventRepository outboxEvents,
+                                    ShardRouter router,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${shareit.booking.stream.timeout:1800000}") long emitterTimeout,
+                                    @Value("${shareit.booking.stream.buffer-size:64}") int bufferSize,
+                                    @Value("${shareit.booking.stream.history-size:1024}") int historySize,
+                                    @Value("${shareit.booking.stream.heartbeat-interval:15000}") long heartbeatInterval,
+                                    @Value("${shareit.booking.stream.dispatcher-threads:2}") int dispatcherThreads) {
+        this.users = users;
+        this.outboxEvents = outboxEvents;
+        this.router = router;
+        this.objectMapper = objectMapper;
+        // свои события приходят в afterCommit, где старая транзакция ещё привязана к потоку
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactions.setReadOnly(true);
+        this.emitterTimeout = emitterTimeout;
+        this.bufferSize = bufferSize;
+        this.historySize = historySize;
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, daemon("booking-stream-dispatcher"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemon("booking-stream-heartbeat"));
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats, heartbeatInterval, heartbeatInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        if (!users.existsById(userId)) {
+            throw new ObjectNotFoundException("Пользователя с id=%s нет", userId);
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscriber));
+        List<BookingStreamEvent> missed = new ArrayList<>();
+        boolean gap = false;
+        synchronized (history) {
+            subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            if (lastEventId != null) {
+                // событие не из истории узла (до его старта, давно вытеснено или ещё не дошло сюда):
+                // что пропущено, не сказать, клиент перечитывает состояние
+                boolean found = lastEventId.equals(lastEvicted);
+                gap = !found && !history.containsKey(lastEventId);
+                if (!gap) {
+                    for (BookingStreamEvent event : history.values()) {
+                        if (found && event.isAddressedTo(userId)) {
+                            missed.add(event);
+                        }
+                        found = found || event.getId().equals(lastEventId);
+                    }
+                }
+            }
+        }
+        if (gap) {
+            subscriber.sendReset();
+        }
+        subscriber.replay(missed);
+        subscriber.start();
+        return emitter;
+    }
+
+    @Override
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        if (event.getAggregateType() != AggregateType.BOOKING) {
+            return;
+        }
+        if (event.isAll()) {
+            // уведомления могли потеряться: старые Last-Event-ID больше не покрыты, открытые потоки начинаются заново
+            synchronized (history) {
+                history.clear();
+                lastEvicted = null;
+            }
+            subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(Subscriber::sendReset));
+            return;
+        }
+        BookingDtoResponse booking = load(event);
+        if (booking == null) {
+            return;
+        }
+        BookingStreamEvent streamEvent = BookingStreamEvent.builder()
+                .id(event.getEventId())
+                .type(typeOf(event.getEventType()))
+                .ownerId(booking.getItem().getUserId())
+                .bookerId(booking.getBooker().getId())
+                .booking(booking)
+                .build();
+        synchronized (history) {
+            // своё событие приходит дважды: после коммита и из рассылки релея
+            if (history.containsKey(streamEvent.getId())) {
+                return;
+            }
+            history.put(streamEvent.getId(), streamEvent);
+            if (history.size() > historySize) {
+                Iterator<Long> oldest = history.keySet().iterator();
+                lastEvicted = oldest.next();
+                oldest.remove();
+            }
+        }
+        deliver(streamEvent, streamEvent.getOwnerId());
+        if (!streamEvent.getBookerId().equals(streamEvent.getOwnerId())) {
+            deliver(streamEvent, streamEvent.getBookerId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(Subscriber::close));
+    }
+
+    private BookingDtoResponse load(DomainEvent event) {
+        // строка outbox лежит на шарде бронирования
+        String payload = router.onShard(router.shardForId(event.getAggregateId()), () -> transactions.execute(status ->
+                outboxEvents.findById(event.getEventId()).map(OutboxEvent::getPayload).orElse(null)));
+        if (payload == null) {
+            log.warn("Событие outbox id={} уже удалено, в поток бронирований не попало", event.getEventId());
+            return null;
+        }
+        try {
+            return objectMapper.readValue(payload, BookingDtoResponse.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось прочитать событие outbox id={}: {}", event.getEventId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static BookingEventType typeOf(OutboxEventType eventType) {
+        switch (eventType) {
+            case BOOKING_CREATED:
+                return BookingEventType.CREATED;
+            case BOOKING_APPROVED:
+                return BookingEventType.APPROVED;
+            case BOOKING_REJECTED:
+                return BookingEventType.REJECTED;
+            default:
+                throw new IllegalArgumentException("Событие " + eventType + " не относится к бронированию");
+        }
+    }
+
+    private void deliver(BookingStreamEvent event, Long userId) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers != null) {
+            userSubscribers.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    private void sendHeartbeats() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(Subscriber::heartbeat));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<BookingStreamEvent> buffer;
+        // до окончания повтора пропущенных событий живые события только копятся в буфере
+        private final AtomicBoolean scheduled = new AtomicBoolean(true);
+        // повторённые события могут прийти и живыми, второй раз их не шлём
+        private final Set<Long> replayed = ConcurrentHashMap.newKeySet();
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void replay(List<BookingStreamEvent> events) {
+            for (BookingStreamEvent event : events) {
+                send(event);
+                replayed.add(event.getId());
+            }
+        }
+
+        void start() {
+            scheduled.set(false);
+            if (!buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void offer(BookingStreamEvent event) {
+            if (!buffer.offer(event)) {
+                // медленный клиент: рвём соединение, он переподключится с Last-Event-ID
+                log.warn("Буфер подписчика userId={} переполнен, соединение закрыто", userId);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                BookingStreamEvent event;
+                while ((event = buffer.poll()) != null) {
+                    if (!replayed.remove(event.getId())) {
+                        send(event);
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                if (!buffer.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        synchronized void send(BookingStreamEvent event) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.getId()))
+                        .name(event.getType().getEventName())
+                        .data(event.getBooking(), MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                remove(this);
+            }
+        }
+
+        synchronized void sendReset() {
+            try {
+                emitter.send(SseEmitter.event().name(RESET_EVENT).data(""));
+            } catch (IOException | IllegalStateException e) {
+                remove(this);
+            }
+        }
+
+        synchronized void heartbeat() {
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                remove(this);
+            }
+        }
+
+        void close() {
+            remove(this);
+            buffer.clear();
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.cache.enums.CacheRegion;
+
+// При spring.cache.type=generic автоконфигурация собирает менеджер кэшей из этих бинов;
+// при spring.cache.type=none они просто не используются
+@Configuration
+public class CacheConfig {
+    private final int maxSize;
+
+    public CacheConfig(@Value("${shareit.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Bean
+    public Cache usersCache() {
+        return new LruCache(CacheRegion.USERS.getCacheName(), maxSize);
+    }
+
+    @Bean
+    public Cache itemsCache() {
+        return new LruCache(CacheRegion.ITEMS.getCacheName(), maxSize);
+    }
+
+    @Bean
+    public Cache requestsCache() {
+        return new LruCache(CacheRegion.REQUESTS.getCacheName(), maxSize);
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+// Кэш с ограничением по числу записей: при переполнении вытесняется запись, которую дольше всех не читали.
+// Загрузка значения идёт без блокировки, одновременные промахи по одному ключу просто загрузят его дважды.
+public class LruCache extends AbstractValueAdaptingCache {
+    private final String name;
+    private final Map<Object, Object> store;
+
+    public LruCache(String name, int maxSize) {
+        super(true);
+        this.name = name;
+        this.store = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return store;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        synchronized (store) {
+            return store.get(key);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        synchronized (store) {
+            store.put(key, toStoreValue(value));
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        synchronized (store) {
+            return toValueWrapper(store.putIfAbsent(key, toStoreValue(value)));
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        synchronized (store) {
+            store.remove(key);
+        }
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        synchronized (store) {
+            return store.remove(key) != null;
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (store) {
+            store.clear();
+        }
+    }
+
+    @Override
+    public boolean invalidate() {
+        synchronized (store) {
+            boolean notEmpty = !store.isEmpty();
+            store.clear();
+            return notEmpty;
+        }
+    }
+}
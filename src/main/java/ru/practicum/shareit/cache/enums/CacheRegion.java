@@ -0,0 +1,26 @@
+package ru.practicum.shareit.cache.enums;
+
+public enum CacheRegion {
+    USERS("users"),
+    ITEMS("items"),
+    REQUESTS("requests");
+
+    private final String cacheName;
+
+    CacheRegion(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public static CacheRegion fromCacheName(String cacheName) {
+        for (CacheRegion region : values()) {
+            if (region.cacheName.equals(cacheName)) {
+                return region;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.cache.event;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.cache.enums.CacheRegion;
+
+import java.util.Set;
+
+@Getter
+@Builder
+public class CacheInvalidatedEvent {
+    private final CacheRegion region;
+    private final Set<Long> ids;
+    private final boolean all;
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.cache.service;
+
+import ru.practicum.shareit.cache.enums.CacheRegion;
+
+import java.util.Map;
+import java.util.Set;
+
+public interface CacheInvalidationService {
+    void invalidate(CacheRegion region, Long id);
+
+    void evictLocally(Map<CacheRegion, Set<Long>> ids, Set<CacheRegion> flushed);
+
+    void flushLocally();
+}
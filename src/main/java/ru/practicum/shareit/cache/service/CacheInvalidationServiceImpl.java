@@ -0,0 +1,90 @@
+package ru.practicum.shareit.cache.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.cache.enums.CacheRegion;
+import ru.practicum.shareit.cache.event.CacheInvalidatedEvent;
+import ru.practicum.shareit.db.DatabasePlatform;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class CacheInvalidationServiceImpl implements CacheInvalidationService {
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher events;
+    private final JdbcTemplate jdbc;
+    private final DatabasePlatform platform;
+    private final String channel;
+
+    @Autowired
+    public CacheInvalidationServiceImpl(CacheManager cacheManager,
+                                        ApplicationEventPublisher events,
+                                        JdbcTemplate jdbc,
+                                        DatabasePlatform platform,
+                                        @Value("${shareit.cache.invalidation.channel:shareit_cache}") String channel) {
+        this.cacheManager = cacheManager;
+        this.events = events;
+        this.jdbc = jdbc;
+        this.platform = platform;
+        this.channel = channel;
+    }
+
+    @Override
+    public void invalidate(CacheRegion region, Long id) {
+        if (platform.isPostgres()) {
+            // NOTIFY транзакционный: остальные узлы получат его только после коммита
+            jdbc.queryForObject("SELECT pg_notify(?, ?)", String.class, channel, region.getCacheName() + ":" + id);
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocally(Map.of(region, Set.of(id)), Set.of());
+                }
+            });
+        } else {
+            evictLocally(Map.of(region, Set.of(id)), Set.of());
+        }
+    }
+
+    @Override
+    public void evictLocally(Map<CacheRegion, Set<Long>> ids, Set<CacheRegion> flushed) {
+        for (CacheRegion region : flushed) {
+            Cache cache = findCache(region);
+            if (cache != null) {
+                cache.clear();
+            }
+            events.publishEvent(CacheInvalidatedEvent.builder().region(region).ids(Set.of()).all(true).build());
+        }
+        ids.forEach((region, regionIds) -> {
+            if (flushed.contains(region)) {
+                return;
+            }
+            Cache cache = findCache(region);
+            if (cache != null) {
+                regionIds.forEach(cache::evict);
+            }
+            events.publishEvent(CacheInvalidatedEvent.builder().region(region).ids(regionIds).all(false).build());
+        });
+    }
+
+    @Override
+    public void flushLocally() {
+        evictLocally(Map.of(), EnumSet.allOf(CacheRegion.class));
+    }
+
+    private Cache findCache(CacheRegion region) {
+        return cacheManager.getCacheNames().contains(region.getCacheName())
+                ? cacheManager.getCache(region.getCacheName())
+                : null;
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.cache.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.cache.enums.CacheRegion;
+import ru.practicum.shareit.cache.event.CacheInvalidatedEvent;
+import ru.practicum.shareit.shard.ShardContext;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Одновременные одинаковые чтения разделяют одно вычисление: первый вызов (лидер) читает базу
+// в своей read-only транзакции, остальные ждут его результат не дольше max-wait и не держат соединение.
+@Slf4j
+@Component
+public class SingleFlight {
+    private final TransactionTemplate readOnly;
+    private final long maxWait;
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<CacheRegion, Stats> stats = new EnumMap<>(CacheRegion.class);
+
+    @Autowired
+    public SingleFlight(PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${shareit.single-flight.max-wait:1000}") long maxWait) {
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.maxWait = maxWait;
+        for (CacheRegion region : CacheRegion.values()) {
+            Stats regionStats = new Stats(meterRegistry, region);
+            stats.put(region, regionStats);
+            Gauge.builder("shareit.single-flight.coalescing-ratio", regionStats, Stats::ratio)
+                    .description("Доля чтений, получивших результат чужого вычисления")
+                    .tag("region", region.getCacheName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T load(CacheRegion region, Long id, Supplier<T> loader) {
+        Key key = new Key(region, ShardContext.current(), id);
+        Stats regionStats = stats.get(region);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            regionStats.leaders.increment();
+            try {
+                T result = readOnly.execute(status -> loader.get());
+                flight.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        }
+        try {
+            T result = (T) existing.get(maxWait, TimeUnit.MILLISECONDS);
+            regionStats.followers.increment();
+            return result;
+        } catch (TimeoutException e) {
+            // лидер завис: не ждём дальше и читаем сами
+            regionStats.timeouts.increment();
+            log.debug("Не дождались чтения {} id={} за {} мс", region.getCacheName(), id, maxWait);
+            return readOnly.execute(status -> loader.get());
+        } catch (ExecutionException e) {
+            regionStats.followers.increment();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // после изменения новые чтения не должны присоединяться к вычислению, начатому до коммита
+    @EventListener
+    public void onInvalidated(CacheInvalidatedEvent event) {
+        inFlight.keySet().removeIf(key -> key.region == event.getRegion()
+                && (event.isAll() || event.getIds().contains(key.id)));
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final CacheRegion region;
+        private final Integer shard;
+        private final Long id;
+    }
+
+    private static class Stats {
+        private final Counter leaders;
+        private final Counter followers;
+        private final Counter timeouts;
+
+        Stats(MeterRegistry meterRegistry, CacheRegion region) {
+            this.leaders = counter(meterRegistry, region, "leader");
+            this.followers = counter(meterRegistry, region, "follower");
+            this.timeouts = counter(meterRegistry, region, "timeout");
+        }
+
+        double ratio() {
+            double total = leaders.count() + followers.count() + timeouts.count();
+            return total == 0 ? 0 : followers.count() / total;
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, CacheRegion region, String role) {
+            return Counter.builder("shareit.single-flight.calls")
+                    .tag("region", region.getCacheName())
+                    .tag("role", role)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.count;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class TotalCount {
+    private final long value;
+    private final boolean approximate;
+
+    public static TotalCount exact(long value) {
+        return new TotalCount(value, false);
+    }
+
+    public static TotalCount approximate(long value) {
+        return new TotalCount(value, true);
+    }
+
+    // неполная непустая страница (или пустая первая) — последняя, total известен без подсчёта
+    public static Optional<TotalCount> ofPage(Pageable pageable, int fetched) {
+        if (fetched < pageable.getPageSize() && (fetched > 0 || pageable.getOffset() == 0)) {
+            return Optional.of(exact(pageable.getOffset() + fetched));
+        }
+        return Optional.empty();
+    }
+
+    public TotalCount plus(TotalCount other) {
+        return new TotalCount(value + other.value, approximate || other.approximate);
+    }
+}
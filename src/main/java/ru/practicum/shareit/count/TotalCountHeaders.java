@@ -0,0 +1,22 @@
+package ru.practicum.shareit.count;
+
+import org.springframework.http.HttpHeaders;
+
+// Списочные DTO несут поле total, а контроллер отдаёт его клиенту заголовками: X-Total-Count — общее число
+// записей выборки, X-Total-Count-Approximate — true, если это оценка. Без total заголовки не ставятся.
+public final class TotalCountHeaders {
+    public static final String TOTAL_COUNT = "X-Total-Count";
+    public static final String TOTAL_COUNT_APPROXIMATE = "X-Total-Count-Approximate";
+
+    private TotalCountHeaders() {
+    }
+
+    public static HttpHeaders of(TotalCount total) {
+        HttpHeaders headers = new HttpHeaders();
+        if (total != null) {
+            headers.set(TOTAL_COUNT, String.valueOf(total.getValue()));
+            headers.set(TOTAL_COUNT_APPROXIMATE, String.valueOf(total.isApproximate()));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.count;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.db.DatabasePlatform;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Общее число строк выборки для X-Total-Count. До exact-threshold строк считаем точно, но не дальше порога
+// (count по подзапросу с LIMIT), выше порога на PostgreSQL берём оценку планировщика из EXPLAIN.
+// Так подсчёт не читает больше строк, чем threshold, сколько бы их ни было в выборке.
+@Component
+public class TotalCounter {
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    private final JdbcTemplate jdbc;
+    private final DatabasePlatform platform;
+    private final int exactThreshold;
+
+    @Autowired
+    public TotalCounter(JdbcTemplate jdbc,
+                        DatabasePlatform platform,
+                        @Value("${shareit.total-count.exact-threshold:1000}") int exactThreshold) {
+        this.jdbc = jdbc;
+        this.platform = platform;
+        this.exactThreshold = exactThreshold;
+    }
+
+    public TotalCount count(Pageable pageable, int fetched, String sql, Object... arguments) {
+        return TotalCount.ofPage(pageable, fetched).orElseGet(() -> count(sql, arguments));
+    }
+
+    public TotalCount count(String sql, Object... arguments) {
+        Long bounded = jdbc.queryForObject("SELECT count(*) FROM (" + sql + " LIMIT " + (exactThreshold + 1)
+                + ") AS bounded", Long.class, arguments);
+        if (bounded == null || bounded <= exactThreshold) {
+            return TotalCount.exact(bounded == null ? 0 : bounded);
+        }
+        if (!platform.isPostgres()) {
+            // без статистики планировщика оценивать нечем, H2 используется только для разработки и тестов
+            return TotalCount.exact(jdbc.queryForObject("SELECT count(*) FROM (" + sql + ") AS counted",
+                    Long.class, arguments));
+        }
+        String plan = jdbc.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, arguments);
+        Matcher rows = PLAN_ROWS.matcher(plan == null ? "" : plan);
+        long estimate = rows.find() ? Long.parseLong(rows.group(1)) : 0;
+        // строк точно больше порога, даже если статистика устарела
+        return TotalCount.approximate(Math.max(estimate, exactThreshold + 1));
+    }
+}
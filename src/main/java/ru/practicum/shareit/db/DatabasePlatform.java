@@ -0,0 +1,30 @@
+package ru.practicum.shareit.db;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Тип базы определяется один раз при старте. На PostgreSQL включаются запросы, которых нет в H2:
+// SKIP LOCKED, ON CONFLICT, pg_notify, секционирование и pg_trgm
+@Slf4j
+@Component
+public class DatabasePlatform {
+    private final boolean postgres;
+
+    // DataSource, а не JdbcTemplate: платформа нужна и инициализатору схемы, от которого JdbcTemplate зависит
+    @Autowired
+    public DatabasePlatform(DataSource dataSource) {
+        String product = new JdbcTemplate(dataSource).execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        this.postgres = "PostgreSQL".equals(product);
+        log.info("База данных: {}", product);
+    }
+
+    public boolean isPostgres() {
+        return postgres;
+    }
+}
@@ -0,0 +1,211 @@
+package ru.practicum.shareit.db;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.enums.CacheRegion;
+import ru.practicum.shareit.cache.service.CacheInvalidationServiceImpl;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.OutboxEventType;
+import ru.practicum.shareit.outbox.event.DomainEvent;
+import ru.practicum.shareit.shard.ShardRouter;
+
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Слушает pg_notify на каждом шарде: инвалидацию кэшей и события outbox, разосланные релеем.
+// Инвалидации, пришедшие в пределах coalesce-window, вытесняются одной пачкой. После переподключения
+// кэши сбрасываются, а проекции перечитываются целиком, потому что пропущенные уведомления не восстановить.
+@Slf4j
+@Component
+public class NotificationListener {
+    private final boolean shardingEnabled;
+    private final String[] shardUrls;
+    private final String datasourceUrl;
+    private final String username;
+    private final String password;
+    private final ShardRouter router;
+    private final DatabasePlatform platform;
+    private final CacheInvalidationServiceImpl invalidations;
+    private final ApplicationEventPublisher events;
+    private final String channel;
+    private final String eventsChannel;
+    private final int pollInterval;
+    private final long coalesceWindow;
+    private final int maxBatch;
+    private final long reconnectDelay;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Autowired
+    public NotificationListener(@Value("${shareit.sharding.enabled:false}") boolean shardingEnabled,
+                                @Value("${shareit.sharding.urls:}") String[] shardUrls,
+                                @Value("${spring.datasource.url:}") String datasourceUrl,
+                                @Value("${spring.datasource.username:}") String username,
+                                @Value("${spring.datasource.password:}") String password,
+                                ShardRouter router,
+                                DatabasePlatform platform,
+                                CacheInvalidationServiceImpl invalidations,
+                                ApplicationEventPublisher events,
+                                @Value("${shareit.cache.invalidation.channel:shareit_cache}") String channel,
+                                @Value("${shareit.outbox.broadcast.channel:shareit_events}") String eventsChannel,
+                                @Value("${shareit.cache.invalidation.poll-interval:1000}") int pollInterval,
+                                @Value("${shareit.cache.invalidation.coalesce-window:50}") long coalesceWindow,
+                                @Value("${shareit.cache.invalidation.max-batch:1000}") int maxBatch,
+                                @Value("${shareit.cache.invalidation.reconnect-delay:5000}") long reconnectDelay) {
+        this.shardingEnabled = shardingEnabled;
+        this.shardUrls = shardUrls;
+        this.datasourceUrl = datasourceUrl;
+        this.username = username;
+        this.password = password;
+        this.router = router;
+        this.platform = platform;
+        this.invalidations = invalidations;
+        this.events = events;
+        this.channel = channel;
+        this.eventsChannel = eventsChannel;
+        this.pollInterval = pollInterval;
+        this.coalesceWindow = coalesceWindow;
+        this.maxBatch = maxBatch;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!platform.isPostgres()) {
+            return;
+        }
+        running = true;
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            int current = shard;
+            Thread worker = new Thread(() -> listen(current), "notification-listener-" + shard);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    private void listen(int shard) {
+        boolean firstConnect = true;
+        while (running) {
+            try (Connection connection = connect(shard)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                    statement.execute("LISTEN " + eventsChannel);
+                }
+                if (!firstConnect) {
+                    log.info("Подписка на {} и {} восстановлена, локальные кэши и проекции сброшены",
+                            channel, eventsChannel);
+                    invalidations.flushLocally();
+                    for (AggregateType aggregateType : AggregateType.values()) {
+                        events.publishEvent(DomainEvent.builder().aggregateType(aggregateType).all(true).build());
+                    }
+                }
+                firstConnect = false;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollInterval);
+                    if (notifications != null && notifications.length > 0) {
+                        collectAndEvict(pgConnection, notifications);
+                    }
+                }
+            } catch (SQLException e) {
+                log.warn("Потеряно соединение для уведомлений {}: {}", channel, e.getMessage());
+                pause();
+            }
+        }
+    }
+
+    private void collectAndEvict(PGConnection connection, PGNotification[] first) throws SQLException {
+        Map<CacheRegion, Set<Long>> ids = new EnumMap<>(CacheRegion.class);
+        Set<CacheRegion> flushed = EnumSet.noneOf(CacheRegion.class);
+        collect(first, ids, flushed);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(coalesceWindow);
+        long remaining;
+        while ((remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+            PGNotification[] more = connection.getNotifications((int) remaining);
+            if (more != null) {
+                collect(more, ids, flushed);
+            }
+        }
+        invalidations.evictLocally(ids, flushed);
+    }
+
+    private void collect(PGNotification[] notifications, Map<CacheRegion, Set<Long>> ids, Set<CacheRegion> flushed) {
+        for (PGNotification notification : notifications) {
+            if (eventsChannel.equals(notification.getName())) {
+                publish(notification.getParameter());
+                continue;
+            }
+            String[] payload = notification.getParameter().split(":", 2);
+            CacheRegion region = CacheRegion.fromCacheName(payload[0]);
+            if (region == null || flushed.contains(region)) {
+                continue;
+            }
+            try {
+                Set<Long> regionIds = ids.computeIfAbsent(region, r -> new HashSet<>());
+                regionIds.add(Long.parseLong(payload[1]));
+                if (regionIds.size() > maxBatch) {
+                    ids.remove(region);
+                    flushed.add(region);
+                }
+            } catch (RuntimeException e) {
+                flushed.add(region);
+            }
+        }
+    }
+
+    // AGGREGATE_TYPE:EVENT_TYPE:id:event_id от OutboxBroadcaster
+    private void publish(String parameter) {
+        String[] payload = parameter.split(":", 4);
+        try {
+            events.publishEvent(DomainEvent.builder()
+                    .aggregateType(AggregateType.valueOf(payload[0]))
+                    .eventType(OutboxEventType.valueOf(payload[1]))
+                    .aggregateId(Long.parseLong(payload[2]))
+                    .eventId(Long.parseLong(payload[3]))
+                    .build());
+        } catch (RuntimeException e) {
+            log.warn("Не удалось обработать событие {} из {}: {}", parameter, eventsChannel, e.getMessage());
+        }
+    }
+
+    // отдельное соединение мимо пула: LISTEN занимает его на всё время работы узла, а соединение с LISTEN,
+    // вернувшееся в пул, копило бы уведомления под запросами, которым они не нужны
+    private Connection connect(int shard) throws SQLException {
+        String url = shardingEnabled ? shardUrls[shard].trim() : datasourceUrl;
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(reconnectDelay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
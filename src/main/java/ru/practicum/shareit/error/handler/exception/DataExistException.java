@@ -1,7 +1,7 @@
 package ru.practicum.shareit.error.handler.exception;
 
-public class DataExistException extends RuntimeException {
-    public DataExistException(String message) {
-        super(message);
+public class DataExistException extends DomainException {
+    public DataExistException(String template, Object... arguments) {
+        super(template, arguments);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.error.handler.exception;
+
+import java.util.Arrays;
+
+// Ожидаемые ошибки бизнес-логики (неизвестный id, недоступная вещь и т.п.) — обычный поток управления:
+// стек не собираем, а сообщение форматируем только когда его действительно читают.
+public abstract class DomainException extends RuntimeException {
+    private final String template;
+    private final Object[] arguments;
+    private volatile String message;
+
+    protected DomainException(String template, Object... arguments) {
+        super(null, null, false, false);
+        this.template = template;
+        // null приходит от вызова с (Object[]) null и от Mockito, создающего исключение без конструктора
+        this.arguments = arguments == null ? new Object[0] : arguments;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public Object[] getArguments() {
+        return arguments == null ? new Object[0] : Arrays.copyOf(arguments, arguments.length);
+    }
+
+    @Override
+    public String getMessage() {
+        String result = message;
+        if (result == null) {
+            result = arguments == null || arguments.length == 0 ? template : String.format(template, arguments);
+            message = result;
+        }
+        return result;
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.error.handler.exception;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,13 +17,15 @@ import java.util.Objects;
 
 @RestControllerAdvice
 @Slf4j
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class ErrorHandler {
+    private final ErrorLogSampler sampler;
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler({MethodArgumentNotValidException.class, ObjectNotAvailableException.class,
             InvalidDataException.class, IllegalArgumentException.class})
     public ErrorResponse handleNotValidArgumentException(Exception e) {
-        log.warn(e.getClass().getSimpleName(), e);
+        logSampled(e);
         String message;
         if (e instanceof MethodArgumentNotValidException) {
             MethodArgumentNotValidException eValidation = (MethodArgumentNotValidException) e;
@@ -35,14 +39,14 @@ public class ErrorHandler {
     @ResponseStatus(HttpStatus.CONFLICT)
     @ExceptionHandler({DataExistException.class})
     public ErrorResponse handleDataExistExceptionException(DataExistException e) {
-        log.warn(e.getClass().getSimpleName(), e);
+        logSampled(e);
         return new ErrorResponse(409, "Conflict", e.getMessage());
     }
 
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler({ObjectNotFoundException.class})
     public ErrorResponse handleDataExistExceptionException(RuntimeException e) {
-        log.warn(e.getClass().getSimpleName(), e);
+        logSampled(e);
         return new ErrorResponse(404, "Not Found", e.getMessage());
     }
 
@@ -66,4 +70,18 @@ public class ErrorHandler {
                 .status(HttpStatus.BAD_REQUEST)
                 .body(HttpStatus.BAD_REQUEST + " " + exception.getMessage());
     }
-}
\ No newline at end of file
+
+    private void logSampled(Exception e) {
+        long suppressed = sampler.acquire(e.getClass());
+        if (suppressed < 0) {
+            return;
+        }
+        String skipped = suppressed > 0 ? String.format(" (пропущено похожих: %s)", suppressed) : "";
+        if (e instanceof DomainException) {
+            // стека у доменных исключений нет, а сообщение и так несёт всю информацию
+            log.warn("{}: {}{}", e.getClass().getSimpleName(), e.getMessage(), skipped);
+        } else {
+            log.warn("{}{}", e.getClass().getSimpleName(), skipped, e);
+        }
+    }
+}
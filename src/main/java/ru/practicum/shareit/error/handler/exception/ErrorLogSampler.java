@@ -0,0 +1,50 @@
+package ru.practicum.shareit.error.handler.exception;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Первые max-per-second ошибок каждого типа в секунду логируются все, дальше — случайная выборка.
+// Число пропущенных записей сообщается в следующей залогированной.
+@Component
+public class ErrorLogSampler {
+    private final int maxPerSecond;
+    private final double sampleRate;
+    private final Map<Class<?>, Window> windows = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ErrorLogSampler(@Value("${shareit.error-log.max-per-second:10}") int maxPerSecond,
+                           @Value("${shareit.error-log.sample-rate:0.01}") double sampleRate) {
+        this.maxPerSecond = maxPerSecond;
+        this.sampleRate = sampleRate;
+    }
+
+    // -1 — не логировать, иначе сколько записей этого типа было пропущено с прошлого раза
+    public long acquire(Class<?> type) {
+        Window window = windows.computeIfAbsent(type, key -> new Window());
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long current = window.second.get();
+        if (current != second && window.second.compareAndSet(current, second)) {
+            window.count.set(0);
+        }
+        if (window.count.incrementAndGet() <= maxPerSecond
+                || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            return window.suppressed.getAndSet(0);
+        }
+        window.suppressed.incrementAndGet();
+        return -1;
+    }
+
+    private static class Window {
+        private final AtomicLong second = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicLong suppressed = new AtomicLong();
+    }
+}
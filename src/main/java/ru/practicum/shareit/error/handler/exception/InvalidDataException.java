@@ -1,7 +1,7 @@
 package ru.practicum.shareit.error.handler.exception;
 
-public class InvalidDataException extends RuntimeException {
-    public InvalidDataException(String message) {
-        super(message);
+public class InvalidDataException extends DomainException {
+    public InvalidDataException(String template, Object... arguments) {
+        super(template, arguments);
     }
 }
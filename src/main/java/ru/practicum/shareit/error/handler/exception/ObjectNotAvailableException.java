@@ -1,7 +1,7 @@
 package ru.practicum.shareit.error.handler.exception;
 
-public class ObjectNotAvailableException extends RuntimeException {
-    public ObjectNotAvailableException(String message) {
-        super(message);
+public class ObjectNotAvailableException extends DomainException {
+    public ObjectNotAvailableException(String template, Object... arguments) {
+        super(template, arguments);
     }
 }
@@ -1,7 +1,7 @@
 package ru.practicum.shareit.error.handler.exception;
 
-public class ObjectNotFoundException extends RuntimeException {
-    public ObjectNotFoundException(String message) {
-        super(message);
+public class ObjectNotFoundException extends DomainException {
+    public ObjectNotFoundException(String template, Object... arguments) {
+        super(template, arguments);
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,7 @@
 package ru.practicum.shareit.error.handler.exception;
 
-public class StateException extends RuntimeException {
-    public StateException(String message) {
-        super(message);
+public class StateException extends DomainException {
+    public StateException(String template, Object... arguments) {
+        super(template, arguments);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.fields;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.item.dto.ItemListDto;
+import ru.practicum.shareit.request.dto.ItemRequestListDto;
+
+import java.util.Set;
+
+// Оставляет в элементах списка только поля из fields=. Вложенные данные, которые не выбраны,
+// сервисы уже не загружали, здесь ответ лишь приводится к запрошенному виду.
+@RestControllerAdvice
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class SparseFieldsAdvice implements ResponseBodyAdvice<Object> {
+    public static final String FIELDS_PARAMETER = "fields";
+    private static final Set<Class<?>> LISTS = Set.of(ItemListDto.class, BookingListDto.class,
+            ItemRequestListDto.class);
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !LISTS.contains(body.getClass()) || !(request instanceof ServletServerHttpRequest)) {
+            return body;
+        }
+        FieldSet fields = FieldSet.parse(((ServletServerHttpRequest) request).getServletRequest()
+                .getParameter(FIELDS_PARAMETER));
+        if (fields.isAll()) {
+            return body;
+        }
+        JsonNode tree = objectMapper.valueToTree(body);
+        for (JsonNode element : tree) {
+            if (element instanceof ObjectNode) {
+                ((ObjectNode) element).retain(fields.getFields());
+            }
+        }
+        return tree;
+    }
+}
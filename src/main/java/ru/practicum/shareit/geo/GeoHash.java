@@ -0,0 +1,93 @@
+package ru.practicum.shareit.geo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Geohash: у точек одной ячейки общий префикс, поэтому ячейка — диапазон в обычном B-tree индексе.
+// Расстояния считаются в равнопромежуточном приближении: на радиусах в пределах города погрешность мала,
+// и то же выражение без корня используется в запросе для сортировки. Переход через 180-й меридиан не учитывается.
+public final class GeoHash {
+    public static final int MAX_PRECISION = 12;
+    public static final double KM_PER_DEGREE = 111.32;
+    private static final String ALPHABET = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double[] latitudeRange = {-90, 90};
+        double[] longitudeRange = {-180, 180};
+        StringBuilder hash = new StringBuilder(precision);
+        boolean even = true;
+        int bit = 0;
+        int index = 0;
+        while (hash.length() < precision) {
+            double[] range = even ? longitudeRange : latitudeRange;
+            double value = even ? longitude : latitude;
+            double middle = (range[0] + range[1]) / 2;
+            index <<= 1;
+            if (value >= middle) {
+                index |= 1;
+                range[0] = middle;
+            } else {
+                range[1] = middle;
+            }
+            even = !even;
+            if (++bit == 5) {
+                hash.append(ALPHABET.charAt(index));
+                bit = 0;
+                index = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    // ячейки, покрывающие круг: самая мелкая сетка, в которой ячейка не меньше радиуса, и блок 3x3 вокруг центра
+    public static List<String> cover(double latitude, double longitude, double radiusKm) {
+        double latitudeRadius = radiusKm / KM_PER_DEGREE;
+        double longitudeRadius = latitudeRadius / Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        int precision = MAX_PRECISION;
+        while (precision > 0 && (cellHeight(precision) < latitudeRadius || cellWidth(precision) < longitudeRadius)) {
+            precision--;
+        }
+        if (precision == 0) {
+            return List.of("");
+        }
+        double height = cellHeight(precision);
+        double width = cellWidth(precision);
+        Set<String> cells = new LinkedHashSet<>();
+        for (int row = -1; row <= 1; row++) {
+            double cellLatitude = latitude + row * height;
+            if (cellLatitude < -90 || cellLatitude > 90) {
+                continue;
+            }
+            for (int column = -1; column <= 1; column++) {
+                cells.add(encode(cellLatitude, wrap(longitude + column * width), precision));
+            }
+        }
+        return new ArrayList<>(cells);
+    }
+
+    public static double distanceKm(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double x = (toLongitude - fromLongitude) * Math.cos(Math.toRadians(fromLatitude));
+        double y = toLatitude - fromLatitude;
+        return Math.sqrt(x * x + y * y) * KM_PER_DEGREE;
+    }
+
+    private static double cellHeight(int precision) {
+        return 180 / Math.pow(2, precision * 5 / 2);
+    }
+
+    private static double cellWidth(int precision) {
+        return 360 / Math.pow(2, (precision * 5 + 1) / 2);
+    }
+
+    private static double wrap(double longitude) {
+        if (longitude >= 180) {
+            return longitude - 360;
+        }
+        return longitude < -180 ? longitude + 360 : longitude;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.graphql;
+
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.schema.GraphQLTypeUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+
+// Spring Boot подключает бины Instrumentation и WebGraphQlInterceptor к /graphql сам.
+// При шардировании связи вещей разнесены по шардам владельцев, и GraphQL не включается.
+@Configuration
+@ConditionalOnProperty(name = "shareit.sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class GraphQlConfig {
+    public static final String USER_ID = "userId";
+    private static final String userIdHeader = "X-Sharer-User-Id";
+
+    // каждый уровень вложенности — это не больше одного SQL на DataLoader
+    @Bean
+    public Instrumentation maxQueryDepthInstrumentation(@Value("${shareit.graphql.max-depth:8}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    // размер списков заранее не известен, поэтому поддерево под списком считается list-weight раз
+    @Bean
+    public Instrumentation maxQueryComplexityInstrumentation(
+            @Value("${shareit.graphql.max-complexity:500}") int maxComplexity,
+            @Value("${shareit.graphql.list-weight:10}") int listWeight) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity, (environment, childComplexity) ->
+                GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType()))
+                        ? listWeight * (1 + childComplexity)
+                        : 1 + childComplexity);
+    }
+
+    // пользователь из того же заголовка, что и в REST, доступен резолверам через @ContextValue
+    @Bean
+    public WebGraphQlInterceptor userIdInterceptor() {
+        return (request, chain) -> {
+            String userId = request.getHeaders().getFirst(userIdHeader);
+            if (userId != null && userId.matches("\\d{1,18}")) {
+                request.configureExecutionInput((input, builder) -> {
+                    input.getGraphQLContext().put(USER_ID, Long.valueOf(userId));
+                    return input;
+                });
+            }
+            return chain.next(request);
+        };
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.graphql;
+
+import org.dataloader.DataLoader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.ContextValue;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.model.BookingRow;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.CommentRow;
+import ru.practicum.shareit.item.model.ItemRow;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.RequestRow;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.UserRow;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Схема graphql/schema.graphqls. Ссылки по id читаются через DataLoader: все ссылки одного уровня запроса
+// уходят одним findRowsByIdIn, а прочитанное кешируется до конца запроса. Списки (@BatchMapping) грузятся
+// сразу для всех родителей. Число SQL поэтому зависит от формы запроса, а не от числа строк в ответе.
+@Controller
+@ConditionalOnProperty(name = "shareit.sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class ShareItGraphQlController {
+    private final ItemRepository items;
+    private final CommentRepository comments;
+    private final BookingRepository bookings;
+
+    @Autowired
+    public ShareItGraphQlController(BatchLoaderRegistry registry,
+                                    UserRepository users,
+                                    ItemRepository items,
+                                    CommentRepository comments,
+                                    BookingRepository bookings,
+                                    ItemRequestRepository requests) {
+        this.items = items;
+        this.comments = comments;
+        this.bookings = bookings;
+        registry.forTypePair(Long.class, UserRow.class).registerMappedBatchLoader((ids, environment) ->
+                Mono.fromSupplier(() -> byId(users.findRowsByIdIn(ids), UserRow::getId)));
+        registry.forTypePair(Long.class, ItemRow.class).registerMappedBatchLoader((ids, environment) ->
+                Mono.fromSupplier(() -> byId(items.findRowsByIdIn(ids), ItemRow::getId)));
+        registry.forTypePair(Long.class, BookingRow.class).registerMappedBatchLoader((ids, environment) ->
+                Mono.fromSupplier(() -> byId(bookings.findRowsByIdIn(ids), BookingRow::getId)));
+        registry.forTypePair(Long.class, RequestRow.class).registerMappedBatchLoader((ids, environment) ->
+                Mono.fromSupplier(() -> byId(requests.findRowsByIdIn(ids), RequestRow::getId)));
+    }
+
+    @QueryMapping
+    public CompletableFuture<UserRow> user(@Argument Long id, DataLoader<Long, UserRow> userLoader) {
+        return userLoader.load(id);
+    }
+
+    @QueryMapping
+    public CompletableFuture<ItemRow> item(@Argument Long id, DataLoader<Long, ItemRow> itemLoader) {
+        return itemLoader.load(id);
+    }
+
+    @QueryMapping
+    public CompletableFuture<RequestRow> request(@Argument Long id, DataLoader<Long, RequestRow> requestLoader) {
+        return requestLoader.load(id);
+    }
+
+    // как GET /bookings/{id}: бронирование видят только бронирующий и владелец вещи
+    @QueryMapping
+    public CompletableFuture<BookingRow> booking(@Argument Long id,
+                                                 @ContextValue(name = GraphQlConfig.USER_ID) Long userId,
+                                                 DataLoader<Long, BookingRow> bookingLoader) {
+        return bookingLoader.load(id)
+                .thenApply(booking -> booking != null && isVisible(booking, userId) ? booking : null);
+    }
+
+    @BatchMapping(typeName = "User", field = "items")
+    public Map<UserRow, List<ItemRow>> ownedItems(List<UserRow> owners) {
+        return group(owners, UserRow::getId, items.findRowsByOwnerIdIn(ids(owners, UserRow::getId)),
+                ItemRow::getOwnerId);
+    }
+
+    @SchemaMapping(typeName = "Item")
+    public CompletableFuture<UserRow> owner(ItemRow item, DataLoader<Long, UserRow> userLoader) {
+        return userLoader.load(item.getOwnerId());
+    }
+
+    @SchemaMapping(typeName = "Item", field = "request")
+    public CompletableFuture<RequestRow> itemRequest(ItemRow item, DataLoader<Long, RequestRow> requestLoader) {
+        return item.getRequestId() == null
+                ? CompletableFuture.completedFuture(null)
+                : requestLoader.load(item.getRequestId());
+    }
+
+    @BatchMapping(typeName = "Item", field = "comments")
+    public Map<ItemRow, List<CommentRow>> itemComments(List<ItemRow> commented) {
+        return group(commented, ItemRow::getId, comments.findRowsByItemIdIn(ids(commented, ItemRow::getId)),
+                CommentRow::getItemId);
+    }
+
+    @BatchMapping(typeName = "Item", field = "bookings")
+    public Map<ItemRow, List<BookingRow>> itemBookings(List<ItemRow> booked,
+                                                       @ContextValue(name = GraphQlConfig.USER_ID) Long userId) {
+        List<BookingRow> visible = bookings.findRowsByItemIdIn(ids(booked, ItemRow::getId)).stream()
+                .filter(booking -> isVisible(booking, userId))
+                .collect(Collectors.toList());
+        return group(booked, ItemRow::getId, visible, BookingRow::getItemId);
+    }
+
+    @SchemaMapping(typeName = "Comment")
+    public CompletableFuture<UserRow> author(CommentRow comment, DataLoader<Long, UserRow> userLoader) {
+        return userLoader.load(comment.getAuthorId());
+    }
+
+    @SchemaMapping(typeName = "Booking", field = "item")
+    public CompletableFuture<ItemRow> bookedItem(BookingRow booking, DataLoader<Long, ItemRow> itemLoader) {
+        return itemLoader.load(booking.getItemId());
+    }
+
+    @SchemaMapping(typeName = "Booking")
+    public CompletableFuture<UserRow> booker(BookingRow booking, DataLoader<Long, UserRow> userLoader) {
+        return userLoader.load(booking.getBookerId());
+    }
+
+    @SchemaMapping(typeName = "ItemRequest")
+    public CompletableFuture<UserRow> requester(RequestRow request, DataLoader<Long, UserRow> userLoader) {
+        return userLoader.load(request.getRequesterId());
+    }
+
+    @BatchMapping(typeName = "ItemRequest", field = "items")
+    public Map<RequestRow, List<ItemRow>> answers(List<RequestRow> requests) {
+        return group(requests, RequestRow::getId, items.findRowsByRequestIdIn(ids(requests, RequestRow::getId)),
+                ItemRow::getRequestId);
+    }
+
+    private static boolean isVisible(BookingRow booking, Long userId) {
+        return booking.getBookerId().equals(userId) || booking.getItemOwnerId().equals(userId);
+    }
+
+    private static <T> List<Long> ids(List<T> rows, Function<T, Long> id) {
+        return rows.stream().map(id).distinct().collect(Collectors.toList());
+    }
+
+    private static <T> Map<Long, T> byId(List<T> rows, Function<T, Long> id) {
+        return rows.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    // у каждого родителя должен быть список, пусть и пустой: поля-списки в схеме обязательные
+    private static <P, C> Map<P, List<C>> group(List<P> parents, Function<P, Long> parentId,
+                                                List<C> children, Function<C, Long> childParentId) {
+        Map<Long, List<C>> byParent = children.stream().collect(Collectors.groupingBy(childParentId));
+        Map<P, List<C>> grouped = new HashMap<>();
+        for (P parent : parents) {
+            grouped.put(parent, byParent.getOrDefault(parentId.apply(parent), List.of()));
+        }
+        return grouped;
+    }
+}
@@ -0,0 +1,187 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.practicum.shareit.error.handler.exception.ErrorResponse;
+import ru.practicum.shareit.idempotency.model.IdempotentResponse;
+import ru.practicum.shareit.ratelimit.RateLimitFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+@Order(IdempotencyFilter.ORDER)
+public class IdempotencyFilter extends OncePerRequestFilter {
+    // после лимита запросов: отклонённый по лимиту запрос не должен захватывать ключ и буферизовать тело
+    public static final int ORDER = RateLimitFilter.ORDER + 1;
+    private static final String userIdHeader = "X-Sharer-User-Id";
+    private static final String idempotencyKeyHeader = "Idempotency-Key";
+    private static final String replayedHeader = "Idempotent-Replayed";
+    private static final int maxKeyLength = 255;
+    private static final List<String> idempotentPaths = List.of("/bookings", "/items", "/items/*/comment", "/requests");
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // без пользователя ключ не к кому привязать, а эндпоинт всё равно ответит ошибкой
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(idempotencyKeyHeader) == null
+                || request.getHeader(userIdHeader) == null
+                || idempotentPaths.stream().noneMatch(path -> pathMatcher.match(path, request.getRequestURI()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(idempotencyKeyHeader).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > maxKeyLength) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    String.format("Ключ идемпотентности должен содержать от 1 до %s символов", maxKeyLength));
+            return;
+        }
+        // ключ действует только в пределах пользователя и эндпоинта
+        String key = request.getHeader(userIdHeader) + ":" + request.getRequestURI() + ":" + idempotencyKey;
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestHash = DigestUtils.md5DigestAsHex(cachedRequest.body);
+
+        IdempotentResponse stored;
+        try {
+            stored = store.claim(key, requestHash);
+        } catch (TimeoutException e) {
+            writeError(response, HttpStatus.CONFLICT, "Запрос с этим ключом идемпотентности ещё выполняется");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException(e);
+        }
+        if (stored != null) {
+            replay(stored, requestHash, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            chain.doFilter(cachedRequest, cachedResponse);
+            // 5xx не запоминаем: повтор должен получить шанс выполниться успешно
+            if (cachedResponse.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                store.complete(key, new IdempotentResponse(requestHash, cachedResponse.getStatus(),
+                        cachedResponse.getContentType(), cachedResponse.getContentAsByteArray(), LocalDateTime.now()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                store.release(key);
+            }
+        }
+        cachedResponse.copyBodyToResponse();
+    }
+
+    private void replay(IdempotentResponse stored, String requestHash, HttpServletResponse response)
+            throws IOException {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Ключ идемпотентности уже использован для другого запроса");
+            return;
+        }
+        log.debug("Повтор запроса по ключу идемпотентности, отдаём сохранённый ответ");
+        response.setStatus(stored.getStatus());
+        response.setHeader(replayedHeader, "true");
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        if (stored.getBody() != null) {
+            response.getOutputStream().write(stored.getBody());
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.builder()
+                .code(status.value())
+                .status(status.getReasonPhrase())
+                .error(message)
+                .build());
+    }
+
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // тело уже в памяти, поэтому оно доступно сразу и целиком
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.idempotency.model.IdempotencyRecord;
+import ru.practicum.shareit.idempotency.model.IdempotentResponse;
+import ru.practicum.shareit.idempotency.repository.IdempotencyRecordRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+public class IdempotencyStore {
+    private final IdempotencyRecordRepository records;
+    private final long waitTimeout;
+    private final long pollInterval;
+    private final Duration inProgressTimeout;
+    private final Duration ttl;
+    private final Map<String, IdempotentResponse> completed;
+    // запросы, выполняемые этим узлом прямо сейчас; повторы ждут их future, а не опрашивают БД
+    private final Map<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository records,
+                            @Value("${shareit.idempotency.cache-size:10000}") int cacheSize,
+                            @Value("${shareit.idempotency.wait-timeout:30000}") long waitTimeout,
+                            @Value("${shareit.idempotency.poll-interval:100}") long pollInterval,
+                            @Value("${shareit.idempotency.in-progress-timeout:60000}") long inProgressTimeout,
+                            @Value("${shareit.idempotency.ttl-hours:24}") long ttlHours) {
+        this.records = records;
+        this.waitTimeout = waitTimeout;
+        this.pollInterval = pollInterval;
+        this.inProgressTimeout = Duration.ofMillis(inProgressTimeout);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.completed = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotentResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    // null — ключ захвачен вызывающим, и он обязан вызвать complete или release
+    public IdempotentResponse claim(String key, String requestHash) throws TimeoutException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeout);
+        while (true) {
+            IdempotentResponse cached = getCompleted(key);
+            if (cached != null) {
+                return cached;
+            }
+            CompletableFuture<IdempotentResponse> own = new CompletableFuture<>();
+            CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(key, own);
+            if (running != null) {
+                IdempotentResponse response = await(running, deadline);
+                if (response != null) {
+                    return response;
+                }
+                // исходный запрос завершился ошибкой и освободил ключ — пробуем выполнить сами
+                continue;
+            }
+            try {
+                IdempotentResponse stored = claimInDatabase(key, requestHash, deadline);
+                if (stored != null) {
+                    finish(key, stored);
+                }
+                return stored;
+            } catch (TimeoutException | InterruptedException | RuntimeException e) {
+                finish(key, null);
+                throw e;
+            }
+        }
+    }
+
+    public void complete(String key, IdempotentResponse response) {
+        try {
+            records.complete(key, response.getStatus(), response.getContentType(), response.getBody());
+        } finally {
+            finish(key, response);
+        }
+    }
+
+    public void release(String key) {
+        try {
+            records.deleteInProgress(key, LocalDateTime.now().plusDays(1));
+        } finally {
+            finish(key, null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.idempotency.cleanup-interval:600000}")
+    public void deleteExpired() {
+        int deleted = records.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (deleted > 0) {
+            log.debug("Удалено {} устаревших ключей идемпотентности", deleted);
+        }
+    }
+
+    private IdempotentResponse claimInDatabase(String key, String requestHash, long deadline)
+            throws TimeoutException, InterruptedException {
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                records.insertInProgress(key, requestHash, now);
+                return null;
+            } catch (DataIntegrityViolationException e) {
+                // ключ уже занят: ответ сохранён или запрос выполняется на другом узле
+            }
+            Optional<IdempotencyRecord> record = records.findById(key);
+            if (record.isPresent() && record.get().getStatusCode() != null) {
+                return toResponse(record.get());
+            }
+            // узел, захвативший ключ, мог упасть, не успев его освободить
+            if (record.isPresent() && records.deleteInProgress(key, now.minus(inProgressTimeout)) > 0) {
+                log.warn("Ключ идемпотентности {} освобождён по таймауту выполнения", key);
+                continue;
+            }
+            if (record.isPresent()) {
+                if (System.nanoTime() - deadline > 0) {
+                    throw new TimeoutException();
+                }
+                TimeUnit.MILLISECONDS.sleep(pollInterval);
+            }
+        }
+    }
+
+    private IdempotentResponse await(CompletableFuture<IdempotentResponse> running, long deadline)
+            throws TimeoutException, InterruptedException {
+        try {
+            return running.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private void finish(String key, IdempotentResponse response) {
+        if (response != null) {
+            synchronized (completed) {
+                completed.put(key, response);
+            }
+        }
+        CompletableFuture<IdempotentResponse> own = inFlight.remove(key);
+        if (own != null) {
+            own.complete(response);
+        }
+    }
+
+    private IdempotentResponse getCompleted(String key) {
+        synchronized (completed) {
+            IdempotentResponse response = completed.get(key);
+            if (response != null && response.getCreated().isBefore(LocalDateTime.now().minus(ttl))) {
+                completed.remove(key);
+                return null;
+            }
+            return response;
+        }
+    }
+
+    private IdempotentResponse toResponse(IdempotencyRecord record) {
+        return new IdempotentResponse(record.getRequestHash(), record.getStatusCode(), record.getContentType(),
+                record.getResponseBody(), record.getCreated());
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.idempotency.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@RequiredArgsConstructor
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+    @Column(name = "request_hash", nullable = false)
+    private String requestHash;
+    // null, пока исходный запрос ещё выполняется
+    @Column(name = "status_code")
+    private Integer statusCode;
+    @Column(name = "content_type")
+    private String contentType;
+    @Column(name = "response_body")
+    private byte[] responseBody;
+    @Column(nullable = false)
+    private LocalDateTime created;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.idempotency.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class IdempotentResponse {
+    private final String requestHash;
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+    private final LocalDateTime created;
+}
@@ -7,12 +7,23 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.count.TotalCountHeaders;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.fields.SparseFieldsAdvice;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.matching.dto.RequestMatchListDto;
+import ru.practicum.shareit.matching.service.MatchingService;
+import ru.practicum.shareit.suggest.dto.SuggestionListDto;
+import ru.practicum.shareit.suggest.service.SuggestService;
 
 import javax.validation.Valid;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
 
 @RestController
 @RequestMapping("/items")
@@ -20,6 +31,8 @@ import javax.validation.constraints.Min;
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class ItemController {
     private final ItemService itemService;
+    private final MatchingService matchingService;
+    private final SuggestService suggestService;
     private static final String userIdHeader = "X-Sharer-User-Id";
 
     @PostMapping
@@ -47,18 +60,53 @@ public class ItemController {
     public ResponseEntity<ItemListDto> getPersonalItems(
             @RequestHeader(userIdHeader) @Min(1) Long userId,
             @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size) {
-        return ResponseEntity.status(HttpStatus.OK)
-                .body(itemService.getPersonalItems(PageRequest.of(from / size, size), userId));
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = SparseFieldsAdvice.FIELDS_PARAMETER, required = false) String fields) {
+        ItemListDto items = itemService.getPersonalItems(PageRequest.of(from / size, size), userId,
+                FieldSet.parse(fields));
+        return ResponseEntity.status(HttpStatus.OK).headers(TotalCountHeaders.of(items.getTotal())).body(items);
     }
 
     @GetMapping("search")
     public ResponseEntity<ItemListDto> getFoundItems(
             @RequestParam String text,
             @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = "fuzzy", defaultValue = "false") Boolean fuzzy,
+            @RequestParam(value = SparseFieldsAdvice.FIELDS_PARAMETER, required = false) String fields) {
+        PageRequest pageRequest = PageRequest.of(from / size, size);
+        FieldSet fieldSet = FieldSet.parse(fields);
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(fuzzy
+                        ? itemService.getFoundItemsFuzzy(pageRequest, text, fieldSet)
+                        : itemService.getFoundItems(pageRequest, text, fieldSet));
+    }
+
+    @GetMapping("nearby")
+    public ResponseEntity<ItemListDto> getNearbyItems(
+            @RequestParam @DecimalMin("-90") @DecimalMax("90") Double lat,
+            @RequestParam @DecimalMin("-180") @DecimalMax("180") Double lon,
+            @RequestParam(value = "radius", defaultValue = "5") @Positive @DecimalMax("100") Double radius,
+            @RequestParam(required = false) String text,
+            @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
             @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size) {
         return ResponseEntity.status(HttpStatus.OK)
-                .body(itemService.getFoundItems(PageRequest.of(from / size, size), text));
+                .body(itemService.getNearbyItems(PageRequest.of(from / size, size), lat, lon, radius, text));
+    }
+
+    @GetMapping("{itemId}/matching-requests")
+    public ResponseEntity<RequestMatchListDto> getMatchingRequests(
+            @RequestHeader(userIdHeader) @Min(1) Long userId,
+            @PathVariable @Min(1) Long itemId,
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size) {
+        return ResponseEntity.status(HttpStatus.OK).body(matchingService.getMatchingRequests(userId, itemId, size));
+    }
+
+    @GetMapping("suggest")
+    public ResponseEntity<SuggestionListDto> getSuggestions(
+            @RequestParam @Size(max = 100) String prefix,
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size) {
+        return ResponseEntity.status(HttpStatus.OK).body(suggestService.suggest(prefix, size));
     }
 
     @PostMapping("{itemId}/comment")
@@ -3,6 +3,8 @@ package ru.practicum.shareit.item.dto;
 import lombok.Builder;
 import lombok.Data;
 
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -22,4 +24,10 @@ public class ItemDto {
     private Boolean available;
     @Min(1)
     private Long requestId;
+    @DecimalMin("-90")
+    @DecimalMax("90")
+    private Double latitude;
+    @DecimalMin("-180")
+    @DecimalMax("180")
+    private Double longitude;
 }
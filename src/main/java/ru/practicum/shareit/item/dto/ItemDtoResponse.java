@@ -7,7 +7,7 @@ import ru.practicum.shareit.booking.dto.BookingShortDto;
 
 import java.util.Set;
 
-@Builder
+@Builder(toBuilder = true)
 @Getter
 @Setter
 public class ItemDtoResponse {
@@ -16,7 +16,10 @@ public class ItemDtoResponse {
     private String description;
     private Boolean available;
     private Long requestId;
+    private Double latitude;
+    private Double longitude;
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
+    private int commentCount;
     private Set<CommentDtoResponse> comments;
 }
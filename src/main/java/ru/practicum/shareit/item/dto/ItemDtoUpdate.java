@@ -3,6 +3,8 @@ package ru.practicum.shareit.item.dto;
 import lombok.Builder;
 import lombok.Data;
 
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
 
@@ -16,4 +18,10 @@ public class ItemDtoUpdate {
     @Size(max = 500)
     private String description;
     private Boolean available;
+    @DecimalMin("-90")
+    @DecimalMax("90")
+    private Double latitude;
+    @DecimalMin("-180")
+    @DecimalMax("180")
+    private Double longitude;
 }
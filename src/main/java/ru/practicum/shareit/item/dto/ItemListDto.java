@@ -3,12 +3,17 @@ package ru.practicum.shareit.item.dto;
 import com.fasterxml.jackson.annotation.JsonValue;
 import lombok.Builder;
 import lombok.Getter;
+import ru.practicum.shareit.count.TotalCount;
 
 import java.util.List;
+import java.util.Map;
 
 @Builder
 @Getter
 public class ItemListDto {
     @JsonValue
     private List<ItemDtoResponse> items;
+    private TotalCount total;
+    // оценка сходства по id вещи для нечёткого поиска, по ней сливаются ответы шардов
+    private Map<Long, Double> similarity;
 }
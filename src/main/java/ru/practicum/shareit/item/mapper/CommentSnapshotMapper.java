@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.CommentDtoResponse;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Component
+public class CommentSnapshotMapper {
+    private static final TypeReference<List<CommentDtoResponse>> COMMENTS = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final int snapshotSize;
+
+    @Autowired
+    public CommentSnapshotMapper(ObjectMapper objectMapper,
+                                 @Value("${shareit.item.latest-comments:3}") int snapshotSize) {
+        this.objectMapper = objectMapper;
+        this.snapshotSize = snapshotSize;
+    }
+
+    public Set<CommentDtoResponse> mapToComments(String snapshot) {
+        return new LinkedHashSet<>(read(snapshot));
+    }
+
+    public String append(String snapshot, CommentDtoResponse comment) {
+        List<CommentDtoResponse> latest = new ArrayList<>(read(snapshot));
+        latest.add(comment);
+        return write(latest);
+    }
+
+    // comments в порядке добавления, в снимок попадают последние
+    public String write(List<CommentDtoResponse> comments) {
+        List<CommentDtoResponse> latest = comments;
+        if (latest.size() > snapshotSize) {
+            latest = latest.subList(latest.size() - snapshotSize, latest.size());
+        }
+        try {
+            return objectMapper.writeValueAsString(latest);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сохранить последние комментарии предмета", e);
+        }
+    }
+
+    private List<CommentDtoResponse> read(String snapshot) {
+        if (snapshot == null || snapshot.isBlank()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(snapshot, COMMENTS);
+        } catch (JsonProcessingException e) {
+            log.warn("Повреждён снимок последних комментариев: {}", e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -12,6 +12,11 @@ public interface ItemMapper {
     @Mapping(source = "request.id", target = "requestId")
     ItemDtoResponse mapToItemDtoResponse(Item item);
 
+    @Named("withoutComments")
+    @Mapping(source = "request.id", target = "requestId")
+    @Mapping(target = "comments", ignore = true)
+    ItemDtoResponse mapToItemDtoResponseWithoutComments(Item item);
+
     Item mapToItemFromItemDto(ItemDto itemDto);
 
     @Mapping(source = "booker.id", target = "bookerId")
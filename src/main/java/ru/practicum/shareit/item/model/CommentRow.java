@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.model;
+
+import java.time.LocalDateTime;
+
+public interface CommentRow {
+    Long getId();
+
+    String getText();
+
+    LocalDateTime getCreated();
+
+    Long getItemId();
+
+    Long getAuthorId();
+}
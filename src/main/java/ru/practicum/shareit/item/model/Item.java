@@ -31,6 +31,14 @@ public class Item {
     @ManyToOne
     @JoinColumn(name = "request_id")
     private ItemRequest request;
+    @Column(name = "comment_count", nullable = false)
+    private int commentCount;
+    @Column(name = "latest_comments")
+    private String latestComments;
+    private Double latitude;
+    private Double longitude;
+    @Column(length = 12)
+    private String geohash;
     @OneToMany(mappedBy = "item")
     private Set<Comment> comments;
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.model;
+
+public interface ItemRow {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getOwnerId();
+
+    Long getRequestId();
+}
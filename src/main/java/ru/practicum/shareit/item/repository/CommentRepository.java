@@ -1,7 +1,18 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentRow;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @Query("SELECT c FROM Comment AS c JOIN FETCH c.author WHERE c.item.id IN ?1 ORDER BY c.created, c.id")
+    List<Comment> findAllByItemIdIn(Collection<Long> itemIds);
+
+    @Query("SELECT c.id AS id, c.text AS text, c.created AS created, c.item.id AS itemId, c.author.id AS authorId " +
+            "FROM Comment AS c WHERE c.item.id IN ?1 ORDER BY c.created, c.id")
+    List<CommentRow> findRowsByItemIdIn(Collection<Long> itemIds);
 }
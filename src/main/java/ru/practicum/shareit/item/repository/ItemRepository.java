@@ -1,11 +1,16 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemRow;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends PagingAndSortingRepository<Item, Long> {
     List<Item> findAllByOwnerId(Pageable pageable, Long ownerId);
@@ -14,10 +19,43 @@ public interface ItemRepository extends PagingAndSortingRepository<Item, Long> {
                                                                               String name,
                                                                               String description);
 
+    // ячейка geohash задаётся префиксом, LIKE 'префикс%' читает диапазон индекса idx_items_geohash
+    @Query("SELECT i FROM Item AS i WHERE i.available = true AND i.geohash LIKE ?1 " +
+            "AND (i.latitude - ?2) * (i.latitude - ?2) + (i.longitude - ?3) * (i.longitude - ?3) * ?4 <= ?5 " +
+            "AND (?6 = '' OR lower(i.name) LIKE ?6 OR lower(i.description) LIKE ?6) " +
+            "ORDER BY (i.latitude - ?2) * (i.latitude - ?2) + (i.longitude - ?3) * (i.longitude - ?3) * ?4, i.id")
+    List<Item> findAvailableNearby(String cell, double latitude, double longitude, double longitudeScale,
+                                   double maxDistance, String text, Pageable pageable);
+
+    // комментарии есть, а снимка нет: они появились раньше колонок comment_count и latest_comments
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item AS i WHERE i.latestComments IS NULL " +
+            "AND EXISTS (SELECT c.id FROM Comment AS c WHERE c.item = i) ORDER BY i.id")
+    List<Item> findAllWithoutCommentSnapshot(Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item AS i WHERE i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long itemId);
+
     Boolean existsItemByOwnerId(Long ownerId);
 
     @Query("SELECT i.id FROM Item AS i " +
             "JOIN User As u ON i.owner.id=u.id " +
             "WHERE i.owner.id = ?1")
     List<Long> findAllItemIdByOwnerId(Long ownerId);
+
+    // строки для GraphQL: владелец и запрос только идентификаторами, связи у Item грузятся жадно
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description, i.available AS available, " +
+            "i.owner.id AS ownerId, r.id AS requestId FROM Item AS i LEFT JOIN i.request AS r WHERE i.id IN ?1")
+    List<ItemRow> findRowsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description, i.available AS available, " +
+            "i.owner.id AS ownerId, r.id AS requestId FROM Item AS i LEFT JOIN i.request AS r " +
+            "WHERE i.owner.id IN ?1 ORDER BY i.id")
+    List<ItemRow> findRowsByOwnerIdIn(Collection<Long> ownerIds);
+
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description, i.available AS available, " +
+            "i.owner.id AS ownerId, r.id AS requestId FROM Item AS i JOIN i.request AS r " +
+            "WHERE r.id IN ?1 ORDER BY i.id")
+    List<ItemRow> findRowsByRequestIdIn(Collection<Long> requestIds);
 }
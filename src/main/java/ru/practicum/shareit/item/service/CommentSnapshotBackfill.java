@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.CommentDtoResponse;
+import ru.practicum.shareit.item.mapper.CommentSnapshotMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.shard.ShardRouter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Заполняет comment_count и latest_comments у вещей, прокомментированных до появления этих колонок.
+// Дальше их поддерживает addComment, поэтому на уже заполненной базе старт делает один пустой запрос.
+@Slf4j
+@Component
+public class CommentSnapshotBackfill {
+    private static final int BATCH_SIZE = 500;
+
+    private final ItemRepository items;
+    private final CommentRepository comments;
+    private final ItemMapper mapper;
+    private final CommentSnapshotMapper commentSnapshots;
+    private final ShardRouter router;
+    private final TransactionTemplate transactions;
+
+    @Autowired
+    public CommentSnapshotBackfill(ItemRepository items,
+                                   CommentRepository comments,
+                                   ItemMapper mapper,
+                                   CommentSnapshotMapper commentSnapshots,
+                                   ShardRouter router,
+                                   PlatformTransactionManager transactionManager) {
+        this.items = items;
+        this.comments = comments;
+        this.mapper = mapper;
+        this.commentSnapshots = commentSnapshots;
+        this.router = router;
+        this.transactions = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        AtomicInteger filled = new AtomicInteger();
+        router.forEachShard(() -> {
+            Integer batch;
+            do {
+                batch = transactions.execute(status -> backfillBatch());
+                filled.addAndGet(batch == null ? 0 : batch);
+            } while (batch != null && batch == BATCH_SIZE);
+        });
+        if (filled.get() > 0) {
+            log.info("Снимки комментариев заполнены у {} вещей", filled.get());
+        }
+    }
+
+    private int backfillBatch() {
+        List<Item> batch = items.findAllWithoutCommentSnapshot(PageRequest.of(0, BATCH_SIZE));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<CommentDtoResponse>> itemComments = new HashMap<>();
+        List<Long> ids = batch.stream().map(Item::getId).collect(Collectors.toList());
+        for (Comment comment : comments.findAllByItemIdIn(ids)) {
+            itemComments.computeIfAbsent(comment.getItem().getId(), id -> new ArrayList<>())
+                    .add(mapper.mapToCommentDtoResponseFromComment(comment));
+        }
+        for (Item item : batch) {
+            List<CommentDtoResponse> all = itemComments.getOrDefault(item.getId(), List.of());
+            item.setCommentCount(all.size());
+            item.setLatestComments(commentSnapshots.write(all));
+        }
+        return batch.size();
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.fields.FieldSet;
 import ru.practicum.shareit.item.dto.*;
 
 public interface ItemService {
@@ -13,7 +14,17 @@ public interface ItemService {
 
     ItemListDto getPersonalItems(Pageable pageable, Long userId);
 
+    ItemListDto getPersonalItems(Pageable pageable, Long userId, FieldSet fields);
+
     ItemListDto getFoundItems(Pageable pageable, String text);
 
+    ItemListDto getFoundItems(Pageable pageable, String text, FieldSet fields);
+
+    ItemListDto getFoundItemsFuzzy(Pageable pageable, String text);
+
+    ItemListDto getFoundItemsFuzzy(Pageable pageable, String text, FieldSet fields);
+
+    ItemListDto getNearbyItems(Pageable pageable, Double latitude, Double longitude, Double radius, String text);
+
     CommentDtoResponse addComment(Long itemId, Long userId, CommentDto commentDto);
 }
@@ -2,27 +2,46 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.enums.CacheRegion;
+import ru.practicum.shareit.cache.service.CacheInvalidationService;
+import ru.practicum.shareit.cache.service.SingleFlight;
+import ru.practicum.shareit.count.TotalCounter;
+import ru.practicum.shareit.error.handler.exception.InvalidDataException;
 import ru.practicum.shareit.error.handler.exception.ObjectNotAvailableException;
 import ru.practicum.shareit.error.handler.exception.ObjectNotFoundException;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.geo.GeoHash;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.mapper.CommentSnapshotMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.search.FuzzyItemSearch;
+import ru.practicum.shareit.search.model.ScoredItem;
+import ru.practicum.shareit.shard.ShardRouter;
+import ru.practicum.shareit.suggest.service.SuggestService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,7 +52,14 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookings;
     private final CommentRepository comments;
     private final ItemMapper mapper;
+    private final CommentSnapshotMapper commentSnapshots;
     private final ItemRequestRepository itemRequests;
+    private final OutboxService outbox;
+    private final CacheInvalidationService cacheInvalidation;
+    private final SingleFlight singleFlight;
+    private final SuggestService suggestions;
+    private final FuzzyItemSearch fuzzySearch;
+    private final TotalCounter totalCounter;
 
     @Override
     @Transactional
@@ -41,33 +67,53 @@ public class ItemServiceImpl implements ItemService {
         Item newItem = mapper.mapToItemFromItemDto(item);
         if (item.getRequestId() != null) {
             ItemRequest itemRequest = itemRequests.findById(item.getRequestId())
-                    .orElseThrow(() -> new ObjectNotFoundException(String.format("Запроса с id=%s нет", item.getRequestId())));
+                    .orElseThrow(() -> new ObjectNotFoundException("Запроса с id=%s нет", item.getRequestId()));
 
             newItem.setRequest(itemRequest);
         }
+        locate(newItem);
         newItem.setOwner(users.findById(userId).orElseThrow(
-                () -> new ObjectNotFoundException(String.format("Пользователя с id=%s нет", userId))));
-        return mapper.mapToItemDtoResponse(items.save(newItem));
+                () -> new ObjectNotFoundException("Пользователя с id=%s нет", userId)));
+        ItemDtoResponse createdItem = mapper.mapToItemDtoResponse(items.save(newItem));
+        outbox.record(AggregateType.ITEM, createdItem.getId(), OutboxEventType.ITEM_CREATED, createdItem);
+        suggestions.onItemChanged(null, false, createdItem.getName(), Boolean.TRUE.equals(createdItem.getAvailable()));
+        cacheInvalidation.invalidate(CacheRegion.ITEMS, createdItem.getId());
+        if (item.getRequestId() != null) {
+            cacheInvalidation.invalidate(CacheRegion.REQUESTS, item.getRequestId());
+        }
+        return createdItem;
     }
 
     @Override
     @Transactional
     public ItemDtoResponse updateItem(Long itemId, Long userId, ItemDtoUpdate item) {
         Item updateItem = items.findById(itemId).orElseThrow(
-                () -> new ObjectNotFoundException(String.format("Предмета с id=%s нет", itemId)));
+                () -> new ObjectNotFoundException("Предмета с id=%s нет", itemId));
         if (!updateItem.getOwner().getId().equals(userId)) {
-            throw new ObjectNotFoundException(String.format("Предмет с id=%s пользователю с id=%s не пренадлежит", itemId, userId));
+            throw new ObjectNotFoundException("Предмет с id=%s пользователю с id=%s не пренадлежит", itemId, userId);
+        }
+        String oldName = updateItem.getName();
+        boolean wasAvailable = Boolean.TRUE.equals(updateItem.getAvailable());
+        locate(mapper.mapToItemFromItemDtoUpdate(item, updateItem));
+        ItemDtoResponse updatedItem = mapper.mapToItemDtoResponse(items.save(updateItem));
+        suggestions.onItemChanged(oldName, wasAvailable, updatedItem.getName(), Boolean.TRUE.equals(updatedItem.getAvailable()));
+        outbox.record(AggregateType.ITEM, itemId, OutboxEventType.ITEM_UPDATED, updatedItem);
+        cacheInvalidation.invalidate(CacheRegion.ITEMS, itemId);
+        if (updatedItem.getRequestId() != null) {
+            cacheInvalidation.invalidate(CacheRegion.REQUESTS, updatedItem.getRequestId());
         }
-        return mapper.mapToItemDtoResponse(items.save(mapper.mapToItemFromItemDtoUpdate(item, updateItem)));
+        return updatedItem;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ItemDtoResponse getItemByItemId(Long userId, Long itemId) {
-        Item item = items.findById(itemId).orElseThrow(
-                () -> new ObjectNotFoundException(String.format("Предмета с id=%s нет", itemId)));
-        ItemDtoResponse itemDtoResponse = mapper.mapToItemDtoResponse(item);
-        if (item.getOwner().getId().equals(userId)) {
+        SharedItem shared = singleFlight.load(CacheRegion.ITEMS, itemId, () -> {
+            Item item = items.findById(itemId).orElseThrow(
+                    () -> new ObjectNotFoundException("Предмета с id=%s нет", itemId));
+            return new SharedItem(item.getOwner().getId(), mapper.mapToItemDtoResponse(item));
+        });
+        ItemDtoResponse itemDtoResponse = shared.item.toBuilder().build();
+        if (shared.ownerId.equals(userId)) {
             if (itemId.equals(4L)) {
                 itemDtoResponse.setLastBooking(mapper
                         .mapToBookingShortDto(bookings.findById(8L).get()));
@@ -90,32 +136,95 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional(readOnly = true)
     public ItemListDto getPersonalItems(Pageable pageable, Long userId) {
+        return getPersonalItems(pageable, userId, FieldSet.ALL);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemListDto getPersonalItems(Pageable pageable, Long userId, FieldSet fields) {
         if (!users.existsById(userId)) {
-            throw new ObjectNotFoundException(String.format("Пользователя с id=%s не существует", userId));
+            throw new ObjectNotFoundException("Пользователя с id=%s не существует", userId);
         }
-        List<ItemDtoResponse> personalItems = items.findAllByOwnerId(pageable, userId).stream()
-                .map(mapper::mapToItemDtoResponse).collect(Collectors.toList());
+        List<ItemDtoResponse> personalItems = mapToItemDtoResponses(items.findAllByOwnerId(pageable, userId), fields);
+        // по два запроса на вещь, поэтому без lastBooking и nextBooking в fields они не выполняются
         for (ItemDtoResponse item : personalItems) {
-
-            item.setLastBooking(mapper.mapToBookingShortDto(bookings.findFirstByItemIdAndEndBeforeAndStatusOrderByEndDesc(
-                    item.getId(), LocalDateTime.now(), Status.APPROVED).orElse(null)));
-            item.setNextBooking(mapper.mapToBookingShortDto(bookings
-                    .findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
-                            item.getId(), LocalDateTime.now(), Status.APPROVED).orElse(null)
-            ));
+            if (fields.includes("lastBooking")) {
+                item.setLastBooking(mapper.mapToBookingShortDto(bookings
+                        .findFirstByItemIdAndEndBeforeAndStatusOrderByEndDesc(
+                                item.getId(), LocalDateTime.now(), Status.APPROVED).orElse(null)));
+            }
+            if (fields.includes("nextBooking")) {
+                item.setNextBooking(mapper.mapToBookingShortDto(bookings
+                        .findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
+                                item.getId(), LocalDateTime.now(), Status.APPROVED).orElse(null)
+                ));
+            }
         }
-        return ItemListDto.builder().items(personalItems).build();
+        return ItemListDto.builder()
+                .items(personalItems)
+                .total(totalCounter.count(pageable, personalItems.size(),
+                        "SELECT 1 FROM items WHERE owner_id = ?", userId))
+                .build();
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemListDto getFoundItems(Pageable pageable, String text) {
+        return getFoundItems(pageable, text, FieldSet.ALL);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemListDto getFoundItems(Pageable pageable, String text, FieldSet fields) {
         if (text.isBlank()) {
             return ItemListDto.builder().items(new ArrayList<>()).build();
         }
         return ItemListDto.builder()
-                .items(items.findAllByNameOrDescriptionContainingIgnoreCaseAndAvailableTrue(pageable, text, text).stream()
-                        .map(mapper::mapToItemDtoResponse).collect(Collectors.toList())).build();
+                .items(mapToItemDtoResponses(
+                        items.findAllByNameOrDescriptionContainingIgnoreCaseAndAvailableTrue(pageable, text, text),
+                        fields))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemListDto getFoundItemsFuzzy(Pageable pageable, String text) {
+        return getFoundItemsFuzzy(pageable, text, FieldSet.ALL);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemListDto getFoundItemsFuzzy(Pageable pageable, String text, FieldSet fields) {
+        if (text.isBlank()) {
+            return ItemListDto.builder().items(new ArrayList<>()).similarity(new HashMap<>()).build();
+        }
+        List<ScoredItem> found = fuzzySearch.search(text, pageable);
+        Map<Long, Double> similarity = new HashMap<>();
+        found.forEach(scored -> similarity.put(scored.getItem().getId(), scored.getScore()));
+        return ItemListDto.builder()
+                .items(mapToItemDtoResponses(found.stream().map(ScoredItem::getItem).collect(Collectors.toList()),
+                        fields))
+                .similarity(similarity)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemListDto getNearbyItems(Pageable pageable, Double latitude, Double longitude, Double radius, String text) {
+        double longitudeScale = Math.pow(Math.cos(Math.toRadians(latitude)), 2);
+        double maxDistance = Math.pow(radius / GeoHash.KM_PER_DEGREE, 2);
+        String pattern = text == null || text.isBlank() ? "" : "%" + text.toLowerCase() + "%";
+        Pageable head = PageRequest.of(0, (pageable.getPageNumber() + 1) * pageable.getPageSize());
+        // каждая ячейка отдаёт свои ближайшие вещи уже по порядку, остаётся слить не больше девяти списков
+        List<List<Item>> cells = GeoHash.cover(latitude, longitude, radius).stream()
+                .map(cell -> items.findAvailableNearby(cell + "%", latitude, longitude, longitudeScale, maxDistance,
+                        pattern, head))
+                .collect(Collectors.toList());
+        Comparator<Item> byDistance = Comparator.comparingDouble((Item item) -> GeoHash.distanceKm(
+                latitude, longitude, item.getLatitude(), item.getLongitude())).thenComparing(Item::getId);
+        return ItemListDto.builder()
+                .items(ShardRouter.merge(cells, byDistance, pageable.getOffset(), pageable.getPageSize()).stream()
+                        .map(this::mapToItemDtoResponseFromSnapshot).collect(Collectors.toList())).build();
     }
 
     @Override
@@ -123,17 +232,62 @@ public class ItemServiceImpl implements ItemService {
     public CommentDtoResponse addComment(Long itemId, Long userId, CommentDto commentDto) {
         if (!bookings.existsBookingByItemIdAndBookerIdAndStatusAndEndIsBefore(itemId, userId,
                 Status.APPROVED, LocalDateTime.now())) {
-            throw new ObjectNotAvailableException(String.format("У пользователя с id=%s небыло ниодной брони на предмет с id=%s", userId, itemId));
+            throw new ObjectNotAvailableException("У пользователя с id=%s небыло ниодной брони на предмет с id=%s", userId, itemId);
         } else {
             User author = users.findById(userId).orElseThrow(
-                    () -> new ObjectNotFoundException(String.format("Пользователя с id=%s нет", userId)));
-            Item item = items.findById(itemId).orElseThrow(
-                    () -> new ObjectNotFoundException(String.format("Предмета с id=%s нет", itemId)));
+                    () -> new ObjectNotFoundException("Пользователя с id=%s нет", userId));
+            Item item = items.findByIdForUpdate(itemId).orElseThrow(
+                    () -> new ObjectNotFoundException("Предмета с id=%s нет", itemId));
             Comment comment = mapper.mapToCommentFromCommentDto(commentDto);
             comment.setItem(item);
             comment.setAuthor(author);
             comment.setCreated(LocalDateTime.now());
-            return mapper.mapToCommentDtoResponseFromComment(comments.save(comment));
+            CommentDtoResponse addedComment = mapper.mapToCommentDtoResponseFromComment(comments.save(comment));
+            if (item.getLatestComments() == null) {
+                // снимка ещё нет: строим по всем комментариям, среди них могут быть старые, до появления снимка
+                List<CommentDtoResponse> all = comments.findAllByItemIdIn(List.of(itemId)).stream()
+                        .map(mapper::mapToCommentDtoResponseFromComment).collect(Collectors.toList());
+                item.setCommentCount(all.size());
+                item.setLatestComments(commentSnapshots.write(all));
+            } else {
+                item.setCommentCount(item.getCommentCount() + 1);
+                item.setLatestComments(commentSnapshots.append(item.getLatestComments(), addedComment));
+            }
+            outbox.record(AggregateType.ITEM, itemId, OutboxEventType.COMMENT_ADDED, addedComment);
+            cacheInvalidation.invalidate(CacheRegion.ITEMS, itemId);
+            return addedComment;
+        }
+    }
+
+    private void locate(Item item) {
+        if ((item.getLatitude() == null) != (item.getLongitude() == null)) {
+            throw new InvalidDataException("Координаты вещи задаются парой latitude и longitude");
         }
+        item.setGeohash(item.getLatitude() == null
+                ? null
+                : GeoHash.encode(item.getLatitude(), item.getLongitude(), GeoHash.MAX_PRECISION));
+    }
+
+    // списки и поиск отдают комментарии из снимка на строке вещи (commentCount и последние
+    // shareit.item.latest-comments), таблицу comments не читают; все комментарии — в GET /items/{itemId}
+    private List<ItemDtoResponse> mapToItemDtoResponses(List<Item> page, FieldSet fields) {
+        return page.stream()
+                .map(fields.includes("comments")
+                        ? this::mapToItemDtoResponseFromSnapshot
+                        : mapper::mapToItemDtoResponseWithoutComments)
+                .collect(Collectors.toList());
+    }
+
+    private ItemDtoResponse mapToItemDtoResponseFromSnapshot(Item item) {
+        ItemDtoResponse itemDtoResponse = mapper.mapToItemDtoResponseWithoutComments(item);
+        itemDtoResponse.setComments(commentSnapshots.mapToComments(item.getLatestComments()));
+        return itemDtoResponse;
+    }
+
+    // общий для всех ожидающих результат: каждый вызов получает свою копию DTO
+    @RequiredArgsConstructor
+    private static class SharedItem {
+        private final Long ownerId;
+        private final ItemDtoResponse item;
     }
-}
\ No newline at end of file
+}
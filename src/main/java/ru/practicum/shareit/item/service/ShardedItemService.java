@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.geo.GeoHash;
+import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.shard.ShardRouter;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@Primary
+@ConditionalOnProperty(name = "shareit.sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ShardedItemService implements ItemService {
+    private final ItemServiceImpl delegate;
+    private final ShardRouter router;
+
+    @Override
+    public ItemDtoResponse createItem(ItemDto itemDto, Long userId) {
+        return router.onShard(router.shardForOwner(userId), () -> delegate.createItem(itemDto, userId));
+    }
+
+    @Override
+    public ItemDtoResponse updateItem(Long itemId, Long userId, ItemDtoUpdate itemDto) {
+        return router.onShard(router.shardForId(itemId), () -> delegate.updateItem(itemId, userId, itemDto));
+    }
+
+    @Override
+    public ItemDtoResponse getItemByItemId(Long userId, Long itemId) {
+        return router.onShard(router.shardForId(itemId), () -> delegate.getItemByItemId(userId, itemId));
+    }
+
+    @Override
+    public ItemListDto getPersonalItems(Pageable pageable, Long userId) {
+        return getPersonalItems(pageable, userId, FieldSet.ALL);
+    }
+
+    @Override
+    public ItemListDto getPersonalItems(Pageable pageable, Long userId, FieldSet fields) {
+        return router.onShard(router.shardForOwner(userId), () -> delegate.getPersonalItems(pageable, userId, fields));
+    }
+
+    @Override
+    public ItemListDto getFoundItems(Pageable pageable, String text) {
+        return getFoundItems(pageable, text, FieldSet.ALL);
+    }
+
+    @Override
+    public ItemListDto getFoundItems(Pageable pageable, String text, FieldSet fields) {
+        // слияние по id требует, чтобы каждый шард отдавал вещи в том же порядке
+        Pageable head = PageRequest.of(0, (pageable.getPageNumber() + 1) * pageable.getPageSize(), Sort.by("id"));
+        List<List<ItemDtoResponse>> found = router.onEachShard(() -> delegate.getFoundItems(head, text, fields)).stream()
+                .map(ItemListDto::getItems).collect(Collectors.toList());
+        return ItemListDto.builder()
+                .items(ShardRouter.merge(found, Comparator.comparing(ItemDtoResponse::getId),
+                        pageable.getOffset(), pageable.getPageSize()))
+                .build();
+    }
+
+    @Override
+    public ItemListDto getFoundItemsFuzzy(Pageable pageable, String text) {
+        return getFoundItemsFuzzy(pageable, text, FieldSet.ALL);
+    }
+
+    @Override
+    public ItemListDto getFoundItemsFuzzy(Pageable pageable, String text, FieldSet fields) {
+        Pageable head = PageRequest.of(0, (pageable.getPageNumber() + 1) * pageable.getPageSize());
+        List<ItemListDto> shards = router.onEachShard(() -> delegate.getFoundItemsFuzzy(head, text, fields));
+        // шард упорядочил вещи по своей оценке сходства, сливаем по ней же, а не пересчитываем
+        Map<Long, Double> similarity = new HashMap<>();
+        shards.forEach(shard -> similarity.putAll(shard.getSimilarity()));
+        List<List<ItemDtoResponse>> found = shards.stream().map(ItemListDto::getItems).collect(Collectors.toList());
+        Comparator<ItemDtoResponse> bySimilarity = Comparator.comparingDouble(
+                (ItemDtoResponse item) -> similarity.get(item.getId())).reversed()
+                .thenComparing(ItemDtoResponse::getId);
+        return ItemListDto.builder()
+                .items(ShardRouter.merge(found, bySimilarity, pageable.getOffset(), pageable.getPageSize()))
+                .build();
+    }
+
+    @Override
+    public ItemListDto getNearbyItems(Pageable pageable, Double latitude, Double longitude, Double radius, String text) {
+        Pageable head = PageRequest.of(0, (pageable.getPageNumber() + 1) * pageable.getPageSize());
+        List<List<ItemDtoResponse>> found = router.onEachShard(
+                () -> delegate.getNearbyItems(head, latitude, longitude, radius, text)).stream()
+                .map(ItemListDto::getItems).collect(Collectors.toList());
+        Comparator<ItemDtoResponse> byDistance = Comparator.comparingDouble((ItemDtoResponse item) -> GeoHash.distanceKm(
+                latitude, longitude, item.getLatitude(), item.getLongitude())).thenComparing(ItemDtoResponse::getId);
+        return ItemListDto.builder()
+                .items(ShardRouter.merge(found, byDistance, pageable.getOffset(), pageable.getPageSize()))
+                .build();
+    }
+
+    @Override
+    public CommentDtoResponse addComment(Long itemId, Long userId, CommentDto commentDto) {
+        return router.onShard(router.shardForId(itemId), () -> delegate.addComment(itemId, userId, commentDto));
+    }
+}
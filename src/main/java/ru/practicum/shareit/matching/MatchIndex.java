@@ -0,0 +1,93 @@
+package ru.practicum.shareit.matching;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+// Инвертированный индекс основа -> документы. Сходство — коэффициент Жаккара по основам,
+// считается только по документам, у которых есть хотя бы одна общая основа с запросом.
+public class MatchIndex<T> {
+    private final int maxPostings;
+    private final Map<Long, Document<T>> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    public MatchIndex(int maxPostings) {
+        this.maxPostings = maxPostings;
+    }
+
+    public synchronized void put(Long id, T value, Set<String> tokens) {
+        remove(id);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        documents.put(id, new Document<>(value, tokens));
+        tokens.forEach(token -> postings.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(id));
+    }
+
+    public synchronized void remove(Long id) {
+        Document<T> removed = documents.remove(id);
+        if (removed == null) {
+            return;
+        }
+        removed.tokens.forEach(token -> postings.computeIfPresent(token, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        }));
+    }
+
+    public synchronized void clear() {
+        documents.clear();
+        postings.clear();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public List<Match<T>> match(Set<String> tokens, Predicate<T> filter, double minScore, int limit) {
+        Map<Long, Integer> shared = new HashMap<>();
+        for (String token : tokens) {
+            Set<Long> ids = postings.get(token);
+            // основа встречается почти везде и ничего не говорит о сходстве
+            if (ids != null && ids.size() <= maxPostings) {
+                ids.forEach(id -> shared.merge(id, 1, Integer::sum));
+            }
+        }
+        List<Match<T>> matches = new ArrayList<>();
+        shared.forEach((id, count) -> {
+            Document<T> document = documents.get(id);
+            if (document == null || !filter.test(document.value)) {
+                return;
+            }
+            double score = (double) count / (tokens.size() + document.tokens.size() - count);
+            if (score >= minScore) {
+                matches.add(new Match<>(id, document.value, score));
+            }
+        });
+        matches.sort(Comparator.comparingDouble((Match<T> match) -> match.score).reversed()
+                .thenComparing(match -> match.id));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    @RequiredArgsConstructor
+    private static class Document<T> {
+        private final T value;
+        private final Set<String> tokens;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Match<T> {
+        private final Long id;
+        private final T value;
+        private final double score;
+    }
+}
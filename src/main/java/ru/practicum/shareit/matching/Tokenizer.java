@@ -0,0 +1,34 @@
+package ru.practicum.shareit.matching;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public final class Tokenizer {
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_LENGTH = 3;
+    // грубый стемминг: "дрель", "дрели" и "дрелью" сводятся к одной основе
+    private static final int STEM_LENGTH = 4;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "для", "или", "без", "под", "над", "при", "что", "как", "это", "очень", "нужна", "нужен", "нужно",
+            "нужны", "ищу", "хочу", "можно", "пожалуйста", "the", "and", "for", "with", "need", "want", "please");
+
+    private Tokenizer() {
+    }
+
+    public static Set<String> tokens(String... texts) {
+        Set<String> tokens = new HashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (String word : SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+                if (word.length() >= MIN_LENGTH && !STOP_WORDS.contains(word)) {
+                    tokens.add(word.length() > STEM_LENGTH ? word.substring(0, STEM_LENGTH) : word);
+                }
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.matching.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ItemMatchDto {
+    private Long id;
+    private String name;
+    private String description;
+    private double score;
+}
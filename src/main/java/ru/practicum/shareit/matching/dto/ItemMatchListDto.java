@@ -0,0 +1,14 @@
+package ru.practicum.shareit.matching.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Builder
+@Getter
+public class ItemMatchListDto {
+    @JsonValue
+    private List<ItemMatchDto> items;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.matching.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class RequestMatchDto {
+    private Long id;
+    private String description;
+    private LocalDateTime created;
+    private double score;
+}
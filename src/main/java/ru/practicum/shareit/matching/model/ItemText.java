@@ -0,0 +1,11 @@
+package ru.practicum.shareit.matching.model;
+
+public interface ItemText {
+    Long getId();
+
+    Long getOwnerId();
+
+    String getName();
+
+    String getDescription();
+}
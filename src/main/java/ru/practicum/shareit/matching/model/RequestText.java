@@ -0,0 +1,13 @@
+package ru.practicum.shareit.matching.model;
+
+import java.time.LocalDateTime;
+
+public interface RequestText {
+    Long getId();
+
+    Long getRequesterId();
+
+    String getDescription();
+
+    LocalDateTime getCreated();
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.matching.repository;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.matching.model.ItemText;
+import ru.practicum.shareit.matching.model.RequestText;
+
+import java.util.List;
+import java.util.Optional;
+
+// только текстовые поля: связи вещей и запросов при построении индекса не нужны
+public interface MatchingRepository extends Repository<Item, Long> {
+    String ITEM_TEXT = "SELECT i.id AS id, i.owner.id AS ownerId, i.name AS name, i.description AS description " +
+            "FROM Item AS i WHERE i.available = true";
+    String OPEN_REQUEST_TEXT = "SELECT r.id AS id, r.requester.id AS requesterId, r.description AS description, " +
+            "r.created AS created FROM ItemRequest AS r WHERE r.items IS EMPTY";
+
+    @Query(ITEM_TEXT)
+    List<ItemText> findAvailableItems();
+
+    @Query(ITEM_TEXT + " AND i.id = ?1")
+    Optional<ItemText> findAvailableItem(Long itemId);
+
+    @Query(OPEN_REQUEST_TEXT)
+    List<RequestText> findOpenRequests();
+
+    @Query(OPEN_REQUEST_TEXT + " AND r.id = ?1")
+    Optional<RequestText> findOpenRequest(Long requestId);
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.matching.service;
+
+import ru.practicum.shareit.matching.dto.ItemMatchListDto;
+import ru.practicum.shareit.matching.dto.RequestMatchListDto;
+
+public interface MatchingService {
+    RequestMatchListDto getMatchingRequests(Long userId, Long itemId, int size);
+
+    ItemMatchListDto getCandidates(Long userId, Long requestId, int size);
+}
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.matching.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.error.handler.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.matching.MatchIndex;
+import ru.practicum.shareit.matching.Tokenizer;
+import ru.practicum.shareit.matching.dto.ItemMatchDto;
+import ru.practicum.shareit.matching.dto.ItemMatchListDto;
+import ru.practicum.shareit.matching.dto.RequestMatchDto;
+import ru.practicum.shareit.matching.dto.RequestMatchListDto;
+import ru.practicum.shareit.matching.model.ItemText;
+import ru.practicum.shareit.matching.model.RequestText;
+import ru.practicum.shareit.matching.repository.MatchingRepository;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.OutboxEventType;
+import ru.practicum.shareit.outbox.event.DomainEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Индексы открытых запросов (без вещей-ответов) и доступных вещей строятся при старте
+// и обновляются по событиям outbox о вещах и запросах: своим после коммита и чужим от релея.
+@Slf4j
+@Service
+public class MatchingServiceImpl implements MatchingService {
+    private final MatchingRepository matching;
+    private final ItemRepository items;
+    private final ItemRequestRepository requests;
+    private final UserRepository users;
+    private final TransactionTemplate transactions;
+    private final boolean enabled;
+    private final double minScore;
+    private final MatchIndex<RequestText> openRequests;
+    private final MatchIndex<ItemText> availableItems;
+    private final Timer requestLookups;
+    private final Timer itemLookups;
+
+    @Autowired
+    public MatchingServiceImpl(MatchingRepository matching,
+                               ItemRepository items,
+                               ItemRequestRepository requests,
+                               UserRepository users,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${shareit.matching.enabled:true}") boolean enabled,
+                               @Value("${shareit.sharding.enabled:false}") boolean sharding,
+                               @Value("${shareit.matching.min-score:0.2}") double minScore,
+                               @Value("${shareit.matching.max-postings:10000}") int maxPostings) {
+        this.matching = matching;
+        this.items = items;
+        this.requests = requests;
+        this.users = users;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactions.setReadOnly(true);
+        // при шардировании ответы на запрос разбросаны по шардам, и «открытость» запроса локально не определить
+        this.enabled = enabled && !sharding;
+        this.minScore = minScore;
+        this.openRequests = new MatchIndex<>(maxPostings);
+        this.availableItems = new MatchIndex<>(maxPostings);
+        this.requestLookups = Timer.builder("shareit.matching.lookup").tag("index", "requests").register(meterRegistry);
+        this.itemLookups = Timer.builder("shareit.matching.lookup").tag("index", "items").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (enabled) {
+            transactions.executeWithoutResult(status -> {
+                reloadRequests();
+                reloadItems();
+            });
+            log.info("Индексы подбора построены: запросов {}, вещей {}", openRequests.size(), availableItems.size());
+        }
+    }
+
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        if (!enabled || event.getAggregateType() == AggregateType.BOOKING
+                || event.getEventType() == OutboxEventType.COMMENT_ADDED) {
+            return;
+        }
+        transactions.executeWithoutResult(status -> {
+            if (event.isAll()) {
+                if (event.getAggregateType() == AggregateType.ITEM) {
+                    reloadItems();
+                } else {
+                    reloadRequests();
+                }
+            } else if (event.getAggregateType() == AggregateType.ITEM) {
+                Long itemId = event.getAggregateId();
+                matching.findAvailableItem(itemId).ifPresentOrElse(this::index, () -> availableItems.remove(itemId));
+                // первый ответ закрывает запрос
+                items.findById(itemId).map(Item::getRequest).ifPresent(request -> refreshRequest(request.getId()));
+            } else {
+                refreshRequest(event.getAggregateId());
+            }
+        });
+    }
+
+    @Override
+    public RequestMatchListDto getMatchingRequests(Long userId, Long itemId, int size) {
+        if (!users.existsById(userId)) {
+            throw new ObjectNotFoundException("Пользователя с id=%s нет", userId);
+        }
+        Item item = items.findById(itemId).orElseThrow(
+                () -> new ObjectNotFoundException("Предмета с id=%s нет", itemId));
+        if (!enabled) {
+            return RequestMatchListDto.builder().requests(List.of()).build();
+        }
+        Long ownerId = item.getOwner().getId();
+        Set<String> tokens = Tokenizer.tokens(item.getName(), item.getDescription());
+        List<MatchIndex.Match<RequestText>> matches = requestLookups.record(() -> openRequests.match(
+                tokens, request -> !request.getRequesterId().equals(ownerId), minScore, size));
+        return RequestMatchListDto.builder()
+                .requests(matches.stream()
+                        .map(match -> RequestMatchDto.builder()
+                                .id(match.getId())
+                                .description(match.getValue().getDescription())
+                                .created(match.getValue().getCreated())
+                                .score(match.getScore())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    @Override
+    public ItemMatchListDto getCandidates(Long userId, Long requestId, int size) {
+        if (!users.existsById(userId)) {
+            throw new ObjectNotFoundException("Пользователя с id=%s нет", userId);
+        }
+        ItemRequest request = requests.findById(requestId).orElseThrow(
+                () -> new ObjectNotFoundException("Запроса с id=%s нет", requestId));
+        if (!enabled) {
+            return ItemMatchListDto.builder().items(List.of()).build();
+        }
+        Long requesterId = request.getRequester().getId();
+        Set<String> tokens = Tokenizer.tokens(request.getDescription());
+        List<MatchIndex.Match<ItemText>> matches = itemLookups.record(() -> availableItems.match(
+                tokens, item -> !item.getOwnerId().equals(requesterId), minScore, size));
+        return ItemMatchListDto.builder()
+                .items(matches.stream()
+                        .map(match -> ItemMatchDto.builder()
+                                .id(match.getId())
+                                .name(match.getValue().getName())
+                                .description(match.getValue().getDescription())
+                                .score(match.getScore())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private void reloadRequests() {
+        List<RequestText> open = matching.findOpenRequests();
+        openRequests.clear();
+        open.forEach(this::index);
+    }
+
+    private void reloadItems() {
+        List<ItemText> available = matching.findAvailableItems();
+        availableItems.clear();
+        available.forEach(this::index);
+    }
+
+    private void refreshRequest(Long requestId) {
+        matching.findOpenRequest(requestId).ifPresentOrElse(this::index, () -> openRequests.remove(requestId));
+    }
+
+    private void index(RequestText request) {
+        openRequests.put(request.getId(), request, Tokenizer.tokens(request.getDescription()));
+    }
+
+    private void index(ItemText item) {
+        availableItems.put(item.getId(), item, Tokenizer.tokens(item.getName(), item.getDescription()));
+    }
+}
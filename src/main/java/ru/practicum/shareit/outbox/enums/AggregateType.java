@@ -0,0 +1,5 @@
+package ru.practicum.shareit.outbox.enums;
+
+public enum AggregateType {
+    BOOKING, ITEM, REQUEST
+}
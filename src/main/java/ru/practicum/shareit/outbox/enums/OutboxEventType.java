@@ -0,0 +1,5 @@
+package ru.practicum.shareit.outbox.enums;
+
+public enum OutboxEventType {
+    BOOKING_CREATED, BOOKING_APPROVED, BOOKING_REJECTED, ITEM_CREATED, ITEM_UPDATED, COMMENT_ADDED, REQUEST_CREATED, REQUEST_DELETED
+}
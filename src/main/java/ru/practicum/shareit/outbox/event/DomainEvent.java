@@ -0,0 +1,19 @@
+package ru.practicum.shareit.outbox.event;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.OutboxEventType;
+
+// Событие outbox, доставленное на узел: своё — сразу после коммита, чужое — через рассылку релея.
+// eventId — event_id строки outbox, общий для всех узлов.
+// all — события агрегатов этого типа могли потеряться, проекции перечитываются целиком
+@Getter
+@Builder
+public class DomainEvent {
+    private final AggregateType aggregateType;
+    private final Long aggregateId;
+    private final OutboxEventType eventType;
+    private final Long eventId;
+    private final boolean all;
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // берём только головное неопубликованное событие каждого агрегата: так порядок внутри агрегата
+    // сохраняется даже при нескольких релеях. Голова, ждущая повтора или лежащая в dead letter,
+    // держит весь агрегат
+    String NEXT_BATCH = "SELECT * FROM outbox_events e " +
+            "WHERE e.published_at IS NULL AND e.dead_at IS NULL " +
+            "AND (e.next_attempt_at IS NULL OR e.next_attempt_at <= :now) " +
+            "AND NOT EXISTS (SELECT 1 FROM outbox_events p " +
+            "WHERE p.aggregate_type = e.aggregate_type AND p.aggregate_id = e.aggregate_id " +
+            "AND p.published_at IS NULL AND p.event_id < e.event_id) " +
+            "ORDER BY e.event_id LIMIT :batchSize FOR UPDATE";
+
+    // PostgreSQL: SKIP LOCKED не даёт релеям нескольких узлов ждать друг друга
+    @Query(value = NEXT_BATCH + " SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("batchSize") int batchSize, @Param("now") LocalDateTime now);
+
+    // H2 не знает SKIP LOCKED, там релей один
+    @Query(value = NEXT_BATCH, nativeQuery = true)
+    List<OutboxEvent> lockNextBatchWaiting(@Param("batchSize") int batchSize, @Param("now") LocalDateTime now);
+
+    long countByPublishedAtIsNullAndDeadAtIsNull();
+
+    long countByDeadAtIsNotNull();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.aggregateType = :type AND e.aggregateId = :id AND e.publishedAt IS NULL")
+    int deletePending(@Param("type") AggregateType aggregateType, @Param("id") Long aggregateId);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
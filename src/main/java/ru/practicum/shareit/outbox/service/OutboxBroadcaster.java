@@ -0,0 +1,36 @@
+package ru.practicum.shareit.outbox.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.db.DatabasePlatform;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+// Рассылает доставленные события остальным узлам: ленты запросов, индексы подбора и потоки бронирований
+// у каждого узла свои.
+// NOTIFY идёт в транзакции релея под точкой сохранения события и уходит вместе с отметкой published_at.
+// На H2 узел один, рассылать некому
+@Component
+public class OutboxBroadcaster implements OutboxSubscriber {
+    private final JdbcTemplate jdbc;
+    private final DatabasePlatform platform;
+    private final String channel;
+
+    @Autowired
+    public OutboxBroadcaster(JdbcTemplate jdbc,
+                             DatabasePlatform platform,
+                             @Value("${shareit.outbox.broadcast.channel:shareit_events}") String channel) {
+        this.jdbc = jdbc;
+        this.platform = platform;
+        this.channel = channel;
+    }
+
+    @Override
+    public void onEvent(OutboxEvent event) {
+        if (platform.isPostgres()) {
+            jdbc.queryForObject("SELECT pg_notify(?, ?)", String.class, channel,
+                    event.getAggregateType() + ":" + event.getEventType() + ":" + event.getAggregateId() + ":" + event.getId());
+        }
+    }
+}
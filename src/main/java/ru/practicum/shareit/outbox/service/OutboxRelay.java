@@ -0,0 +1,235 @@
+package ru.practicum.shareit.outbox.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.db.DatabasePlatform;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.shard.ShardRouter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Событие, не доставленное за max-attempts попыток, уходит в dead letter (dead_at): его видно в метрике
+// shareit.outbox.dead и в логе. Следующие события агрегата ждут, пока его не разберут: обнулить dead_at
+// и attempts для повтора или удалить строку, чтобы пропустить.
+// Между попытками пауза растёт вдвое от backoff до max-backoff.
+// Каждое событие доставляется под точкой сохранения: на PostgreSQL ошибка запроса подписчика (например, pg_notify)
+// прерывает всю транзакцию, и без отката к точке сохранения не записать ни попытку, ни доставку остальных событий.
+// Точки сохранения ставятся прямо на JDBC-соединении транзакции: HibernateJpaDialect их не поддерживает.
+@Slf4j
+@Component
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEvents;
+    private final ObjectProvider<OutboxSubscriber> subscribers;
+    private final ShardRouter router;
+    private final DatabasePlatform platform;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactions;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long pollInterval;
+    private final long backoff;
+    private final long maxBackoff;
+    private final Duration retention;
+    private final Semaphore signal = new Semaphore(0);
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+    private final Timer lag;
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter deadLettered;
+    private volatile boolean running;
+    private Thread worker;
+    private LocalDateTime nextCleanup = LocalDateTime.now();
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEvents,
+                       ObjectProvider<OutboxSubscriber> subscribers,
+                       ShardRouter router,
+                       DatabasePlatform platform,
+                       EntityManager entityManager,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${shareit.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${shareit.outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${shareit.outbox.relay.max-attempts:10}") int maxAttempts,
+                       @Value("${shareit.outbox.relay.poll-interval:500}") long pollInterval,
+                       @Value("${shareit.outbox.relay.backoff:1000}") long backoff,
+                       @Value("${shareit.outbox.relay.max-backoff:300000}") long maxBackoff,
+                       @Value("${shareit.outbox.retention-hours:24}") long retentionHours) {
+        this.outboxEvents = outboxEvents;
+        this.subscribers = subscribers;
+        this.router = router;
+        this.platform = platform;
+        this.entityManager = entityManager;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.pollInterval = pollInterval;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = Duration.ofHours(retentionHours);
+        this.lag = Timer.builder("shareit.outbox.lag")
+                .description("Время от записи события в outbox до доставки подписчикам")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.delivered = Counter.builder("shareit.outbox.delivered").register(meterRegistry);
+        this.failed = Counter.builder("shareit.outbox.failed").register(meterRegistry);
+        this.deadLettered = Counter.builder("shareit.outbox.dead-lettered").register(meterRegistry);
+        Gauge.builder("shareit.outbox.backlog", backlog, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("shareit.outbox.dead", dead, AtomicLong::get)
+                .description("Недоставленные события в dead letter, ждут разбора")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "outbox-relay");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public void wakeUp() {
+        signal.release();
+    }
+
+    public int relayPending() {
+        int total = router.onEachShard(this::relayShard).stream().mapToInt(Integer::intValue).sum();
+        backlog.set(router.onEachShard(outboxEvents::countByPublishedAtIsNullAndDeadAtIsNull).stream()
+                .mapToLong(Long::longValue).sum());
+        dead.set(router.onEachShard(outboxEvents::countByDeadAtIsNotNull).stream().mapToLong(Long::longValue).sum());
+        return total;
+    }
+
+    private int relayShard() {
+        int total = 0;
+        BatchResult result;
+        do {
+            result = relayBatch();
+            total += result.delivered;
+        } while (result.delivered > 0 && !result.failed);
+        return total;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                signal.tryAcquire(pollInterval, TimeUnit.MILLISECONDS);
+                signal.drainPermits();
+                relayPending();
+                cleanUpIfDue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Ошибка при публикации событий outbox: {}", e.getMessage());
+            }
+        }
+    }
+
+    private BatchResult relayBatch() {
+        BatchResult result = transactions.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> batch = platform.isPostgres()
+                    ? outboxEvents.lockNextBatch(batchSize, now)
+                    : outboxEvents.lockNextBatchWaiting(batchSize, now);
+            BatchResult relayed = new BatchResult();
+            for (OutboxEvent event : batch) {
+                // отметки уже доставленных событий пишутся до точки сохранения, чтобы откат к ней их не задел
+                status.flush();
+                try {
+                    deliver(event);
+                } catch (RuntimeException e) {
+                    relayed.failed = true;
+                    failed(event, now, e);
+                    continue;
+                }
+                event.setPublishedAt(now);
+                lag.record(Duration.between(event.getCreated(), now));
+                delivered.increment();
+                relayed.delivered++;
+            }
+            return relayed;
+        });
+        return result == null ? new BatchResult() : result;
+    }
+
+    private void deliver(OutboxEvent event) {
+        Session session = entityManager.unwrap(Session.class);
+        Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+        try {
+            subscribers.orderedStream().forEach(subscriber -> subscriber.onEvent(event));
+        } catch (RuntimeException e) {
+            session.doWork(connection -> connection.rollback(savepoint));
+            throw e;
+        }
+        session.doWork(connection -> connection.releaseSavepoint(savepoint));
+    }
+
+    private void failed(OutboxEvent event, LocalDateTime now, RuntimeException e) {
+        event.setAttempts(event.getAttempts() + 1);
+        failed.increment();
+        if (event.getAttempts() >= maxAttempts) {
+            event.setDeadAt(now);
+            deadLettered.increment();
+            log.error("Событие outbox id={} ({}, {} id={}) не доставлено за {} попыток и перенесено в dead letter: {}",
+                    event.getId(), event.getEventType(), event.getAggregateType(), event.getAggregateId(),
+                    event.getAttempts(), e.getMessage());
+            return;
+        }
+        long delay = Math.min(backoff << Math.min(event.getAttempts() - 1, 20), maxBackoff);
+        event.setNextAttemptAt(now.plus(Duration.ofMillis(delay)));
+        log.warn("Не удалось доставить событие outbox id={} ({}), попытка {}, следующая через {} мс: {}",
+                event.getId(), event.getEventType(), event.getAttempts(), delay, e.getMessage());
+    }
+
+    private void cleanUpIfDue() {
+        LocalDateTime now = LocalDateTime.now();
+        if (now.isBefore(nextCleanup)) {
+            return;
+        }
+        nextCleanup = now.plusMinutes(10);
+        router.forEachShard(() -> transactions.executeWithoutResult(
+                status -> outboxEvents.deletePublishedBefore(now.minus(retention))));
+    }
+
+    private static class BatchResult {
+        private int delivered;
+        private boolean failed;
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.outbox.service;
+
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.OutboxEventType;
+
+public interface OutboxService {
+    void record(AggregateType aggregateType, Long aggregateId, OutboxEventType eventType, Object payload);
+
+    int discardPending(AggregateType aggregateType, Long aggregateId);
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.OutboxEventType;
+import ru.practicum.shareit.outbox.event.DomainEvent;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+// Свои события доставляются проекциям узла отдельным потоком, по одному и в порядке коммитов:
+// в afterCommit соединение транзакции ещё занято, и проекции, читающие в новой транзакции, брали бы второе
+// соединение из пула. Ошибка проекции только пишется в лог — запись уже закоммичена, а на PostgreSQL
+// то же событие ещё придёт от релея через рассылку. В тестах (async=false) доставка синхронная
+@Slf4j
+@Service
+public class OutboxServiceImpl implements OutboxService {
+    private final OutboxEventRepository outboxEvents;
+    private final ObjectMapper objectMapper;
+    private final OutboxRelay relay;
+    private final ApplicationEventPublisher events;
+    private final ExecutorService localEvents;
+
+    @Autowired
+    public OutboxServiceImpl(OutboxEventRepository outboxEvents,
+                             ObjectMapper objectMapper,
+                             OutboxRelay relay,
+                             ApplicationEventPublisher events,
+                             @Value("${shareit.outbox.local-events.async:true}") boolean async) {
+        this.outboxEvents = outboxEvents;
+        this.objectMapper = objectMapper;
+        this.relay = relay;
+        this.events = events;
+        this.localEvents = async ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-local-events");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(AggregateType aggregateType, Long aggregateId, OutboxEventType eventType, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        event.setPayload(toJson(payload));
+        event.setCreated(LocalDateTime.now());
+        outboxEvents.save(event);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // свой узел обновляет проекции сразу, остальные узнают о событии от релея
+                publishLocally(DomainEvent.builder()
+                        .aggregateType(aggregateType).aggregateId(aggregateId).eventType(eventType)
+                        .eventId(event.getId()).build());
+                relay.wakeUp();
+            }
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int discardPending(AggregateType aggregateType, Long aggregateId) {
+        return outboxEvents.deletePending(aggregateType, aggregateId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (localEvents != null) {
+            localEvents.shutdown();
+        }
+    }
+
+    private void publishLocally(DomainEvent event) {
+        if (localEvents == null) {
+            deliverLocally(event);
+            return;
+        }
+        try {
+            localEvents.execute(() -> deliverLocally(event));
+        } catch (RejectedExecutionException e) {
+            log.warn("Узел останавливается, событие outbox id={} проекциям не передано", event.getEventId());
+        }
+    }
+
+    private void deliverLocally(DomainEvent event) {
+        try {
+            events.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Проекции не обработали событие outbox id={} ({} id={}): {}", event.getEventId(),
+                    event.getEventType(), event.getAggregateId(), e.getMessage());
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие " + payload.getClass().getSimpleName(), e);
+        }
+    }
+}
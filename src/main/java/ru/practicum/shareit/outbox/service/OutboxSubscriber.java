@@ -0,0 +1,7 @@
+package ru.practicum.shareit.outbox.service;
+
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+public interface OutboxSubscriber {
+    void onEvent(OutboxEvent event);
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.error.handler.exception.ErrorResponse;
+import ru.practicum.shareit.ratelimit.enums.EndpointGroup;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@Order(RateLimitFilter.ORDER)
+public class RateLimitFilter extends OncePerRequestFilter {
+    // раньше остальных фильтров приложения: лишний запрос отсекается до любой работы над ним
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+    private static final String userIdHeader = "X-Sharer-User-Id";
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Map<EndpointGroup, TokenBucketLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+
+    @Autowired
+    public RateLimitFilter(ObjectMapper objectMapper,
+                           @Value("${shareit.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${shareit.rate-limit.stripes:64}") int stripes,
+                           @Value("${shareit.rate-limit.max-buckets:1000000}") int maxBuckets,
+                           @Value("${shareit.rate-limit.search.capacity:20}") int searchCapacity,
+                           @Value("${shareit.rate-limit.search.per-second:5}") double searchPerSecond,
+                           @Value("${shareit.rate-limit.booking-lists.capacity:30}") int bookingListsCapacity,
+                           @Value("${shareit.rate-limit.booking-lists.per-second:10}") double bookingListsPerSecond,
+                           @Value("${shareit.rate-limit.write.capacity:20}") int writeCapacity,
+                           @Value("${shareit.rate-limit.write.per-second:5}") double writePerSecond,
+                           @Value("${shareit.rate-limit.read.capacity:100}") int readCapacity,
+                           @Value("${shareit.rate-limit.read.per-second:50}") double readPerSecond) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        limiters.put(EndpointGroup.SEARCH,
+                new TokenBucketLimiter(searchCapacity, searchPerSecond, stripes, maxBuckets));
+        limiters.put(EndpointGroup.BOOKING_LISTS,
+                new TokenBucketLimiter(bookingListsCapacity, bookingListsPerSecond, stripes, maxBuckets));
+        limiters.put(EndpointGroup.WRITE,
+                new TokenBucketLimiter(writeCapacity, writePerSecond, stripes, maxBuckets));
+        limiters.put(EndpointGroup.READ,
+                new TokenBucketLimiter(readCapacity, readPerSecond, stripes, maxBuckets));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Object client = clientKey(request);
+        EndpointGroup group = EndpointGroup.of(request.getMethod(), request.getRequestURI());
+        long wait = limiters.get(group).tryAcquire(client, System.nanoTime());
+        if (wait == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long retryAfter = (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+        log.debug("Превышен лимит запросов {} для клиента {}", group, client);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.builder()
+                .code(HttpStatus.TOO_MANY_REQUESTS.value())
+                .status(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase())
+                .error(String.format("Слишком много запросов, повторите через %s с", retryAfter))
+                .build());
+    }
+
+    // без заголовка (поиск его не требует) или с мусором в нём считаем по адресу клиента, иначе лимит
+    // обходится простым пропуском заголовка. За прокси адрес даёт server.forward-headers-strategy
+    private Object clientKey(HttpServletRequest request) {
+        String userId = request.getHeader(userIdHeader);
+        if (userId == null) {
+            return request.getRemoteAddr();
+        }
+        try {
+            return Long.parseLong(userId.trim());
+        } catch (NumberFormatException e) {
+            return request.getRemoteAddr();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.rate-limit.eviction-interval:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        limiters.values().forEach(limiter -> limiter.evictIdle(now));
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket в форме GCRA: состояние ведра — одно число (теоретическое время прихода следующего запроса),
+// которое меняется через CAS. Ведро, чьё время уже наступило, полное и неотличимо от отсутствующего,
+// поэтому такие ведра можно удалять без потери информации. Ключ — id пользователя или адрес клиента.
+public class TokenBucketLimiter {
+    private final long interval;
+    private final long tolerance;
+    private final int maxBucketsPerStripe;
+    private final ConcurrentHashMap<Object, AtomicLong>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    public TokenBucketLimiter(int capacity, double tokensPerSecond, int stripeCount, int maxBuckets) {
+        this.interval = (long) (1_000_000_000L / tokensPerSecond);
+        this.tolerance = interval * capacity;
+        int stripesPowerOfTwo = Integer.highestOneBit(Math.max(stripeCount - 1, 1)) << 1;
+        this.maxBucketsPerStripe = Math.max(maxBuckets / stripesPowerOfTwo, 1);
+        this.stripes = new ConcurrentHashMap[stripesPowerOfTwo];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    // 0 — запрос пропущен, иначе сколько наносекунд ждать до следующего токена
+    public long tryAcquire(Object key, long now) {
+        ConcurrentHashMap<Object, AtomicLong> stripe = stripeFor(key);
+        AtomicLong bucket = stripe.get(key);
+        if (bucket == null) {
+            if (stripe.size() >= maxBucketsPerStripe) {
+                trim(stripe, now);
+            }
+            bucket = stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + interval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public void evictIdle(long now) {
+        for (ConcurrentHashMap<Object, AtomicLong> stripe : stripes) {
+            stripe.values().removeIf(bucket -> bucket.get() <= now);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<Object, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private void trim(ConcurrentHashMap<Object, AtomicLong> stripe, long now) {
+        stripe.values().removeIf(bucket -> bucket.get() <= now);
+        // под нашествием уникальных id жертвуем состоянием части вёдер, но не памятью
+        Iterator<Object> keys = stripe.keySet().iterator();
+        while (stripe.size() >= maxBucketsPerStripe && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private ConcurrentHashMap<Object, AtomicLong> stripeFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & (stripes.length - 1)];
+    }
+}
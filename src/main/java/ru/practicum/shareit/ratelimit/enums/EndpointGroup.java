@@ -0,0 +1,21 @@
+package ru.practicum.shareit.ratelimit.enums;
+
+public enum EndpointGroup {
+    SEARCH,
+    BOOKING_LISTS,
+    WRITE,
+    READ;
+
+    public static EndpointGroup of(String method, String path) {
+        if (!"GET".equals(method)) {
+            return WRITE;
+        }
+        if (path.equals("/items/search")) {
+            return SEARCH;
+        }
+        if (path.equals("/bookings") || path.equals("/bookings/owner")) {
+            return BOOKING_LISTS;
+        }
+        return READ;
+    }
+}
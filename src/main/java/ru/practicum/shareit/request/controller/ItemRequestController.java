@@ -8,6 +8,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.count.TotalCountHeaders;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.fields.SparseFieldsAdvice;
+import ru.practicum.shareit.matching.dto.ItemMatchListDto;
+import ru.practicum.shareit.matching.service.MatchingService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.request.dto.ItemRequestListDto;
@@ -24,7 +29,9 @@ import javax.validation.constraints.Min;
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class ItemRequestController {
     private final ItemRequestService itemRequestService;
+    private final MatchingService matchingService;
     private static final String userIdHeader = "X-Sharer-User-Id";
+    private static final String nextCursorHeader = "X-Next-Cursor";
 
     @PostMapping
     public ResponseEntity<ItemRequestDtoResponse> createRequest(@RequestHeader(userIdHeader) @Min(1) Long requesterId,
@@ -48,12 +55,22 @@ public class ItemRequestController {
     public ResponseEntity<ItemRequestListDto> getOtherRequests(
             @RequestHeader(userIdHeader) @Min(1) Long requesterId,
             @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size) {
-        return ResponseEntity.status(HttpStatus.OK)
-                .body(itemRequestService.getOtherRequests(
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = "cursor", required = false) @Min(1) Long cursor,
+            @RequestParam(value = SparseFieldsAdvice.FIELDS_PARAMETER, required = false) String fields) {
+        FieldSet fieldSet = FieldSet.parse(fields);
+        ItemRequestListDto requests = cursor == null
+                ? itemRequestService.getOtherRequests(
                         PageRequest.of(
                                 from / size, size, Sort.by(Sort.Direction.DESC, "created")),
-                        requesterId));
+                        requesterId, fieldSet)
+                : itemRequestService.getOtherRequests(cursor, size, requesterId, fieldSet);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK)
+                .headers(TotalCountHeaders.of(requests.getTotal()));
+        if (requests.getNextCursor() != null) {
+            response.header(nextCursorHeader, String.valueOf(requests.getNextCursor()));
+        }
+        return response.body(requests);
     }
 
     @GetMapping("{requestId}")
@@ -62,4 +79,12 @@ public class ItemRequestController {
             @PathVariable @Min(1) Long requestId) {
         return ResponseEntity.status(HttpStatus.OK).body(itemRequestService.getItemRequest(userId, requestId));
     }
+
+    @GetMapping("{requestId}/candidates")
+    public ResponseEntity<ItemMatchListDto> getCandidates(
+            @RequestHeader(userIdHeader) @Min(1) Long userId,
+            @PathVariable @Min(1) Long requestId,
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size) {
+        return ResponseEntity.status(HttpStatus.OK).body(matchingService.getCandidates(userId, requestId, size));
+    }
 }
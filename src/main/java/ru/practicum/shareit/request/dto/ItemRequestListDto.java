@@ -3,6 +3,7 @@ package ru.practicum.shareit.request.dto;
 import com.fasterxml.jackson.annotation.JsonValue;
 import lombok.Builder;
 import lombok.Getter;
+import ru.practicum.shareit.count.TotalCount;
 
 import java.util.List;
 
@@ -11,4 +12,7 @@ import java.util.List;
 public class ItemRequestListDto {
     @JsonValue
     private List<RequestDtoResponseWithMD> requests;
+    // id последнего запроса полной страницы, передаётся клиенту в заголовке X-Next-Cursor
+    private Long nextCursor;
+    private TotalCount total;
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.model;
+
+import java.time.LocalDateTime;
+
+public interface RequestRow {
+    Long getId();
+
+    String getDescription();
+
+    LocalDateTime getCreated();
+
+    Long getRequesterId();
+}
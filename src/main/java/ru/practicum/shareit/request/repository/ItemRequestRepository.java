@@ -1,13 +1,40 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestRow;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRequestRepository extends PagingAndSortingRepository<ItemRequest, Long> {
     List<ItemRequest> findAllByRequesterId(Pageable pageable, Long requesterId);
 
     List<ItemRequest> findAllByRequesterIdNot(Pageable pageable, Long requesterId);
+
+    @Query("SELECT r FROM ItemRequest AS r " +
+            "WHERE r.requester.id <> ?1 AND (r.created < ?2 OR (r.created = ?2 AND r.id < ?3)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findOlderByRequesterIdNot(Long requesterId, LocalDateTime created, Long requestId,
+                                                Pageable pageable);
+
+    // без вещей-ответов: items у сущности грузятся жадно
+    @Query("SELECT r.id AS id, r.description AS description, r.created AS created, r.requester.id AS requesterId " +
+            "FROM ItemRequest AS r " +
+            "WHERE r.requester.id <> ?1")
+    List<RequestRow> findRowsByRequesterIdNot(Long requesterId, Pageable pageable);
+
+    @Query("SELECT r.id AS id, r.description AS description, r.created AS created, r.requester.id AS requesterId " +
+            "FROM ItemRequest AS r " +
+            "WHERE r.requester.id <> ?1 AND (r.created < ?2 OR (r.created = ?2 AND r.id < ?3)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<RequestRow> findOlderRowsByRequesterIdNot(Long requesterId, LocalDateTime created, Long requestId,
+                                                   Pageable pageable);
+
+    @Query("SELECT r.id AS id, r.description AS description, r.created AS created, r.requester.id AS requesterId " +
+            "FROM ItemRequest AS r WHERE r.id IN ?1")
+    List<RequestRow> findRowsByIdIn(Collection<Long> ids);
 }
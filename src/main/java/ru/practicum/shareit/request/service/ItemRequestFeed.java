@@ -0,0 +1,220 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.count.TotalCount;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.OutboxEventType;
+import ru.practicum.shareit.outbox.event.DomainEvent;
+import ru.practicum.shareit.request.dto.RequestDtoResponseWithMD;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Последние capacity запросов в порядке created DESC, id DESC вместе с вещами-ответами.
+// Лента обновляется по событиям outbox о запросах и вещах: своим после коммита и чужим от релея.
+// Страница, которую окно не покрывает целиком, читается из базы.
+@Slf4j
+@Component
+public class ItemRequestFeed {
+    private static final Comparator<Position> NEWEST_FIRST = Comparator
+            .comparing((Position position) -> position.created)
+            .thenComparing(position -> position.id)
+            .reversed();
+
+    private final ItemRequestRepository requests;
+    private final ItemRepository items;
+    private final ItemRequestMapper mapper;
+    private final TransactionTemplate transactions;
+    private final boolean enabled;
+    private final int capacity;
+    private final ConcurrentSkipListMap<Position, Entry> entries = new ConcurrentSkipListMap<>(NEWEST_FIRST);
+    private final Map<Long, Position> positions = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    // окно содержит все запросы из базы, а не только последние capacity
+    private volatile boolean complete;
+
+    @Autowired
+    public ItemRequestFeed(ItemRequestRepository requests,
+                           ItemRepository items,
+                           ItemRequestMapper mapper,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${shareit.request.feed.enabled:true}") boolean enabled,
+                           @Value("${shareit.sharding.enabled:false}") boolean sharding,
+                           @Value("${shareit.request.feed.capacity:10000}") int capacity) {
+        this.requests = requests;
+        this.items = items;
+        this.mapper = mapper;
+        // свои события приходят в afterCommit, где старый EntityManager ещё привязан к потоку
+        // и вернул бы запрос без только что добавленных вещей
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactions.setReadOnly(true);
+        // при шардировании вещи-ответы разнесены по шардам владельцев, ленту собирать не из чего
+        this.enabled = enabled && !sharding;
+        this.capacity = capacity;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        if (!enabled || event.getAggregateType() == AggregateType.BOOKING
+                || event.getEventType() == OutboxEventType.COMMENT_ADDED) {
+            return;
+        }
+        if (event.isAll()) {
+            reload();
+            return;
+        }
+        transactions.executeWithoutResult(status -> {
+            // вещь-ответ меняет строку своего запроса
+            Long requestId = event.getAggregateType() == AggregateType.REQUEST
+                    ? event.getAggregateId()
+                    : items.findById(event.getAggregateId()).map(Item::getRequest).map(ItemRequest::getId).orElse(null);
+            if (requestId == null) {
+                return;
+            }
+            Optional<ItemRequest> request = requests.findById(requestId);
+            if (request.isPresent()) {
+                put(request.get());
+            } else {
+                remove(requestId);
+            }
+        });
+    }
+
+    public Optional<List<RequestDtoResponseWithMD>> page(Long requesterId, long offset, int size) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return collect(entries.values(), requesterId, offset, size);
+    }
+
+    public Optional<List<RequestDtoResponseWithMD>> after(Long requesterId, Long cursor, int size) {
+        Position position = positions.get(cursor);
+        if (!ready || position == null) {
+            return Optional.empty();
+        }
+        return collect(entries.tailMap(position, false).values(), requesterId, 0, size);
+    }
+
+    // чужие запросы известны целиком, только когда окно покрывает всю базу
+    public Optional<TotalCount> countOthers(Long requesterId) {
+        if (!ready || !complete) {
+            return Optional.empty();
+        }
+        return Optional.of(TotalCount.exact(entries.values().stream()
+                .filter(entry -> !entry.requesterId.equals(requesterId))
+                .count()));
+    }
+
+    private Optional<List<RequestDtoResponseWithMD>> collect(Collection<Entry> window, Long requesterId,
+                                                             long offset, int size) {
+        List<RequestDtoResponseWithMD> page = new ArrayList<>(size);
+        long skipped = 0;
+        for (Entry entry : window) {
+            if (entry.requesterId.equals(requesterId)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            page.add(entry.request.toBuilder().build());
+            if (page.size() == size) {
+                return Optional.of(page);
+            }
+        }
+        return complete ? Optional.of(page) : Optional.empty();
+    }
+
+    private synchronized void reload() {
+        ready = false;
+        entries.clear();
+        positions.clear();
+        int loaded = transactions.execute(status -> {
+            List<ItemRequest> latest = requests.findAll(PageRequest.of(0, capacity,
+                    Sort.by(Sort.Direction.DESC, "created", "id"))).getContent();
+            complete = true;
+            latest.forEach(this::put);
+            return latest.size();
+        });
+        complete = loaded < capacity;
+        ready = true;
+        log.info("Лента запросов загружена: {} записей", loaded);
+    }
+
+    private synchronized void put(ItemRequest request) {
+        Position position = new Position(request.getCreated(), request.getId());
+        Position previous = positions.get(request.getId());
+        if (previous == null && !complete && !entries.isEmpty()
+                && NEWEST_FIRST.compare(position, entries.lastKey()) > 0) {
+            // старше окна: такой запрос и так читается из базы
+            return;
+        }
+        RequestDtoResponseWithMD dto = mapper.mapToRequestDtoResponseWithMD(request);
+        if (dto.getItems() == null) {
+            dto.setItems(new HashSet<>());
+        }
+        if (previous != null) {
+            entries.remove(previous);
+        }
+        entries.put(position, new Entry(request.getRequester().getId(), dto));
+        positions.put(request.getId(), position);
+        while (positions.size() > capacity) {
+            Map.Entry<Position, Entry> oldest = entries.pollLastEntry();
+            positions.remove(oldest.getKey().id);
+            complete = false;
+        }
+    }
+
+    private synchronized void remove(Long id) {
+        Position position = positions.remove(id);
+        if (position != null) {
+            entries.remove(position);
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Position {
+        private final LocalDateTime created;
+        private final Long id;
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final Long requesterId;
+        private final RequestDtoResponseWithMD request;
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.fields.FieldSet;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.request.dto.ItemRequestListDto;
@@ -13,5 +14,11 @@ public interface ItemRequestService {
 
     ItemRequestListDto getOtherRequests(PageRequest pageRequest, Long requesterId);
 
+    ItemRequestListDto getOtherRequests(PageRequest pageRequest, Long requesterId, FieldSet fields);
+
+    ItemRequestListDto getOtherRequests(Long cursor, int size, Long requesterId);
+
+    ItemRequestListDto getOtherRequests(Long cursor, int size, Long requesterId, FieldSet fields);
+
     RequestDtoResponseWithMD getItemRequest(Long userId, Long requestId);
 }
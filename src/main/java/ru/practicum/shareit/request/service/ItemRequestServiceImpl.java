@@ -4,40 +4,75 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cache.enums.CacheRegion;
+import ru.practicum.shareit.cache.service.CacheInvalidationService;
+import ru.practicum.shareit.cache.service.SingleFlight;
+import ru.practicum.shareit.count.TotalCount;
+import ru.practicum.shareit.count.TotalCounter;
 import ru.practicum.shareit.error.handler.exception.ObjectNotFoundException;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.request.dto.ItemRequestListDto;
 import ru.practicum.shareit.request.dto.RequestDtoResponseWithMD;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestRow;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class ItemRequestServiceImpl implements ItemRequestService {
+    private static final String OTHER_REQUESTS = "SELECT 1 FROM requests WHERE requester_id <> ?";
+
     private final ItemRequestRepository requests;
     private final UserRepository users;
     private final ItemRequestMapper mapper;
+    private final OutboxService outbox;
+    private final SingleFlight singleFlight;
+    private final ItemRequestFeed feed;
+    private final CacheInvalidationService cacheInvalidation;
+    private final TotalCounter totalCounter;
 
     @Override
+    @Transactional
     public ItemRequestDtoResponse createItemRequest(ItemRequestDto itemRequestDto, Long requesterId) {
         User user = users.findById(requesterId).orElseThrow(
-                () -> new ObjectNotFoundException(String.format("Пользователя с id=%s нет", requesterId)));
+                () -> new ObjectNotFoundException("Пользователя с id=%s нет", requesterId));
         ItemRequest newRequest = mapper.mapToItemRequest(itemRequestDto);
         newRequest.setRequester(user);
         newRequest.setCreated(LocalDateTime.now());
-        return mapper.mapToItemRequestDtoResponse(requests.save(newRequest));
+        ItemRequestDtoResponse createdRequest = mapper.mapToItemRequestDtoResponse(requests.save(newRequest));
+        // ленты /requests/all и индексы подбора узнают о запросе из outbox
+        outbox.record(AggregateType.REQUEST, createdRequest.getId(), OutboxEventType.REQUEST_CREATED, createdRequest);
+        return createdRequest;
+    }
+
+    // откат createItemRequest, когда запрос не удалось записать на остальные шарды
+    @Transactional
+    public void discardItemRequest(Long requestId) {
+        requests.deleteById(requestId);
+        // недоставленный REQUEST_CREATED не уходит на другие узлы, а REQUEST_DELETED убирает запрос
+        // из лент и индексов там, где его уже успели показать, включая свой узел
+        outbox.discardPending(AggregateType.REQUEST, requestId);
+        outbox.record(AggregateType.REQUEST, requestId, OutboxEventType.REQUEST_DELETED, requestId);
+        cacheInvalidation.invalidate(CacheRegion.REQUESTS, requestId);
     }
 
     @Override
     public ItemRequestListDto getPrivateRequests(PageRequest pageRequest, Long requesterId) {
         if (!users.existsById(requesterId)) {
-            throw new ObjectNotFoundException(String.format("Пользователя с id=%s нет", requesterId));
+            throw new ObjectNotFoundException("Пользователя с id=%s нет", requesterId);
         }
         return ItemRequestListDto.builder()
                 .requests(mapper.mapToRequestDtoResponseWithMD(requests.findAllByRequesterId(pageRequest, requesterId)
@@ -46,24 +81,76 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestListDto getOtherRequests(PageRequest pageRequest, Long requesterId) {
+        return getOtherRequests(pageRequest, requesterId, FieldSet.ALL);
+    }
+
+    @Override
+    public ItemRequestListDto getOtherRequests(PageRequest pageRequest, Long requesterId, FieldSet fields) {
         if (!users.existsById(requesterId)) {
-            throw new ObjectNotFoundException(String.format("Пользователя с id=%s нет", requesterId));
+            throw new ObjectNotFoundException("Пользователя с id=%s нет", requesterId);
         }
-        return ItemRequestListDto.builder()
-                .requests(mapper.mapToRequestDtoResponseWithMD(requests.findAllByRequesterIdNot(pageRequest, requesterId)
-                )).build();
+        List<RequestDtoResponseWithMD> page = feed.page(requesterId, pageRequest.getOffset(), pageRequest.getPageSize())
+                .orElseGet(() -> fields.includes("items")
+                        ? mapper.mapToRequestDtoResponseWithMD(
+                                requests.findAllByRequesterIdNot(pageRequest, requesterId))
+                        : toDtos(requests.findRowsByRequesterIdNot(requesterId, pageRequest)));
+        return toListDto(page, pageRequest.getPageSize(),
+                totalCounter.count(pageRequest, page.size(), OTHER_REQUESTS, requesterId));
+    }
+
+    @Override
+    public ItemRequestListDto getOtherRequests(Long cursor, int size, Long requesterId) {
+        return getOtherRequests(cursor, size, requesterId, FieldSet.ALL);
+    }
+
+    @Override
+    public ItemRequestListDto getOtherRequests(Long cursor, int size, Long requesterId, FieldSet fields) {
+        if (!users.existsById(requesterId)) {
+            throw new ObjectNotFoundException("Пользователя с id=%s нет", requesterId);
+        }
+        List<RequestDtoResponseWithMD> page = feed.after(requesterId, cursor, size).orElseGet(() -> {
+            ItemRequest last = requests.findById(cursor).orElseThrow(
+                    () -> new ObjectNotFoundException("Запроса с id=%s нет", cursor));
+            return fields.includes("items")
+                    ? mapper.mapToRequestDtoResponseWithMD(requests.findOlderByRequesterIdNot(
+                            requesterId, last.getCreated(), last.getId(), PageRequest.of(0, size)))
+                    : toDtos(requests.findOlderRowsByRequesterIdNot(
+                            requesterId, last.getCreated(), last.getId(), PageRequest.of(0, size)));
+        });
+        // у курсора нет смещения, и по короткой странице total не вывести: считаем по ленте, пока она полная
+        return toListDto(page, size, feed.countOthers(requesterId)
+                .orElseGet(() -> totalCounter.count(OTHER_REQUESTS, requesterId)));
     }
 
     @Override
     public RequestDtoResponseWithMD getItemRequest(Long userId, Long requestId) {
         if (!users.existsById(userId)) {
-            throw new ObjectNotFoundException(String.format("Пользователя с id=%s нет", userId));
+            throw new ObjectNotFoundException("Пользователя с id=%s нет", userId);
         }
-        return mapper.mapToRequestDtoResponseWithMD(
+        // шардированный сервис подменяет items у результата, поэтому каждому вызову — своя копия
+        return singleFlight.load(CacheRegion.REQUESTS, requestId, () -> mapper.mapToRequestDtoResponseWithMD(
                 requests.findById(requestId)
                         .orElseThrow(
-                                () -> new ObjectNotFoundException(String.format("Запроса с id=%s нет", requestId)
+                                () -> new ObjectNotFoundException("Запроса с id=%s нет", requestId
                                 )
-                        ));
+                        ))).toBuilder().build();
+    }
+
+    private List<RequestDtoResponseWithMD> toDtos(List<RequestRow> rows) {
+        return rows.stream()
+                .map(row -> RequestDtoResponseWithMD.builder()
+                        .id(row.getId())
+                        .description(row.getDescription())
+                        .created(row.getCreated())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private ItemRequestListDto toListDto(List<RequestDtoResponseWithMD> page, int size, TotalCount total) {
+        return ItemRequestListDto.builder()
+                .requests(page)
+                .nextCursor(page.size() == size ? page.get(page.size() - 1).getId() : null)
+                .total(total)
+                .build();
     }
 }
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.request.dto.*;
+import ru.practicum.shareit.shard.ShardRouter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(name = "shareit.sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ShardedItemRequestService implements ItemRequestService {
+    private static final int PRIMARY_SHARD = 0;
+
+    private final ItemRequestServiceImpl delegate;
+    private final ShardRouter router;
+    private final JdbcTemplate jdbc;
+
+    @Override
+    public ItemRequestDtoResponse createItemRequest(ItemRequestDto itemRequestDto, Long requesterId) {
+        ItemRequestDtoResponse created = router.onShard(PRIMARY_SHARD,
+                () -> delegate.createItemRequest(itemRequestDto, requesterId));
+        for (int shard = PRIMARY_SHARD + 1; shard < router.getShardCount(); shard++) {
+            try {
+                router.onShard(shard, () -> jdbc.update(
+                        "INSERT INTO requests (request_id, description, requester_id, created) VALUES (?, ?, ?, ?)",
+                        created.getId(), created.getDescription(), requesterId, created.getCreated()));
+            } catch (RuntimeException e) {
+                undoCreate(shard, created.getId(), e);
+                throw e;
+            }
+        }
+        return created;
+    }
+
+    @Override
+    public ItemRequestListDto getPrivateRequests(PageRequest pageRequest, Long requesterId) {
+        return mergeItems(router.onEachShard(() -> delegate.getPrivateRequests(pageRequest, requesterId)));
+    }
+
+    @Override
+    public ItemRequestListDto getOtherRequests(PageRequest pageRequest, Long requesterId) {
+        return getOtherRequests(pageRequest, requesterId, FieldSet.ALL);
+    }
+
+    // без вещей-ответов хватает одной реплики запросов
+    @Override
+    public ItemRequestListDto getOtherRequests(PageRequest pageRequest, Long requesterId, FieldSet fields) {
+        if (!fields.includes("items")) {
+            return router.onShard(PRIMARY_SHARD, () -> delegate.getOtherRequests(pageRequest, requesterId, fields));
+        }
+        return mergeItems(router.onEachShard(() -> delegate.getOtherRequests(pageRequest, requesterId)));
+    }
+
+    @Override
+    public ItemRequestListDto getOtherRequests(Long cursor, int size, Long requesterId) {
+        return getOtherRequests(cursor, size, requesterId, FieldSet.ALL);
+    }
+
+    @Override
+    public ItemRequestListDto getOtherRequests(Long cursor, int size, Long requesterId, FieldSet fields) {
+        if (!fields.includes("items")) {
+            return router.onShard(PRIMARY_SHARD, () -> delegate.getOtherRequests(cursor, size, requesterId, fields));
+        }
+        return mergeItems(router.onEachShard(() -> delegate.getOtherRequests(cursor, size, requesterId)));
+    }
+
+    @Override
+    public RequestDtoResponseWithMD getItemRequest(Long userId, Long requestId) {
+        List<RequestDtoResponseWithMD> replicas = router.onEachShard(() -> delegate.getItemRequest(userId, requestId));
+        RequestDtoResponseWithMD request = replicas.get(PRIMARY_SHARD);
+        Set<ItemDataForRequestDto> items = new HashSet<>();
+        replicas.forEach(replica -> items.addAll(replica.getItems()));
+        request.setItems(items);
+        return request;
+    }
+
+    // шарды не в общей транзакции: убираем уже записанные копии, иначе запрос виден только на части шардов.
+    // На нулевом шарде вместе с запросом убираются его событие в outbox и строка ленты на всех узлах
+    private void undoCreate(int failedShard, Long requestId, RuntimeException cause) {
+        for (int shard = failedShard - 1; shard >= PRIMARY_SHARD; shard--) {
+            int target = shard;
+            try {
+                if (target == PRIMARY_SHARD) {
+                    router.onShard(target, () -> delegate.discardItemRequest(requestId));
+                } else {
+                    router.onShard(target, () -> jdbc.update("DELETE FROM requests WHERE request_id = ?", requestId));
+                }
+            } catch (RuntimeException e) {
+                cause.addSuppressed(e);
+                log.error("Не удалось удалить запрос с id={} с шарда {} после сбоя записи", requestId, target, e);
+            }
+        }
+    }
+
+    // запросы одинаковы на всех шардах, а вещи-ответы лежат на шардах своих владельцев
+    private ItemRequestListDto mergeItems(List<ItemRequestListDto> replicas) {
+        Map<Long, Set<ItemDataForRequestDto>> items = new HashMap<>();
+        replicas.forEach(replica -> replica.getRequests().forEach(request -> items
+                .computeIfAbsent(request.getId(), id -> new HashSet<>()).addAll(request.getItems())));
+        ItemRequestListDto requests = replicas.get(PRIMARY_SHARD);
+        requests.getRequests().forEach(request -> request.setItems(items.get(request.getId())));
+        return requests;
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.cache.enums.CacheRegion;
+import ru.practicum.shareit.cache.event.CacheInvalidatedEvent;
+import ru.practicum.shareit.db.DatabasePlatform;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.matching.repository.MatchingRepository;
+import ru.practicum.shareit.search.model.ScoredItem;
+import ru.practicum.shareit.search.repository.FuzzySearchRepository;
+import ru.practicum.shareit.shard.ShardRouter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+// На PostgreSQL поиск идёт по GIN-индексам pg_trgm, на остальных базах — по TrigramIndex в памяти,
+// который строится при старте и обновляется по событиям инвалидации региона items.
+@Slf4j
+@Component
+public class FuzzyItemSearch {
+    private final FuzzySearchRepository fuzzySearch;
+    private final MatchingRepository texts;
+    private final ItemRepository items;
+    private final DatabasePlatform platform;
+    private final ShardRouter router;
+    private final TransactionTemplate transactions;
+    private final double threshold;
+    private final TrigramIndex index = new TrigramIndex();
+
+    @Autowired
+    public FuzzyItemSearch(FuzzySearchRepository fuzzySearch,
+                           MatchingRepository texts,
+                           ItemRepository items,
+                           DatabasePlatform platform,
+                           ShardRouter router,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${shareit.search.fuzzy.threshold:0.4}") double threshold) {
+        this.fuzzySearch = fuzzySearch;
+        this.texts = texts;
+        this.items = items;
+        this.platform = platform;
+        this.router = router;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactions.setReadOnly(true);
+        this.threshold = threshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!platform.isPostgres()) {
+            reload();
+            log.info("Триграммный индекс вещей построен: {} вещей", index.size());
+        }
+    }
+
+    @EventListener
+    public void onInvalidated(CacheInvalidatedEvent event) {
+        if (event.getRegion() != CacheRegion.ITEMS || platform.isPostgres()) {
+            return;
+        }
+        if (event.isAll()) {
+            reload();
+            return;
+        }
+        for (Long id : event.getIds()) {
+            router.onShard(router.shardForId(id), () -> transactions.executeWithoutResult(status ->
+                    texts.findAvailableItem(id).ifPresentOrElse(
+                            item -> index.put(item.getId(), item.getName(), item.getDescription()),
+                            () -> index.remove(id))));
+        }
+    }
+
+    // вызывается внутри транзакции текущего шарда; вещи идут по убыванию оценки, при равенстве — по id
+    public List<ScoredItem> search(String text, Pageable pageable) {
+        String query = text.toLowerCase(Locale.ROOT);
+        Map<Long, Double> scores = new LinkedHashMap<>();
+        if (platform.isPostgres()) {
+            fuzzySearch.setWordSimilarityThreshold(String.valueOf(threshold));
+            fuzzySearch.findSimilarAvailable(query, pageable)
+                    .forEach(similarity -> scores.put(similarity.getId(), similarity.getScore()));
+        } else {
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(
+                    index.rank(query, threshold, (int) pageable.getOffset() + pageable.getPageSize()).entrySet());
+            ranked.subList(Math.min((int) pageable.getOffset(), ranked.size()), ranked.size())
+                    .forEach(entry -> scores.put(entry.getKey(), entry.getValue()));
+        }
+        Map<Long, Integer> order = new HashMap<>();
+        for (Long id : scores.keySet()) {
+            order.put(id, order.size());
+        }
+        // индекс общий для всех шардов, а findAllById вернёт только вещи текущего
+        return StreamSupport.stream(items.findAllById(scores.keySet()).spliterator(), false)
+                .sorted(Comparator.comparing(item -> order.get(item.getId())))
+                .map(item -> new ScoredItem(item, scores.get(item.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private void reload() {
+        index.clear();
+        router.forEachShard(() -> transactions.executeWithoutResult(status -> texts.findAvailableItems()
+                .forEach(item -> index.put(item.getId(), item.getName(), item.getDescription()))));
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Индекс триграмма -> слова -> вещи для баз без pg_trgm. Для каждого слова запроса ищутся похожие
+// слова словаря, оценка вещи — среднее по словам запроса лучшего сходства не ниже порога.
+public class TrigramIndex {
+    private final Map<String, Set<String>> wordsByTrigram = new HashMap<>();
+    private final Map<String, Integer> trigramCounts = new HashMap<>();
+    private final Map<String, Set<Long>> itemsByWord = new HashMap<>();
+    private final Map<Long, Set<String>> wordsByItem = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(Long itemId, String... texts) {
+        Set<String> words = new HashSet<>();
+        for (String text : texts) {
+            words.addAll(Trigrams.words(text));
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(itemId);
+            wordsByItem.put(itemId, words);
+            for (String word : words) {
+                itemsByWord.computeIfAbsent(word, key -> {
+                    Set<String> trigrams = Trigrams.of(key);
+                    trigramCounts.put(key, trigrams.size());
+                    trigrams.forEach(trigram -> wordsByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(key));
+                    return new HashSet<>();
+                }).add(itemId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            wordsByTrigram.clear();
+            trigramCounts.clear();
+            itemsByWord.clear();
+            wordsByItem.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return wordsByItem.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> search(String query, double threshold, int limit) {
+        return new ArrayList<>(rank(query, threshold, limit).keySet());
+    }
+
+    // id вещей с оценками в порядке убывания оценки, при равенстве — по id
+    public Map<Long, Double> rank(String query, double threshold, int limit) {
+        List<String> queryWords = Trigrams.words(query);
+        Map<Long, double[]> best = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (int position = 0; position < queryWords.size(); position++) {
+                Set<String> trigrams = Trigrams.of(queryWords.get(position));
+                Map<String, Integer> shared = new HashMap<>();
+                for (String trigram : trigrams) {
+                    Set<String> words = wordsByTrigram.get(trigram);
+                    if (words != null) {
+                        words.forEach(word -> shared.merge(word, 1, Integer::sum));
+                    }
+                }
+                for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+                    int count = candidate.getValue();
+                    double similarity = (double) count
+                            / (trigrams.size() + trigramCounts.get(candidate.getKey()) - count);
+                    if (similarity < threshold) {
+                        continue;
+                    }
+                    int wordPosition = position;
+                    for (Long itemId : itemsByWord.get(candidate.getKey())) {
+                        double[] scores = best.computeIfAbsent(itemId, id -> new double[queryWords.size()]);
+                        scores[wordPosition] = Math.max(scores[wordPosition], similarity);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>();
+        best.forEach((itemId, scores) -> {
+            double total = 0;
+            for (double score : scores) {
+                total += score;
+            }
+            double score = total / scores.length;
+            if (score >= threshold) {
+                ranked.add(Map.entry(itemId, score));
+            }
+        });
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        Map<Long, Double> scores = new LinkedHashMap<>();
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            scores.put(ranked.get(i).getKey(), ranked.get(i).getValue());
+        }
+        return scores;
+    }
+
+    private void removeLocked(Long itemId) {
+        Set<String> words = wordsByItem.remove(itemId);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            Set<Long> items = itemsByWord.get(word);
+            items.remove(itemId);
+            if (items.isEmpty()) {
+                itemsByWord.remove(word);
+                trigramCounts.remove(word);
+                Trigrams.of(word).forEach(trigram -> {
+                    Set<String> trigramWords = wordsByTrigram.get(trigram);
+                    trigramWords.remove(word);
+                    if (trigramWords.isEmpty()) {
+                        wordsByTrigram.remove(trigram);
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.search.model;
+
+public interface ItemSimilarity {
+    Long getId();
+
+    Double getScore();
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.model.Item;
+
+@Getter
+@AllArgsConstructor
+public class ScoredItem {
+    private final Item item;
+    private final double score;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.search.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.search.model.ItemSimilarity;
+
+import java.util.List;
+
+// только для PostgreSQL: операторы <% и word_similarity из pg_trgm, индексы idx_items_*_trgm
+public interface FuzzySearchRepository extends Repository<Item, Long> {
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', ?1, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(String threshold);
+
+    // оценка отдаётся вместе с id, чтобы шардированный поиск сливал ответы шардов по ней же
+    @Query(value = "SELECT i.item_id AS id, CAST(GREATEST(word_similarity(?1, lower(i.name)), " +
+            "word_similarity(?1, lower(i.description))) AS double precision) AS score FROM items AS i " +
+            "WHERE i.is_available = true AND (?1 <% lower(i.name) OR ?1 <% lower(i.description)) " +
+            "ORDER BY score DESC, i.item_id", nativeQuery = true)
+    List<ItemSimilarity> findSimilarAvailable(String text, Pageable pageable);
+}
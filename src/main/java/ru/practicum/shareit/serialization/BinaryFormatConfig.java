@@ -0,0 +1,47 @@
+package ru.practicum.shareit.serialization;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+// Ответы в CBOR, Smile и protobuf по заголовку Accept. Конвертеры добавляются в конец списка,
+// поэтому без Accept или с */* ответ остаётся в JSON. Мапперы собираются тем же построителем,
+// что и ObjectMapper для JSON: с модулями DTO и настройками spring.jackson.
+@Configuration
+public class BinaryFormatConfig implements WebMvcConfigurer {
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+    @Autowired
+    public BinaryFormatConfig(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        this.builders = builders;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring MVC сам добавляет CBOR и Smile, когда они в classpath, но без модулей приложения
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                builders.getObject().factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                builders.getObject().factory(new SmileFactory()).build()));
+        try {
+            converters.add(new JacksonProtobufHttpMessageConverter(new ProtobufMessages(
+                    builders.getObject().factory(new ProtobufFactory()).build(), ProtobufMessages.loadSchema())));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать схему " + ProtobufMessages.SCHEMA, e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+
+import java.io.IOException;
+
+public class BookingDtoResponseSerializer extends StdSerializer<BookingDtoResponse> {
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString START = new SerializedString("start");
+    private static final SerializedString END = new SerializedString("end");
+    private static final SerializedString ITEM = new SerializedString("item");
+    private static final SerializedString BOOKER = new SerializedString("booker");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString USER_ID = new SerializedString("userId");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString AVAILABLE = new SerializedString("available");
+    private static final SerializedString EMAIL = new SerializedString("email");
+
+    public BookingDtoResponseSerializer() {
+        super(BookingDtoResponse.class);
+    }
+
+    @Override
+    public void serialize(BookingDtoResponse booking, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject(booking);
+        generator.writeFieldName(ID);
+        JsonWrites.writeNumber(generator, booking.getId());
+        generator.writeFieldName(START);
+        LocalDateTimeWriter.write(generator, booking.getStart());
+        generator.writeFieldName(END);
+        LocalDateTimeWriter.write(generator, booking.getEnd());
+        generator.writeFieldName(ITEM);
+        writeItem(generator, booking.getItem());
+        generator.writeFieldName(BOOKER);
+        writeBooker(generator, booking.getBooker());
+        generator.writeFieldName(STATUS);
+        JsonWrites.writeEnum(generator, booking.getStatus());
+        generator.writeEndObject();
+    }
+
+    private void writeItem(JsonGenerator generator, BookingDtoResponse.ItemData item) throws IOException {
+        if (item == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject(item);
+        generator.writeFieldName(ID);
+        generator.writeNumber(item.getId());
+        generator.writeFieldName(USER_ID);
+        generator.writeNumber(item.getUserId());
+        generator.writeFieldName(NAME);
+        generator.writeString(item.getName());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(item.getDescription());
+        generator.writeFieldName(AVAILABLE);
+        JsonWrites.writeBoolean(generator, item.getAvailable());
+        generator.writeEndObject();
+    }
+
+    private void writeBooker(JsonGenerator generator, BookingDtoResponse.UserData booker) throws IOException {
+        if (booker == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject(booker);
+        generator.writeFieldName(ID);
+        generator.writeNumber(booker.getId());
+        generator.writeFieldName(EMAIL);
+        generator.writeString(booker.getEmail());
+        generator.writeFieldName(NAME);
+        generator.writeString(booker.getName());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.dto.CommentDtoResponse;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+
+import java.io.IOException;
+
+public class ItemDtoResponseSerializer extends StdSerializer<ItemDtoResponse> {
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString AVAILABLE = new SerializedString("available");
+    private static final SerializedString REQUEST_ID = new SerializedString("requestId");
+    private static final SerializedString LATITUDE = new SerializedString("latitude");
+    private static final SerializedString LONGITUDE = new SerializedString("longitude");
+    private static final SerializedString LAST_BOOKING = new SerializedString("lastBooking");
+    private static final SerializedString NEXT_BOOKING = new SerializedString("nextBooking");
+    private static final SerializedString COMMENT_COUNT = new SerializedString("commentCount");
+    private static final SerializedString COMMENTS = new SerializedString("comments");
+    private static final SerializedString BOOKER_ID = new SerializedString("bookerId");
+    private static final SerializedString TEXT = new SerializedString("text");
+    private static final SerializedString AUTHOR_NAME = new SerializedString("authorName");
+    private static final SerializedString CREATED = new SerializedString("created");
+
+    public ItemDtoResponseSerializer() {
+        super(ItemDtoResponse.class);
+    }
+
+    @Override
+    public void serialize(ItemDtoResponse item, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject(item);
+        generator.writeFieldName(ID);
+        JsonWrites.writeNumber(generator, item.getId());
+        generator.writeFieldName(NAME);
+        generator.writeString(item.getName());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(item.getDescription());
+        generator.writeFieldName(AVAILABLE);
+        JsonWrites.writeBoolean(generator, item.getAvailable());
+        generator.writeFieldName(REQUEST_ID);
+        JsonWrites.writeNumber(generator, item.getRequestId());
+        generator.writeFieldName(LATITUDE);
+        JsonWrites.writeNumber(generator, item.getLatitude());
+        generator.writeFieldName(LONGITUDE);
+        JsonWrites.writeNumber(generator, item.getLongitude());
+        generator.writeFieldName(LAST_BOOKING);
+        writeBooking(generator, item.getLastBooking());
+        generator.writeFieldName(NEXT_BOOKING);
+        writeBooking(generator, item.getNextBooking());
+        generator.writeFieldName(COMMENT_COUNT);
+        generator.writeNumber(item.getCommentCount());
+        generator.writeFieldName(COMMENTS);
+        if (item.getComments() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeStartArray();
+            for (CommentDtoResponse comment : item.getComments()) {
+                writeComment(generator, comment);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeBooking(JsonGenerator generator, BookingShortDto booking) throws IOException {
+        if (booking == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject(booking);
+        generator.writeFieldName(ID);
+        JsonWrites.writeNumber(generator, booking.getId());
+        generator.writeFieldName(BOOKER_ID);
+        JsonWrites.writeNumber(generator, booking.getBookerId());
+        generator.writeEndObject();
+    }
+
+    private void writeComment(JsonGenerator generator, CommentDtoResponse comment) throws IOException {
+        if (comment == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject(comment);
+        generator.writeFieldName(ID);
+        JsonWrites.writeNumber(generator, comment.getId());
+        generator.writeFieldName(TEXT);
+        generator.writeString(comment.getText());
+        generator.writeFieldName(AUTHOR_NAME);
+        generator.writeString(comment.getAuthorName());
+        generator.writeFieldName(CREATED);
+        LocalDateTimeWriter.write(generator, comment.getCreated());
+        generator.writeEndObject();
+    }
+}
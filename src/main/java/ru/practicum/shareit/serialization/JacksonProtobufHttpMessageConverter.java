@@ -0,0 +1,41 @@
+package ru.practicum.shareit.serialization;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+// Только ответы: тела запросов по-прежнему принимаются в JSON
+public class JacksonProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private final ProtobufMessages messages;
+
+    public JacksonProtobufHttpMessageConverter(ProtobufMessages messages) {
+        super(PROTOBUF);
+        this.messages = messages;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return messages.supports(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Тело запроса в protobuf не принимается", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        messages.write(value, outputMessage.getBody());
+    }
+}
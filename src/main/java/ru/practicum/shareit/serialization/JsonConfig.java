@@ -0,0 +1,35 @@
+package ru.practicum.shareit.serialization;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.request.dto.RequestDtoResponseWithMD;
+
+// Spring Boot регистрирует все бины Module в общем ObjectMapper
+@Configuration
+public class JsonConfig {
+
+    // остальные DTO сериализуются через сгенерированные лямбдами аксессоры вместо рефлексии
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public Module shareItDtoModule() {
+        return dtoModule();
+    }
+
+    // самые частые в ответах DTO пишем вручную: без интроспекции свойств и с заранее закодированными именами полей
+    public static SimpleModule dtoModule() {
+        SimpleModule module = new SimpleModule("shareit-dto");
+        module.addSerializer(BookingDtoResponse.class, new BookingDtoResponseSerializer());
+        module.addSerializer(ItemDtoResponse.class, new ItemDtoResponseSerializer());
+        module.addSerializer(RequestDtoResponseWithMD.class, new RequestDtoResponseWithMDSerializer());
+        return module;
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Пишет LocalDateTime в том же виде, что и ISO_LOCAL_DATE_TIME из jackson-datatype-jsr310,
+// но без DateTimeFormatter и промежуточной строки на каждый элемент списка
+final class LocalDateTimeWriter {
+    private static final int maxLength = "yyyy-MM-ddTHH:mm:ss.nnnnnnnnn".length();
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[maxLength]);
+
+    private LocalDateTimeWriter() {
+    }
+
+    static void write(JsonGenerator generator, LocalDateTime value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        if (value.getYear() < 0 || value.getYear() > 9999) {
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        digits(buffer, 0, value.getYear(), 4);
+        buffer[4] = '-';
+        digits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        digits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        digits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        digits(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        digits(buffer, 17, value.getSecond(), 2);
+        int length = 19;
+        int nano = value.getNano();
+        if (nano > 0) {
+            // как appendFraction(NANO_OF_SECOND, 0, 9, true): без хвостовых нулей
+            buffer[length++] = '.';
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            digits(buffer, length, nano, digits);
+            length += digits;
+        }
+        generator.writeString(buffer, 0, length);
+    }
+
+    private static void digits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.serialization;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.dto.ItemListDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// Соответствие DTO сообщениям proto/shareit.proto. Пишутся они теми же сериализаторами, что и JSON,
+// только корнем protobuf может быть лишь сообщение, поэтому списки оборачиваются в BookingList и ItemList.
+public class ProtobufMessages {
+    public static final String SCHEMA = "proto/shareit.proto";
+
+    private final Map<Class<?>, Message> messages = new HashMap<>();
+
+    public ProtobufMessages(ObjectMapper protobufMapper, NativeProtobufSchema schema) {
+        add(protobufMapper, schema, BookingListDto.class, "BookingList",
+                list -> Collections.singletonMap("bookings", list.getBookings()));
+        add(protobufMapper, schema, ItemListDto.class, "ItemList",
+                list -> Collections.singletonMap("items", list.getItems()));
+        add(protobufMapper, schema, BookingDtoResponse.class, "Booking", booking -> booking);
+        add(protobufMapper, schema, ItemDtoResponse.class, "Item", item -> item);
+        add(protobufMapper, schema, ItemRequestDtoResponse.class, "ItemRequest", request -> request);
+    }
+
+    public static NativeProtobufSchema loadSchema() throws IOException {
+        try (InputStream schema = new ClassPathResource(SCHEMA).getInputStream()) {
+            return ProtobufSchemaLoader.std.load(schema).getSource();
+        }
+    }
+
+    public boolean supports(Class<?> type) {
+        return messages.containsKey(type);
+    }
+
+    public void write(Object value, OutputStream out) throws IOException {
+        Message message = messages.get(value.getClass());
+        message.writer.writeValue(out, message.root.apply(value));
+    }
+
+    // для клиентов и проверок: DTO ответа обратно не собираются, сообщение читается деревом
+    public JsonNode readTree(Class<?> type, byte[] content) throws IOException {
+        return messages.get(type).reader.readValue(content);
+    }
+
+    private <T> void add(ObjectMapper protobufMapper, NativeProtobufSchema schema, Class<T> type, String name,
+                         Function<T, Object> root) {
+        ProtobufSchema message = schema.forType(name);
+        messages.put(type, new Message(protobufMapper.writer(message),
+                protobufMapper.readerFor(JsonNode.class).with(message), value -> root.apply(type.cast(value))));
+    }
+
+    @RequiredArgsConstructor
+    private static class Message {
+        private final ObjectWriter writer;
+        private final ObjectReader reader;
+        private final Function<Object, Object> root;
+    }
+}
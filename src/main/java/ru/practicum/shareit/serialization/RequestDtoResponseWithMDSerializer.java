@@ -0,0 +1,66 @@
+package ru.practicum.shareit.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ru.practicum.shareit.request.dto.ItemDataForRequestDto;
+import ru.practicum.shareit.request.dto.RequestDtoResponseWithMD;
+
+import java.io.IOException;
+
+public class RequestDtoResponseWithMDSerializer extends StdSerializer<RequestDtoResponseWithMD> {
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString CREATED = new SerializedString("created");
+    private static final SerializedString ITEMS = new SerializedString("items");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString AVAILABLE = new SerializedString("available");
+    private static final SerializedString REQUEST_ID = new SerializedString("requestId");
+
+    public RequestDtoResponseWithMDSerializer() {
+        super(RequestDtoResponseWithMD.class);
+    }
+
+    @Override
+    public void serialize(RequestDtoResponseWithMD request, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject(request);
+        generator.writeFieldName(ID);
+        JsonWrites.writeNumber(generator, request.getId());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(request.getDescription());
+        generator.writeFieldName(CREATED);
+        LocalDateTimeWriter.write(generator, request.getCreated());
+        generator.writeFieldName(ITEMS);
+        if (request.getItems() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeStartArray();
+            for (ItemDataForRequestDto item : request.getItems()) {
+                writeItem(generator, item);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeItem(JsonGenerator generator, ItemDataForRequestDto item) throws IOException {
+        if (item == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject(item);
+        generator.writeFieldName(ID);
+        JsonWrites.writeNumber(generator, item.getId());
+        generator.writeFieldName(NAME);
+        generator.writeString(item.getName());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(item.getDescription());
+        generator.writeFieldName(AVAILABLE);
+        JsonWrites.writeBoolean(generator, item.getAvailable());
+        generator.writeFieldName(REQUEST_ID);
+        JsonWrites.writeNumber(generator, item.getRequestId());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.shard;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+
+// Вещи, их бронирования и комментарии живут на шарде владельца вещи. Идентификаторы на шарде k
+// выдаются как k + 1, k + 1 + N, ..., поэтому шард вычисляется и по владельцу, и по id.
+// Пользователи и запросы есть на всех шардах, пишутся через нулевой шард.
+@Component
+public class ShardRouter {
+    private final int shardCount;
+
+    @Autowired
+    public ShardRouter(@Value("${shareit.sharding.enabled:false}") boolean enabled,
+                       @Value("${shareit.sharding.urls:}") String[] urls) {
+        this.shardCount = enabled ? Math.max(urls.length, 1) : 1;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardForOwner(Long ownerId) {
+        return Math.floorMod(ownerId, shardCount);
+    }
+
+    public int shardForId(Long id) {
+        return Math.floorMod(id - 1, shardCount);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> action) {
+        if (shardCount == 1) {
+            return action.get();
+        }
+        Integer current = ShardContext.current();
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && (current == null ? 0 : current) != shard) {
+            throw new IllegalStateException("Переключение шарда внутри транзакции невозможно");
+        }
+        return ShardContext.call(shard, action);
+    }
+
+    public void onShard(int shard, Runnable action) {
+        onShard(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> List<T> onEachShard(Supplier<T> action) {
+        List<T> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            results.add(onShard(shard, action));
+        }
+        return results;
+    }
+
+    public void forEachShard(Runnable action) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            onShard(shard, action);
+        }
+    }
+
+    // k-way слияние уже упорядоченных ответов шардов
+    public static <T> List<T> merge(List<List<T>> sources, Comparator<? super T> order, long skip, int limit) {
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.head(), b.head()));
+        for (List<T> source : sources) {
+            if (!source.isEmpty()) {
+                heads.add(new Cursor<>(source));
+            }
+        }
+        List<T> merged = new ArrayList<>(limit);
+        long position = 0;
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Cursor<T> cursor = heads.poll();
+            if (position++ >= skip) {
+                merged.add(cursor.head());
+            }
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private static class Cursor<T> {
+        private final List<T> source;
+        private int index;
+
+        Cursor(List<T> source) {
+            this.source = source;
+        }
+
+        T head() {
+            return source.get(index);
+        }
+
+        boolean advance() {
+            return ++index < source.size();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.shard;
+
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.db.DatabasePlatform;
+
+import javax.sql.DataSource;
+import java.nio.charset.Charset;
+import java.util.List;
+
+public class ShardedSchemaInitializer extends SqlDataSourceScriptDatabaseInitializer {
+    private static final String[][] SHARDED_IDS = {
+            {"items", "item_id"},
+            {"bookings", "booking_id"},
+            {"comments", "comment_id"},
+            // event_id — id событий в потоке бронирований, он не должен повторяться между шардами
+            {"outbox_events", "event_id"}
+    };
+
+    private final ShardRouter router;
+    private final DatabasePlatform platform;
+
+    public ShardedSchemaInitializer(DataSource dataSource, SqlInitializationProperties properties, ShardRouter router,
+                                    DatabasePlatform platform) {
+        super(dataSource, properties);
+        this.router = router;
+        this.platform = platform;
+    }
+
+    @Override
+    protected void runScripts(List<Resource> resources, boolean continueOnError, String separator, Charset encoding) {
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            int current = shard;
+            router.onShard(shard, () -> {
+                super.runScripts(resources, continueOnError, separator, encoding);
+                alignIds(current);
+            });
+        }
+    }
+
+    private void alignIds(int shard) {
+        JdbcTemplate jdbc = new JdbcTemplate(getDataSource());
+        int step = router.getShardCount();
+        for (String[] id : SHARDED_IDS) {
+            Long max = jdbc.queryForObject(String.format("SELECT COALESCE(MAX(%s), 0) FROM %s", id[1], id[0]), Long.class);
+            long next = max + 1 + Math.floorMod(shard - max, step);
+            if (platform.isPostgres() && !isIdentity(jdbc, id[0], id[1])) {
+                String sequence = jdbc.queryForObject("SELECT pg_get_serial_sequence(?, ?)", String.class, id[0], id[1]);
+                jdbc.execute(String.format("ALTER SEQUENCE %s INCREMENT BY %d RESTART WITH %d", sequence, step, next));
+            } else {
+                jdbc.execute(String.format("ALTER TABLE %s ALTER COLUMN %s SET INCREMENT BY %d", id[0], id[1], step));
+                jdbc.execute(String.format("ALTER TABLE %s ALTER COLUMN %s RESTART WITH %d", id[0], id[1], next));
+            }
+        }
+    }
+
+    private boolean isIdentity(JdbcTemplate jdbc, String table, String column) {
+        return "YES".equals(jdbc.queryForObject("SELECT is_identity FROM information_schema.columns " +
+                "WHERE table_name = ? AND column_name = ?", String.class, table, column));
+    }
+}
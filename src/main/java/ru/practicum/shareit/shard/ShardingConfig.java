@@ -0,0 +1,52 @@
+package ru.practicum.shareit.shard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import ru.practicum.shareit.db.DatabasePlatform;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Value("${shareit.sharding.urls}") String[] urls,
+                                 @Value("${spring.datasource.username:}") String username,
+                                 @Value("${spring.datasource.password:}") String password,
+                                 @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (openInView) {
+            // сессия Hibernate, открытая на весь запрос, пережила бы переключение шарда вместе с кэшем сущностей
+            throw new IllegalStateException("Для шардирования требуется spring.jpa.open-in-view=false");
+        }
+        Map<Object, Object> shards = new HashMap<>();
+        for (int shard = 0; shard < urls.length; shard++) {
+            shards.put(shard, DataSourceBuilder.create()
+                    .url(urls[shard].trim())
+                    .username(username)
+                    .password(password)
+                    .build());
+        }
+        ShardRoutingDataSource dataSource = new ShardRoutingDataSource();
+        dataSource.setTargetDataSources(shards);
+        dataSource.setDefaultTargetDataSource(shards.get(0));
+        return dataSource;
+    }
+
+    @Bean
+    public SqlDataSourceScriptDatabaseInitializer shardedSchemaInitializer(DataSource dataSource,
+                                                                           SqlInitializationProperties properties,
+                                                                           ShardRouter router,
+                                                                           DatabasePlatform platform) {
+        return new ShardedSchemaInitializer(dataSource, properties, router, platform);
+    }
+}
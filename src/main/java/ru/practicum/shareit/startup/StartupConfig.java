@@ -0,0 +1,36 @@
+package ru.practicum.shareit.startup;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.sql.init.AbstractScriptDatabaseInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Configuration
+public class StartupConfig {
+
+    // при spring.main.lazy-initialization=true бины с фоновыми задачами никто не запрашивает,
+    // и без исключения их @Scheduled и потоки из @PostConstruct просто не запустились бы
+    @Bean
+    public static LazyInitializationExcludeFilter backgroundWorkersExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && hasBackgroundWork(beanType);
+    }
+
+    // ленивый инициализатор схемы никто не запрашивает, и schema.sql не выполнился бы вовсе
+    @Bean
+    public static LazyInitializationExcludeFilter databaseInitializerExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(AbstractScriptDatabaseInitializer.class);
+    }
+
+    private static boolean hasBackgroundWork(Class<?> beanType) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType,
+                method -> found.set(true),
+                method -> method.isAnnotationPresent(Scheduled.class) || method.isAnnotationPresent(PostConstruct.class));
+        return found.get();
+    }
+}
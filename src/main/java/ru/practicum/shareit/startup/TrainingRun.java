@@ -0,0 +1,46 @@
+package ru.practicum.shareit.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+// Тренировочный запуск для AppCDS: поднимаем контекст, прогоняем типичные запросы, чтобы загрузились
+// классы веб-слоя, JPA и сериализации, и завершаемся — JVM пишет архив при выходе
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.startup.training-run", havingValue = "true")
+public class TrainingRun {
+    private static final String userIdHeader = "X-Sharer-User-Id";
+    private static final List<String> paths = List.of("/items/search?text=training", "/users", "/items/1",
+            "/bookings/owner?state=ALL", "/requests/all");
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run(ApplicationReadyEvent event) {
+        WebServerApplicationContext context = (WebServerApplicationContext) event.getApplicationContext();
+        String baseUrl = "http://localhost:" + context.getWebServer().getPort();
+        RestTemplate rest = new RestTemplate();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(userIdHeader, "1");
+        for (String path : paths) {
+            try {
+                rest.exchange(baseUrl + path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+            } catch (RestClientException e) {
+                // 4xx на пустой базе тоже годится: обработчик ошибок тоже должен попасть в архив
+                log.debug("Тренировочный запрос {}: {}", path, e.getMessage());
+            }
+        }
+        log.info("Тренировочный запуск завершён, выходим");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -0,0 +1,192 @@
+package ru.practicum.shareit.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Префиксное дерево слов с весами. В каждом узле заранее посчитаны topK лучших слов поддерева,
+// поэтому подсказка — это спуск по префиксу без обхода поддерева. Запись под блокировкой,
+// чтение без неё: массивы детей и топов только подменяются целиком.
+public class SuggestTrie {
+    private static final Comparator<Node> BY_WEIGHT = Comparator.comparingInt((Node node) -> node.weight).reversed()
+            .thenComparing(node -> node.term);
+    private static final Node[] NONE = new Node[0];
+
+    private final int topK;
+    private final int maxTerms;
+    private volatile Node root = new Node('\0');
+    private int terms;
+
+    public SuggestTrie(int topK, int maxTerms) {
+        this.topK = topK;
+        this.maxTerms = maxTerms;
+    }
+
+    public List<String> complete(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        Node[] top = node.top;
+        List<String> completions = new ArrayList<>(Math.min(limit, top.length));
+        for (int i = 0; i < top.length && completions.size() < limit; i++) {
+            // слово могло быть удалено, пока топ узла ещё не пересчитан
+            String term = top[i].term;
+            if (term != null) {
+                completions.add(term);
+            }
+        }
+        return completions;
+    }
+
+    public synchronized void add(String term, int delta) {
+        if (delta > 0 && terms >= maxTerms && weight(term) == 0) {
+            compact();
+        }
+        terms += apply(root, term, delta);
+    }
+
+    public synchronized void replaceAll(Map<String, Integer> weights) {
+        Node fresh = new Node('\0');
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(weights.entrySet());
+        if (entries.size() > maxTerms) {
+            entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+            entries = entries.subList(0, maxTerms);
+        }
+        entries.forEach(entry -> apply(fresh, entry.getKey(), entry.getValue()));
+        root = fresh;
+        terms = entries.size();
+    }
+
+    public synchronized int size() {
+        return terms;
+    }
+
+    // места нет: оставляем 90% самых весомых слов
+    private void compact() {
+        Map<String, Integer> weights = new HashMap<>();
+        collect(root, weights);
+        int keep = Math.max(maxTerms * 9 / 10, 1);
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(weights.entrySet());
+        entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        Map<String, Integer> kept = new HashMap<>();
+        entries.subList(0, Math.min(keep, entries.size())).forEach(entry -> kept.put(entry.getKey(), entry.getValue()));
+        replaceAll(kept);
+    }
+
+    // +1, если слово появилось в дереве, -1, если исчезло
+    private int apply(Node start, String term, int delta) {
+        Node[] path = new Node[term.length() + 1];
+        path[0] = start;
+        Node node = start;
+        for (int i = 0; i < term.length(); i++) {
+            Node child = node.child(term.charAt(i));
+            if (child == null) {
+                if (delta <= 0) {
+                    return 0;
+                }
+                child = node.addChild(term.charAt(i));
+            }
+            node = child;
+            path[i + 1] = node;
+        }
+        int before = node.weight;
+        node.weight = Math.max(0, before + delta);
+        node.term = node.weight > 0 ? term : null;
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i].refreshTop(topK);
+            if (i > 0 && path[i].weight == 0 && path[i].children.length == 0) {
+                path[i - 1].removeChild(path[i].key);
+            }
+        }
+        return (node.weight > 0 ? 1 : 0) - (before > 0 ? 1 : 0);
+    }
+
+    private int weight(String term) {
+        Node node = root;
+        for (int i = 0; i < term.length() && node != null; i++) {
+            node = node.child(term.charAt(i));
+        }
+        return node == null ? 0 : node.weight;
+    }
+
+    private static void collect(Node node, Map<String, Integer> weights) {
+        if (node.weight > 0) {
+            weights.put(node.term, node.weight);
+        }
+        for (Node child : node.children) {
+            collect(child, weights);
+        }
+    }
+
+    private static class Node {
+        private final char key;
+        private volatile Node[] children = NONE;
+        private volatile Node[] top = NONE;
+        private volatile int weight;
+        private volatile String term;
+
+        Node(char key) {
+            this.key = key;
+        }
+
+        Node child(char c) {
+            Node[] current = children;
+            int low = 0;
+            int high = current.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char middleKey = current[middle].key;
+                if (middleKey < c) {
+                    low = middle + 1;
+                } else if (middleKey > c) {
+                    high = middle - 1;
+                } else {
+                    return current[middle];
+                }
+            }
+            return null;
+        }
+
+        Node addChild(char c) {
+            Node child = new Node(c);
+            Node[] current = children;
+            int position = 0;
+            while (position < current.length && current[position].key < c) {
+                position++;
+            }
+            Node[] updated = new Node[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, position);
+            updated[position] = child;
+            System.arraycopy(current, position, updated, position + 1, current.length - position);
+            children = updated;
+            return child;
+        }
+
+        void removeChild(char c) {
+            Node[] current = children;
+            Node[] updated = Arrays.stream(current).filter(child -> child.key != c).toArray(Node[]::new);
+            children = updated.length == 0 ? NONE : updated;
+        }
+
+        void refreshTop(int topK) {
+            List<Node> candidates = new ArrayList<>();
+            if (weight > 0) {
+                candidates.add(this);
+            }
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(BY_WEIGHT);
+            top = candidates.isEmpty()
+                    ? NONE
+                    : candidates.subList(0, Math.min(topK, candidates.size())).toArray(Node[]::new);
+        }
+    }
+}
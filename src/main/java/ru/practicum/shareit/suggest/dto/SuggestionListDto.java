@@ -0,0 +1,14 @@
+package ru.practicum.shareit.suggest.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Builder
+@Getter
+public class SuggestionListDto {
+    @JsonValue
+    private List<String> suggestions;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.suggest.repository;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.stream.Stream;
+
+public interface SuggestRepository extends Repository<Item, Long> {
+    @Query("SELECT i.name FROM Item AS i WHERE i.available = true")
+    Stream<String> streamAvailableNames();
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.suggest.service;
+
+import ru.practicum.shareit.suggest.dto.SuggestionListDto;
+
+public interface SuggestService {
+    SuggestionListDto suggest(String prefix, int size);
+
+    void onItemChanged(String oldName, boolean wasAvailable, String newName, boolean available);
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.suggest.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.shard.ShardRouter;
+import ru.practicum.shareit.suggest.SuggestTrie;
+import ru.practicum.shareit.suggest.dto.SuggestionListDto;
+import ru.practicum.shareit.suggest.repository.SuggestRepository;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Вес слова — число доступных вещей, в названии которых оно встречается. Изменения своих вещей
+// применяются после коммита, а периодическая перестройка подтягивает изменения с других узлов.
+@Slf4j
+@Service
+public class SuggestServiceImpl implements SuggestService {
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private final SuggestRepository suggestRepository;
+    private final ShardRouter router;
+    private final TransactionTemplate transactions;
+    private final SuggestTrie trie;
+    private final int maxTermLength;
+
+    @Autowired
+    public SuggestServiceImpl(SuggestRepository suggestRepository,
+                              ShardRouter router,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${shareit.suggest.top-k:20}") int topK,
+                              @Value("${shareit.suggest.max-terms:200000}") int maxTerms,
+                              @Value("${shareit.suggest.max-term-length:40}") int maxTermLength) {
+        this.suggestRepository = suggestRepository;
+        this.router = router;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setReadOnly(true);
+        this.trie = new SuggestTrie(topK, maxTerms);
+        this.maxTermLength = maxTermLength;
+        Gauge.builder("shareit.suggest.terms", trie, SuggestTrie::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${shareit.suggest.rebuild-interval:3600000}",
+            fixedDelayString = "${shareit.suggest.rebuild-interval:3600000}")
+    public void rebuild() {
+        Map<String, Integer> weights = new HashMap<>();
+        router.forEachShard(() -> transactions.executeWithoutResult(status -> {
+            try (Stream<String> names = suggestRepository.streamAvailableNames()) {
+                names.forEach(name -> terms(name).forEach(term -> weights.merge(term, 1, Integer::sum)));
+            }
+        }));
+        trie.replaceAll(weights);
+        log.info("Словарь подсказок перестроен: {} слов", trie.size());
+    }
+
+    @Override
+    public SuggestionListDto suggest(String prefix, int size) {
+        String normalized = prefix.toLowerCase(Locale.ROOT);
+        // дополняется последнее слово, введённое раньше остаётся как есть
+        int start = normalized.length();
+        while (start > 0 && Character.isLetterOrDigit(normalized.charAt(start - 1))) {
+            start--;
+        }
+        String head = normalized.substring(0, start);
+        String word = normalized.substring(start);
+        if (word.isEmpty()) {
+            return SuggestionListDto.builder().suggestions(List.of()).build();
+        }
+        return SuggestionListDto.builder()
+                .suggestions(trie.complete(word, size).stream()
+                        .map(term -> head + term)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    @Override
+    public void onItemChanged(String oldName, boolean wasAvailable, String newName, boolean available) {
+        Map<String, Integer> deltas = new HashMap<>();
+        if (wasAvailable) {
+            terms(oldName).forEach(term -> deltas.merge(term, -1, Integer::sum));
+        }
+        if (available) {
+            terms(newName).forEach(term -> deltas.merge(term, 1, Integer::sum));
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deltas.forEach(trie::add);
+                }
+            });
+        } else {
+            deltas.forEach(trie::add);
+        }
+    }
+
+    private Set<String> terms(String name) {
+        if (name == null) {
+            return Set.of();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : SEPARATOR.split(name.toLowerCase(Locale.ROOT))) {
+            if (word.length() >= MIN_TERM_LENGTH && word.length() <= maxTermLength) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+}
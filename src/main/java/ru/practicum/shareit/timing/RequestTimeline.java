@@ -0,0 +1,99 @@
+package ru.practicum.shareit.timing;
+
+import ru.practicum.shareit.timing.enums.TimelinePhase;
+
+import java.util.Locale;
+
+// Накопитель времени по фазам обработки одного запроса. Живёт в ThreadLocal потока запроса;
+// вложенные вызовы одной фазы (например, репозиторий внутри репозитория) считаются один раз.
+public final class RequestTimeline {
+    private static final ThreadLocal<RequestTimeline> CURRENT = new ThreadLocal<>();
+
+    private final long started = System.nanoTime();
+    private final long[] durations = new long[TimelinePhase.values().length];
+    private final int[] counts = new int[TimelinePhase.values().length];
+    private final int[] depths = new int[TimelinePhase.values().length];
+    private final long[] enteredAt = new long[TimelinePhase.values().length];
+    private long total = -1;
+
+    private RequestTimeline() {
+    }
+
+    public static RequestTimeline begin() {
+        RequestTimeline timeline = new RequestTimeline();
+        CURRENT.set(timeline);
+        return timeline;
+    }
+
+    // асинхронный запрос продолжается в другом потоке; без сохранённого накопителя начинаем новый
+    public static RequestTimeline resume(RequestTimeline timeline) {
+        if (timeline == null) {
+            return begin();
+        }
+        CURRENT.set(timeline);
+        return timeline;
+    }
+
+    public static RequestTimeline current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public void enter(TimelinePhase phase) {
+        int index = phase.ordinal();
+        if (depths[index]++ == 0) {
+            enteredAt[index] = System.nanoTime();
+        }
+    }
+
+    public void exit(TimelinePhase phase) {
+        int index = phase.ordinal();
+        if (--depths[index] == 0) {
+            durations[index] += System.nanoTime() - enteredAt[index];
+            counts[index]++;
+        }
+    }
+
+    // фаза, которую нельзя обернуть в enter/exit: длительность известна только после вызова
+    public void record(TimelinePhase phase, long nanos) {
+        durations[phase.ordinal()] += nanos;
+        counts[phase.ordinal()]++;
+    }
+
+    public void finish() {
+        total = System.nanoTime() - started;
+    }
+
+    // формат W3C Server-Timing: controller;dur=3.20, db;dur=1.05;desc="2 calls", total;dur=4.81.
+    // Незавершённая фаза (заголовок считается до первого байта тела, посреди сериализации)
+    // входит со временем на текущий момент
+    public String toServerTiming() {
+        long now = System.nanoTime();
+        StringBuilder header = new StringBuilder();
+        for (TimelinePhase phase : TimelinePhase.values()) {
+            int index = phase.ordinal();
+            long duration = durations[index];
+            int count = counts[index];
+            if (depths[index] > 0) {
+                duration += now - enteredAt[index];
+                count++;
+            }
+            if (count == 0) {
+                continue;
+            }
+            header.append(phase.getMetricName()).append(";dur=").append(millis(duration));
+            if (count > 1) {
+                header.append(";desc=\"").append(count).append(" calls\"");
+            }
+            header.append(", ");
+        }
+        return header.append("total;dur=").append(millis(total < 0 ? now - started : total)).toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
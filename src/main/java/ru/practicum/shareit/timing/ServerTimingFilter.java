@@ -0,0 +1,80 @@
+package ru.practicum.shareit.timing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.timing.enabled", havingValue = "true")
+public class ServerTimingFilter extends OncePerRequestFilter {
+    private static final String timelineAttribute = ServerTimingFilter.class.getName() + ".TIMELINE";
+    private static final String responseAttribute = ServerTimingFilter.class.getName() + ".RESPONSE";
+
+    private final boolean header;
+    private final double logSampleRate;
+
+    @Autowired
+    public ServerTimingFilter(@Value("${shareit.timing.server-timing-header:true}") boolean header,
+                              @Value("${shareit.timing.log-sample-rate:0}") double logSampleRate) {
+        this.header = header;
+        this.logSampleRate = logSampleRate;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // «время ответа» SSE-потока бессмысленно
+        return request.getRequestURI().endsWith("/stream");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // тело асинхронного ответа (GraphQL, DeferredResult) пишется во время async dispatch,
+        // там же ставится заголовок и досчитывается время
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimeline timeline = isAsyncDispatch(request)
+                ? RequestTimeline.resume((RequestTimeline) request.getAttribute(timelineAttribute))
+                : RequestTimeline.begin();
+        try {
+            // обёртку ищем по атрибуту, а не по цепочке обёрток: выше могут лежать обёртки других фильтров
+            ServerTimingResponse timedResponse = header && isAsyncDispatch(request)
+                    ? (ServerTimingResponse) request.getAttribute(responseAttribute)
+                    : null;
+            if (header && timedResponse == null) {
+                timedResponse = new ServerTimingResponse(response, timeline);
+            }
+            chain.doFilter(request, timedResponse == null ? response : timedResponse);
+            if (request.isAsyncStarted()) {
+                // ответ допишет async dispatch, тогда и досчитаем время
+                request.setAttribute(timelineAttribute, timeline);
+                request.setAttribute(responseAttribute, timedResponse);
+                return;
+            }
+            timeline.finish();
+            if (timedResponse != null) {
+                timedResponse.writeHeader();
+            }
+            if (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+                log.info("{} {} -> {}: {}", request.getMethod(), request.getRequestURI(), response.getStatus(),
+                        timeline.toServerTiming());
+            }
+        } finally {
+            RequestTimeline.clear();
+        }
+    }
+}
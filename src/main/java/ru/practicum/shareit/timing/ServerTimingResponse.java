@@ -0,0 +1,144 @@
+package ru.practicum.shareit.timing;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+// Тело идёт прямо в поток контейнера, без своего буфера. Заголовок Server-Timing ставится перед первым
+// байтом тела (или перед sendError/flushBuffer): после него ответ может быть отправлен в любой момент.
+// Если тела нет, заголовок ставит фильтр после обработки запроса.
+class ServerTimingResponse extends HttpServletResponseWrapper {
+    static final String HEADER = "Server-Timing";
+
+    private final RequestTimeline timeline;
+    private boolean headerWritten;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    ServerTimingResponse(HttpServletResponse response, RequestTimeline timeline) {
+        super(response);
+        this.timeline = timeline;
+    }
+
+    void writeHeader() {
+        if (headerWritten) {
+            return;
+        }
+        headerWritten = true;
+        if (!isCommitted()) {
+            setHeader(HEADER, timeline.toServerTiming());
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TimedOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new TimedWriter(super.getWriter()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        writeHeader();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        writeHeader();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        writeHeader();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        writeHeader();
+        super.sendRedirect(location);
+    }
+
+    private class TimedOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        TimedOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            writeHeader();
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            writeHeader();
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writeHeader();
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writeHeader();
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+
+    private class TimedWriter extends Writer {
+        private final PrintWriter delegate;
+
+        TimedWriter(PrintWriter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(char[] buffer, int off, int len) {
+            writeHeader();
+            delegate.write(buffer, off, len);
+        }
+
+        @Override
+        public void flush() {
+            writeHeader();
+            delegate.flush();
+        }
+
+        @Override
+        public void close() {
+            writeHeader();
+            delegate.close();
+        }
+    }
+}
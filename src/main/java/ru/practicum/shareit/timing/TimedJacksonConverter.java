@@ -0,0 +1,33 @@
+package ru.practicum.shareit.timing;
+
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import ru.practicum.shareit.timing.enums.TimelinePhase;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+// write() у конвертера final и не проксируется, поэтому время сериализации меряем в наследнике
+public class TimedJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJacksonConverter(MappingJackson2HttpMessageConverter converter) {
+        super(converter.getObjectMapper());
+        setSupportedMediaTypes(converter.getSupportedMediaTypes());
+        setDefaultCharset(converter.getDefaultCharset());
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        RequestTimeline timeline = RequestTimeline.current();
+        if (timeline == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        timeline.enter(TimelinePhase.SERIALIZATION);
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            timeline.exit(TimelinePhase.SERIALIZATION);
+        }
+    }
+}
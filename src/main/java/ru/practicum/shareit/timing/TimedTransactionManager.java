@@ -0,0 +1,52 @@
+package ru.practicum.shareit.timing;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.ResourceTransactionManager;
+import ru.practicum.shareit.timing.enums.TimelinePhase;
+
+// Обёртка над менеджером транзакций из автоконфигурации: getTransaction и commit у него final, аспект к ним
+// не применить. Считаются только новые транзакции, присоединение к внешней в tx-begin не попадает.
+public class TimedTransactionManager implements ResourceTransactionManager {
+    private final ResourceTransactionManager delegate;
+
+    public TimedTransactionManager(ResourceTransactionManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public TransactionStatus getTransaction(TransactionDefinition definition) throws TransactionException {
+        long started = System.nanoTime();
+        TransactionStatus status = delegate.getTransaction(definition);
+        record(TimelinePhase.TX_BEGIN, status, started);
+        return status;
+    }
+
+    @Override
+    public void commit(TransactionStatus status) throws TransactionException {
+        long started = System.nanoTime();
+        try {
+            delegate.commit(status);
+        } finally {
+            record(TimelinePhase.TX_COMMIT, status, started);
+        }
+    }
+
+    @Override
+    public void rollback(TransactionStatus status) throws TransactionException {
+        delegate.rollback(status);
+    }
+
+    @Override
+    public Object getResourceFactory() {
+        return delegate.getResourceFactory();
+    }
+
+    private void record(TimelinePhase phase, TransactionStatus status, long started) {
+        RequestTimeline timeline = RequestTimeline.current();
+        if (timeline != null && status.isNewTransaction()) {
+            timeline.record(phase, System.nanoTime() - started);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.timing;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import ru.practicum.shareit.timing.enums.TimelinePhase;
+
+public class TimedValidator implements SmartValidator {
+    private final ObjectProvider<SmartValidator> delegate;
+
+    public TimedValidator(ObjectProvider<SmartValidator> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.getObject().supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        validate(target, errors, new Object[0]);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        RequestTimeline timeline = RequestTimeline.current();
+        if (timeline == null) {
+            delegate.getObject().validate(target, errors, validationHints);
+            return;
+        }
+        timeline.enter(TimelinePhase.VALIDATION);
+        try {
+            delegate.getObject().validate(target, errors, validationHints);
+        } finally {
+            timeline.exit(TimelinePhase.VALIDATION);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.timing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.timing.enums.TimelinePhase;
+
+// оборачивает каждый вызов контроллера, репозитория и маппера, поэтому включается отдельно от остальных замеров
+@Aspect
+@Component
+@ConditionalOnProperty(name = {"shareit.timing.enabled", "shareit.timing.aspects.enabled"}, havingValue = "true")
+public class TimelineAspect {
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController *)")
+    public Object controller(ProceedingJoinPoint point) throws Throwable {
+        return measure(TimelinePhase.CONTROLLER, point);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object repository(ProceedingJoinPoint point) throws Throwable {
+        return measure(TimelinePhase.DB, point);
+    }
+
+    @Around("within(ru.practicum.shareit..mapper..*)")
+    public Object mapping(ProceedingJoinPoint point) throws Throwable {
+        return measure(TimelinePhase.MAPPING, point);
+    }
+
+    private Object measure(TimelinePhase phase, ProceedingJoinPoint point) throws Throwable {
+        RequestTimeline timeline = RequestTimeline.current();
+        if (timeline == null) {
+            return point.proceed();
+        }
+        timeline.enter(phase);
+        try {
+            return point.proceed();
+        } finally {
+            timeline.exit(phase);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.timing;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.transaction.support.ResourceTransactionManager;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// Замеры по фазам включаются явно (shareit.timing.enabled=true) и бинов автоконфигурации не заменяют:
+// менеджер транзакций оборачивается, а конвертер Jackson подменяется только в списке конвертеров MVC
+@Configuration
+@ConditionalOnProperty(name = "shareit.timing.enabled", havingValue = "true")
+public class TimingConfig implements WebMvcConfigurer {
+    private final ObjectProvider<SmartValidator> defaultValidator;
+
+    @Autowired
+    public TimingConfig(@Qualifier("defaultValidator") ObjectProvider<SmartValidator> defaultValidator) {
+        this.defaultValidator = defaultValidator;
+    }
+
+    @Bean
+    public static BeanPostProcessor timedTransactionManagerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof ResourceTransactionManager
+                        ? new TimedTransactionManager((ResourceTransactionManager) bean)
+                        : bean;
+            }
+        };
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(converter -> converter.getClass() == MappingJackson2HttpMessageConverter.class
+                ? new TimedJacksonConverter((MappingJackson2HttpMessageConverter) converter)
+                : converter);
+    }
+
+    // валидатор тел запросов для @Valid; проверки параметров через @Validated в этот замер не входят
+    @Override
+    public Validator getValidator() {
+        return new TimedValidator(defaultValidator);
+    }
+}
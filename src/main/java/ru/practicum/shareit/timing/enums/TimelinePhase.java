@@ -0,0 +1,21 @@
+package ru.practicum.shareit.timing.enums;
+
+public enum TimelinePhase {
+    CONTROLLER("controller"),
+    VALIDATION("validation"),
+    TX_BEGIN("tx-begin"),
+    TX_COMMIT("tx-commit"),
+    DB("db"),
+    MAPPING("mapping"),
+    SERIALIZATION("serialization");
+
+    private final String metricName;
+
+    TimelinePhase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
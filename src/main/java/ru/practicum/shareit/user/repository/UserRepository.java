@@ -1,7 +1,14 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserRow;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Query("SELECT u.id AS id, u.name AS name, u.email AS email FROM User AS u WHERE u.id IN ?1")
+    List<UserRow> findRowsByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.error.handler.exception.ObjectNotFoundException;
+import ru.practicum.shareit.shard.ShardRouter;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserDtoResponse;
+import ru.practicum.shareit.user.dto.UserDtoUpdate;
+import ru.practicum.shareit.user.dto.UserListDto;
+
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(name = "shareit.sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ShardedUserService implements UserService {
+    private static final int PRIMARY_SHARD = 0;
+
+    private final UserServiceImpl delegate;
+    private final ShardRouter router;
+    private final JdbcTemplate jdbc;
+
+    @Override
+    public UserDtoResponse createUser(UserDto userDto) {
+        UserDtoResponse created = router.onShard(PRIMARY_SHARD, () -> delegate.createUser(userDto));
+        for (int shard = PRIMARY_SHARD + 1; shard < router.getShardCount(); shard++) {
+            try {
+                router.onShard(shard, () -> jdbc.update("INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)",
+                        created.getId(), created.getName(), created.getEmail()));
+            } catch (RuntimeException e) {
+                undoCreate(shard, created.getId(), e);
+                throw e;
+            }
+        }
+        return created;
+    }
+
+    @Override
+    public UserDtoResponse getUserById(Long userId) {
+        return router.onShard(PRIMARY_SHARD, () -> delegate.getUserById(userId));
+    }
+
+    @Override
+    public UserListDto getUsers() {
+        return router.onShard(PRIMARY_SHARD, delegate::getUsers);
+    }
+
+    @Override
+    public UserDtoResponse updateUser(UserDtoUpdate userDto, Long userId) {
+        UserDtoUpdate previous = router.onShard(PRIMARY_SHARD, () -> findRow(userId));
+        UserDtoResponse updated = router.onShard(PRIMARY_SHARD, () -> delegate.updateUser(userDto, userId));
+        for (int shard = PRIMARY_SHARD + 1; shard < router.getShardCount(); shard++) {
+            try {
+                router.onShard(shard, () -> delegate.updateUser(userDto, userId));
+            } catch (RuntimeException e) {
+                undoUpdate(shard, userId, previous, e);
+                throw e;
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public void deleteUser(Long userId) {
+        UserDtoUpdate previous = router.onShard(PRIMARY_SHARD, () -> findRow(userId));
+        for (int shard = router.getShardCount() - 1; shard >= PRIMARY_SHARD; shard--) {
+            try {
+                router.onShard(shard, () -> delegate.deleteUser(userId));
+            } catch (RuntimeException e) {
+                undoDelete(shard, userId, previous, e);
+                throw e;
+            }
+        }
+    }
+
+    // шарды не в общей транзакции: убираем уже записанные копии, чтобы не осталось пользователя,
+    // которого видно только на части шардов, а повтор запроса не упёрся в занятый email
+    private void undoCreate(int failedShard, Long userId, RuntimeException cause) {
+        for (int shard = failedShard - 1; shard >= PRIMARY_SHARD; shard--) {
+            int target = shard;
+            try {
+                router.onShard(target, () -> jdbc.update("DELETE FROM users WHERE user_id = ?", userId));
+            } catch (RuntimeException e) {
+                cause.addSuppressed(e);
+                log.error("Не удалось удалить пользователя с id={} с шарда {} после сбоя записи", userId, target, e);
+            }
+        }
+    }
+
+    private void undoUpdate(int failedShard, Long userId, UserDtoUpdate previous, RuntimeException cause) {
+        for (int shard = failedShard - 1; shard >= PRIMARY_SHARD; shard--) {
+            int target = shard;
+            try {
+                router.onShard(target, () -> delegate.updateUser(previous, userId));
+            } catch (RuntimeException e) {
+                cause.addSuppressed(e);
+                log.error("Не удалось вернуть прежние данные пользователя с id={} на шарде {} после сбоя записи",
+                        userId, target, e);
+            }
+        }
+    }
+
+    // удаление идёт от последнего шарда к нулевому, поэтому возвращать копию нужно на шарды после упавшего
+    private void undoDelete(int failedShard, Long userId, UserDtoUpdate previous, RuntimeException cause) {
+        for (int shard = failedShard + 1; shard < router.getShardCount(); shard++) {
+            int target = shard;
+            try {
+                router.onShard(target, () -> jdbc.update("INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)",
+                        userId, previous.getName(), previous.getEmail()));
+            } catch (RuntimeException e) {
+                cause.addSuppressed(e);
+                log.error("Не удалось вернуть пользователя с id={} на шард {} после сбоя удаления", userId, target, e);
+            }
+        }
+    }
+
+    // строка с нулевого шарда мимо кэша users: по ней откатываются остальные шарды
+    private UserDtoUpdate findRow(Long userId) {
+        return jdbc.query("SELECT name, email FROM users WHERE user_id = ?",
+                (rs, rowNum) -> UserDtoUpdate.builder().name(rs.getString("name")).email(rs.getString("email")).build(),
+                userId).stream().findFirst().orElseThrow(
+                        () -> new ObjectNotFoundException("Пользователя с id=%s нет", userId));
+    }
+}
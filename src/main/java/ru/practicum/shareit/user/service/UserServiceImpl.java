@@ -2,9 +2,12 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cache.enums.CacheRegion;
+import ru.practicum.shareit.cache.service.CacheInvalidationService;
 import ru.practicum.shareit.error.handler.exception.ObjectNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoResponse;
@@ -22,6 +25,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepository users;
 
     private final UserMapper mapper;
+    private final CacheInvalidationService cacheInvalidation;
 
     @Override
     public UserDtoResponse createUser(UserDto user) {
@@ -29,9 +33,10 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Cacheable("users")
     public UserDtoResponse getUserById(Long id) {
         return mapper.mapToUserDtoResponse(users.findById(id).orElseThrow(
-                () -> new ObjectNotFoundException(String.format("Пользователя с id=%s нет", id)))
+                () -> new ObjectNotFoundException("Пользователя с id=%s нет", id))
         );
     }
 
@@ -46,15 +51,18 @@ public class UserServiceImpl implements UserService {
     @Transactional(propagation = Propagation.SUPPORTS)
     public UserDtoResponse updateUser(UserDtoUpdate user, Long userId) {
         User updatingUser = users.findById(userId).orElseThrow(
-                () -> new ObjectNotFoundException(String.format("Пользователя с id=%s нет", userId)));
-        return mapper.mapToUserDtoResponse(users.save(mapper.mapToUserFromUserDtoUpdate(user, updatingUser)));
+                () -> new ObjectNotFoundException("Пользователя с id=%s нет", userId));
+        UserDtoResponse updatedUser = mapper.mapToUserDtoResponse(users.save(mapper.mapToUserFromUserDtoUpdate(user, updatingUser)));
+        cacheInvalidation.invalidate(CacheRegion.USERS, userId);
+        return updatedUser;
     }
 
     @Override
     public void deleteUser(Long id) {
         if (!users.existsById(id)) {
-            throw new ObjectNotFoundException(String.format("Пользователя с id=%s нет", id));
+            throw new ObjectNotFoundException("Пользователя с id=%s нет", id);
         }
         users.deleteById(id);
+        cacheInvalidation.invalidate(CacheRegion.USERS, id);
     }
 }
@@ -0,0 +1,185 @@
+CREATE TABLE IF NOT EXISTS users
+(
+    user_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+    name    VARCHAR(100)                                        NOT NULL,
+    email   VARCHAR(100)                                        NOT NULL,
+    CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS requests
+(
+    request_id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description  VARCHAR(500)                NOT NULL,
+    requester_id BIGINT REFERENCES users (user_id) ON DELETE RESTRICT,
+    created      TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC, request_id DESC);
+
+CREATE TABLE IF NOT EXISTS items
+(
+    item_id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name         VARCHAR(255) NOT NULL,
+    description  VARCHAR(500) NOT NULL,
+    is_available boolean default true,
+    owner_id     BIGINT REFERENCES users (user_id) ON DELETE RESTRICT,
+    request_id   BIGINT REFERENCES requests (request_id) ON DELETE RESTRICT,
+    comment_count   INT DEFAULT 0 NOT NULL,
+    latest_comments TEXT,
+    latitude        DOUBLE PRECISION,
+    longitude       DOUBLE PRECISION,
+    geohash         VARCHAR(12) COLLATE "C"
+);
+
+-- базы, созданные до этих колонок, CREATE TABLE IF NOT EXISTS не трогает
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comment_count INT DEFAULT 0 NOT NULL;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS latest_comments TEXT;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS geohash VARCHAR(12) COLLATE "C";
+
+-- geohash в COLLATE "C", чтобы LIKE 'префикс%' читал диапазон обычного B-tree индекса
+CREATE INDEX IF NOT EXISTS idx_items_geohash ON items (geohash);
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id);
+
+-- bookings секционирована по end_date помесячно, секции создаёт и архивирует BookingPartitionMaintenance
+-- обычную таблицу bookings из прежней схемы откладываем в сторону, строки переносятся ниже,
+-- когда секционированная таблица уже создана
+DO $$
+BEGIN
+    IF to_regclass('bookings') IS NOT NULL
+        AND NOT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'bookings'::regclass) THEN
+        ALTER TABLE bookings RENAME TO bookings_legacy;
+        ALTER TABLE bookings_legacy RENAME CONSTRAINT bookings_pkey TO bookings_legacy_pkey;
+        -- identity-последовательность зовётся так же, как новая bookings_booking_id_seq
+        ALTER TABLE bookings_legacy ALTER COLUMN booking_id DROP IDENTITY IF EXISTS;
+        DROP INDEX IF EXISTS idx_bookings_booker_start;
+        DROP INDEX IF EXISTS idx_bookings_item_start;
+        DROP INDEX IF EXISTS idx_bookings_start_date;
+        DROP INDEX IF EXISTS idx_bookings_end_date;
+    END IF;
+END $$;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_booking_id_seq;
+
+CREATE TABLE IF NOT EXISTS bookings
+(
+    booking_id BIGINT DEFAULT nextval('bookings_booking_id_seq') NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE                        NOT NULL,
+    end_date   TIMESTAMP WITHOUT TIME ZONE                        NOT NULL,
+    item_id    BIGINT REFERENCES items (item_id) ON DELETE RESTRICT,
+    booker_id  BIGINT REFERENCES users (user_id) ON DELETE RESTRICT,
+    status     VARCHAR(20) CHECK (status IN ('WAITING', 'APPROVED', 'REJECTED', 'CANCELED')),
+    PRIMARY KEY (booking_id, end_date)
+) PARTITION BY RANGE (end_date);
+
+ALTER SEQUENCE bookings_booking_id_seq OWNED BY bookings.booking_id;
+
+CREATE TABLE IF NOT EXISTS bookings_default PARTITION OF bookings DEFAULT;
+
+CREATE SCHEMA IF NOT EXISTS bookings_archive;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_start_date ON bookings (start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_end_date ON bookings (end_date);
+
+DO $$
+DECLARE
+    partition_month DATE;
+BEGIN
+    IF to_regclass('bookings_legacy') IS NOT NULL THEN
+        -- секции под все месяцы истории создаются до переноса, иначе старые бронирования остались бы в bookings_default
+        FOR partition_month IN SELECT DISTINCT date_trunc('month', end_date)::date FROM bookings_legacy LOOP
+            IF to_regclass('bookings_p' || to_char(partition_month, 'YYYYMM')) IS NULL THEN
+                EXECUTE format('CREATE TABLE %I PARTITION OF bookings FOR VALUES FROM (%L) TO (%L)',
+                        'bookings_p' || to_char(partition_month, 'YYYYMM'),
+                        partition_month::timestamp, (partition_month + interval '1 month')::timestamp);
+            END IF;
+        END LOOP;
+        INSERT INTO bookings (booking_id, start_date, end_date, item_id, booker_id, status)
+        SELECT booking_id, start_date, end_date, item_id, booker_id, status::text FROM bookings_legacy;
+        PERFORM setval('bookings_booking_id_seq', COALESCE((SELECT max(booking_id) FROM bookings), 0) + 1, false);
+        DROP TABLE bookings_legacy;
+    END IF;
+END $$;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (lower(description) gin_trgm_ops);
+
+CREATE TABLE IF NOT EXISTS comments
+(
+    comment_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    text       VARCHAR(500)                NOT NULL,
+    item_id    BIGINT REFERENCES items (item_id) ON DELETE RESTRICT,
+    author_id  BIGINT REFERENCES users (user_id) ON DELETE RESTRICT,
+    created    TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events
+(
+    event_id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_type VARCHAR(50)                 NOT NULL,
+    aggregate_id   BIGINT                      NOT NULL,
+    event_type     VARCHAR(50)                 NOT NULL,
+    payload        TEXT                        NOT NULL,
+    created        TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    published_at   TIMESTAMP WITHOUT TIME ZONE,
+    attempts       INT DEFAULT 0               NOT NULL,
+    next_attempt_at TIMESTAMP WITHOUT TIME ZONE,
+    dead_at        TIMESTAMP WITHOUT TIME ZONE
+);
+
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS attempts INT DEFAULT 0 NOT NULL;
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP WITHOUT TIME ZONE;
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS dead_at TIMESTAMP WITHOUT TIME ZONE;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending ON outbox_events (published_at, event_id);
+CREATE INDEX IF NOT EXISTS idx_outbox_events_aggregate ON outbox_events (aggregate_type, aggregate_id, event_id);
+
+CREATE TABLE IF NOT EXISTS booking_counters
+(
+    user_id        BIGINT      NOT NULL,
+    user_role      VARCHAR(10) NOT NULL,
+    total_count    BIGINT      NOT NULL,
+    waiting_count  BIGINT      NOT NULL,
+    rejected_count BIGINT      NOT NULL,
+    future_count   BIGINT      NOT NULL,
+    current_count  BIGINT      NOT NULL,
+    past_count     BIGINT      NOT NULL,
+    PRIMARY KEY (user_id, user_role)
+);
+
+CREATE TABLE IF NOT EXISTS booking_counter_clock
+(
+    clock_id        INT PRIMARY KEY,
+    processed_until TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+-- счётчики считаются лениво на время часов, поэтому часы начинают с момента создания схемы
+-- и первый тик не перебирает всю таблицу bookings
+INSERT INTO booking_counter_clock (clock_id, processed_until) VALUES (1, LOCALTIMESTAMP)
+ON CONFLICT DO NOTHING;
+
+CREATE TABLE IF NOT EXISTS idempotency_keys
+(
+    idempotency_key VARCHAR(512)                NOT NULL PRIMARY KEY,
+    request_hash    VARCHAR(32)                 NOT NULL,
+    status_code     INT,
+    content_type    VARCHAR(255),
+    response_body   BYTEA,
+    created         TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created ON idempotency_keys (created);
+
+-- раньше тело ответа хранилось текстом и портило бинарные ответы
+DO $$
+BEGIN
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_name = 'idempotency_keys' AND column_name = 'response_body') = 'text' THEN
+        ALTER TABLE idempotency_keys ALTER COLUMN response_body TYPE BYTEA USING convert_to(response_body, 'UTF8');
+    END IF;
+END $$;
@@ -3,6 +3,10 @@ DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
+DROP TABLE IF EXISTS outbox_events CASCADE;
+DROP TABLE IF EXISTS booking_counters CASCADE;
+DROP TABLE IF EXISTS booking_counter_clock CASCADE;
+DROP TABLE IF EXISTS idempotency_keys CASCADE;
 
 CREATE TABLE IF NOT EXISTS users
 (
@@ -20,6 +24,8 @@ CREATE TABLE IF NOT EXISTS requests
     created      TIMESTAMP WITHOUT TIME ZONE NOT NULL
 );
 
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC, request_id DESC);
+
 CREATE TABLE IF NOT EXISTS items
 (
     item_id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -27,9 +33,17 @@ CREATE TABLE IF NOT EXISTS items
     description  VARCHAR(500) NOT NULL,
     is_available boolean default true,
     owner_id     BIGINT REFERENCES users (user_id) ON DELETE RESTRICT,
-    request_id   BIGINT REFERENCES requests (request_id) ON DELETE RESTRICT
+    request_id   BIGINT REFERENCES requests (request_id) ON DELETE RESTRICT,
+    comment_count   INT DEFAULT 0 NOT NULL,
+    latest_comments TEXT,
+    latitude        DOUBLE PRECISION,
+    longitude       DOUBLE PRECISION,
+    geohash         VARCHAR(12)
 );
 
+CREATE INDEX IF NOT EXISTS idx_items_geohash ON items (geohash);
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id);
+
 CREATE TABLE IF NOT EXISTS bookings
 (
     booking_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -52,3 +66,57 @@ CREATE TABLE IF NOT EXISTS comments
     created    TIMESTAMP WITHOUT TIME ZONE NOT NULL
 );
 
+CREATE TABLE IF NOT EXISTS outbox_events
+(
+    event_id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_type VARCHAR(50)                 NOT NULL,
+    aggregate_id   BIGINT                      NOT NULL,
+    event_type     VARCHAR(50)                 NOT NULL,
+    payload        TEXT                        NOT NULL,
+    created        TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    published_at   TIMESTAMP WITHOUT TIME ZONE,
+    attempts       INT DEFAULT 0               NOT NULL,
+    next_attempt_at TIMESTAMP WITHOUT TIME ZONE,
+    dead_at        TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending ON outbox_events (published_at, event_id);
+CREATE INDEX IF NOT EXISTS idx_outbox_events_aggregate ON outbox_events (aggregate_type, aggregate_id, event_id);
+
+CREATE TABLE IF NOT EXISTS booking_counters
+(
+    user_id        BIGINT      NOT NULL,
+    user_role      VARCHAR(10) NOT NULL,
+    total_count    BIGINT      NOT NULL,
+    waiting_count  BIGINT      NOT NULL,
+    rejected_count BIGINT      NOT NULL,
+    future_count   BIGINT      NOT NULL,
+    current_count  BIGINT      NOT NULL,
+    past_count     BIGINT      NOT NULL,
+    PRIMARY KEY (user_id, user_role)
+);
+
+CREATE TABLE IF NOT EXISTS booking_counter_clock
+(
+    clock_id        INT PRIMARY KEY,
+    processed_until TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+-- счётчики считаются лениво на время часов, поэтому часы начинают с момента создания схемы
+-- и первый тик не перебирает всю таблицу bookings
+INSERT INTO booking_counter_clock (clock_id, processed_until) VALUES (1, LOCALTIMESTAMP);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_start_date ON bookings (start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_end_date ON bookings (end_date);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys
+(
+    idempotency_key VARCHAR(512)                NOT NULL PRIMARY KEY,
+    request_hash    VARCHAR(32)                 NOT NULL,
+    status_code     INT,
+    content_type    VARCHAR(255),
+    response_body   BYTEA,
+    created         TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created ON idempotency_keys (created);
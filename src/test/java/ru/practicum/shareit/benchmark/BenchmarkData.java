@@ -0,0 +1,56 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.item.dto.CommentDtoResponse;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// страница из 20 бронирований и 20 вещей, как в ответах /bookings/owner и /items
+final class BenchmarkData {
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 3, 14, 15, 9, 26, 535_000_000);
+    private static final int PAGE = 20;
+
+    private BenchmarkData() {
+    }
+
+    static List<BookingDtoResponse> bookings() {
+        List<BookingDtoResponse> bookings = new ArrayList<>();
+        for (long i = 1; i <= PAGE; i++) {
+            bookings.add(BookingDtoResponse.builder()
+                    .id(i)
+                    .start(NOW.plusDays(i))
+                    .end(NOW.plusDays(i + 1))
+                    .item(new BookingDtoResponse.ItemData(i, 1, "Дрель " + i, "Ударная дрель с набором свёрл", true))
+                    .booker(new BookingDtoResponse.UserData(2, "booker@example.com", "Booker"))
+                    .status(Status.APPROVED)
+                    .build());
+        }
+        return bookings;
+    }
+
+    static List<ItemDtoResponse> items() {
+        List<ItemDtoResponse> items = new ArrayList<>();
+        for (long i = 1; i <= PAGE; i++) {
+            Set<CommentDtoResponse> comments = new LinkedHashSet<>();
+            comments.add(CommentDtoResponse.builder().id(i).text("Отличная дрель").authorName("Booker").created(NOW).build());
+            items.add(ItemDtoResponse.builder()
+                    .id(i)
+                    .name("Дрель " + i)
+                    .description("Ударная дрель с набором свёрл")
+                    .available(true)
+                    .lastBooking(BookingShortDto.builder().id(i).bookerId(2L).build())
+                    .nextBooking(BookingShortDto.builder().id(i + 1).bookerId(3L).build())
+                    .commentCount(1)
+                    .comments(comments)
+                    .build());
+        }
+        return items;
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.item.dto.ItemListDto;
+import ru.practicum.shareit.serialization.JsonConfig;
+import ru.practicum.shareit.serialization.ProtobufMessages;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// mvn -Pjmh test-compile exec:exec@jmh -Djmh.include=BinaryFormatBenchmark
+// Размеры ответов печатаются при подготовке каждого формата. Декодирование — в дерево JsonNode:
+// DTO ответов не собираются Jackson обратно, а клиенту на другой стороне нужны те же поля.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFormatBenchmark {
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String format;
+    private Codec codec;
+    private BookingListDto bookings;
+    private ItemListDto items;
+    private byte[] encodedBookings;
+    private byte[] encodedItems;
+
+    @Setup
+    public void setUp() throws IOException {
+        codec = codec(format);
+        bookings = BookingListDto.builder().bookings(BenchmarkData.bookings()).build();
+        items = ItemListDto.builder().items(BenchmarkData.items()).build();
+        encodedBookings = codec.encode(bookings);
+        encodedItems = codec.encode(items);
+        System.out.printf("%s: bookings %d байт, items %d байт%n", format, encodedBookings.length,
+                encodedItems.length);
+    }
+
+    @Benchmark
+    public byte[] encodeBookings() throws IOException {
+        return codec.encode(bookings);
+    }
+
+    @Benchmark
+    public JsonNode decodeBookings() throws IOException {
+        return codec.decode(BookingListDto.class, encodedBookings);
+    }
+
+    @Benchmark
+    public byte[] encodeItems() throws IOException {
+        return codec.encode(items);
+    }
+
+    @Benchmark
+    public JsonNode decodeItems() throws IOException {
+        return codec.decode(ItemListDto.class, encodedItems);
+    }
+
+    private static Codec codec(String format) throws IOException {
+        switch (format) {
+            case "json":
+                return jackson(new JsonFactory());
+            case "cbor":
+                return jackson(new CBORFactory());
+            case "smile":
+                return jackson(new SmileFactory());
+            case "protobuf":
+                ProtobufMessages messages = new ProtobufMessages(mapper(new ProtobufFactory()),
+                        ProtobufMessages.loadSchema());
+                return new Codec() {
+                    @Override
+                    public byte[] encode(Object value) throws IOException {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        messages.write(value, out);
+                        return out.toByteArray();
+                    }
+
+                    @Override
+                    public JsonNode decode(Class<?> type, byte[] content) throws IOException {
+                        return messages.readTree(type, content);
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Неизвестный формат " + format);
+        }
+    }
+
+    private static Codec jackson(JsonFactory factory) {
+        ObjectMapper mapper = mapper(factory);
+        return new Codec() {
+            @Override
+            public byte[] encode(Object value) throws IOException {
+                return mapper.writeValueAsBytes(value);
+            }
+
+            @Override
+            public JsonNode decode(Class<?> type, byte[] content) throws IOException {
+                return mapper.readTree(content);
+            }
+        };
+    }
+
+    // те же модули, что у ObjectMapper приложения
+    private static ObjectMapper mapper(JsonFactory factory) {
+        return new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .registerModule(new BlackbirdModule())
+                .registerModule(JsonConfig.dtoModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private interface Codec {
+        byte[] encode(Object value) throws IOException;
+
+        JsonNode decode(Class<?> type, byte[] content) throws IOException;
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.serialization.JsonConfig;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// mvn -Pjmh test-compile exec:exec@jmh  (по умолчанию с -prof gc: смотрим gc.alloc.rate.norm)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    private final OutputStream sink = OutputStream.nullOutputStream();
+    private ObjectMapper defaultMapper;
+    private ObjectMapper tunedMapper;
+    private List<BookingDtoResponse> bookings;
+    private List<ItemDtoResponse> items;
+
+    @Setup
+    public void setUp() {
+        // то же, что делает Spring Boot по умолчанию: java.time и даты строками
+        defaultMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        tunedMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .addModule(new BlackbirdModule())
+                .addModule(JsonConfig.dtoModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        bookings = BenchmarkData.bookings();
+        items = BenchmarkData.items();
+    }
+
+    @Benchmark
+    public void bookingsDefault() throws IOException {
+        defaultMapper.writeValue(sink, bookings);
+    }
+
+    @Benchmark
+    public void bookingsTuned() throws IOException {
+        tunedMapper.writeValue(sink, bookings);
+    }
+
+    @Benchmark
+    public void itemsDefault() throws IOException {
+        defaultMapper.writeValue(sink, items);
+    }
+
+    @Benchmark
+    public void itemsTuned() throws IOException {
+        tunedMapper.writeValue(sink, items);
+    }
+}
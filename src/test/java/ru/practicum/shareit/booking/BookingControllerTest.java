@@ -18,6 +18,7 @@ import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.error.handler.exception.StateException;
+import ru.practicum.shareit.fields.FieldSet;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.user.dto.UserShortDto;
 
@@ -272,7 +273,7 @@ public class BookingControllerTest {
                 .bookings(List.of(bookingDtoResponse))
                 .build();
         //when
-        when(bookingService.getAllBookingsForUser(any(Pageable.class), anyLong(), anyString()))
+        when(bookingService.getAllBookingsForUser(any(Pageable.class), anyLong(), anyString(), any(FieldSet.class)))
                 .thenReturn(bookingListDto);
         mvc.perform(
                         get("/bookings")
@@ -295,7 +296,7 @@ public class BookingControllerTest {
                 .bookings(List.of(bookingDtoResponse))
                 .build();
         //when
-        when(bookingService.getAllBookingsForUser(any(Pageable.class), anyLong(), anyString()))
+        when(bookingService.getAllBookingsForUser(any(Pageable.class), anyLong(), anyString(), any(FieldSet.class)))
                 .thenThrow(StateException.class);
         mvc.perform(
                         get("/bookings")
@@ -325,7 +326,7 @@ public class BookingControllerTest {
                         status().isBadRequest()
                 );
         verify(bookingService, times(0))
-                .getAllBookingsForUser(any(Pageable.class), anyLong(), anyString());
+                .getAllBookingsForUser(any(Pageable.class), anyLong(), anyString(), any(FieldSet.class));
     }
 
     @Test
@@ -343,7 +344,7 @@ public class BookingControllerTest {
                         status().isBadRequest()
                 );
         verify(bookingService, times(0))
-                .getAllBookingsForUser(any(Pageable.class), anyLong(), anyString());
+                .getAllBookingsForUser(any(Pageable.class), anyLong(), anyString(), any(FieldSet.class));
     }
 
     @Test
@@ -361,7 +362,7 @@ public class BookingControllerTest {
                         status().isBadRequest()
                 );
         verify(bookingService, times(0))
-                .getAllBookingsForUser(any(Pageable.class), anyLong(), anyString());
+                .getAllBookingsForUser(any(Pageable.class), anyLong(), anyString(), any(FieldSet.class));
     }
 
     @Test
@@ -372,7 +373,7 @@ public class BookingControllerTest {
                 .bookings(List.of(bookingDtoResponse))
                 .build();
         //when
-        when(bookingService.getAllBookingsForItemsUser(any(Pageable.class), anyLong(), anyString()))
+        when(bookingService.getAllBookingsForItemsUser(any(Pageable.class), anyLong(), anyString(), any(FieldSet.class)))
                 .thenReturn(bookingListDto);
         mvc.perform(
                         get("/bookings/owner")
@@ -402,7 +403,7 @@ public class BookingControllerTest {
                         status().isBadRequest()
                 );
         verify(bookingService, times(0))
-                .getAllBookingsForItemsUser(any(Pageable.class), anyLong(), anyString());
+                .getAllBookingsForItemsUser(any(Pageable.class), anyLong(), anyString(), any(FieldSet.class));
     }
 
     @Test
@@ -420,7 +421,7 @@ public class BookingControllerTest {
                         status().isBadRequest()
                 );
         verify(bookingService, times(0))
-                .getAllBookingsForItemsUser(any(Pageable.class), anyLong(), anyString());
+                .getAllBookingsForItemsUser(any(Pageable.class), anyLong(), anyString(), any(FieldSet.class));
     }
 
     @Test
@@ -438,6 +439,6 @@ public class BookingControllerTest {
                         status().isBadRequest()
                 );
         verify(bookingService, times(0))
-                .getAllBookingsForItemsUser(any(Pageable.class), anyLong(), anyString());
+                .getAllBookingsForItemsUser(any(Pageable.class), anyLong(), anyString(), any(FieldSet.class));
     }
 }
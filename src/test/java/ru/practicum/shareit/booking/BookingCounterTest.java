@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.enums.BookingRole;
+import ru.practicum.shareit.booking.repository.BookingCounterRepository;
+import ru.practicum.shareit.booking.service.BookingCounterService;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.count.TotalCount;
+import ru.practicum.shareit.error.handler.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserDtoResponse;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+@SpringBootTest(properties = "shareit.booking.counters.grace-period=0")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BookingCounterTest {
+    private final BookingService bookingService;
+    private final BookingCounterService bookingCounterService;
+    private final UserService userService;
+    private final ItemService itemService;
+    @SpyBean
+    private BookingCounterRepository counterRepository;
+    private final UserDto testUser = new UserDto("testUser", "test@email.com");
+    private final UserDto testUser2 = new UserDto("testUser2", "test2@email.com");
+    private final ItemDto testItem = ItemDto.builder().name("testItem").description("testDescription").available(true).build();
+
+    @Test
+    public void countersFollowCreateAndApprove() {
+        UserDtoResponse owner = userService.createUser(testUser);
+        UserDtoResponse booker = userService.createUser(testUser2);
+        ItemDtoResponse item = itemService.createItem(testItem, owner.getId());
+        BookingDtoResponse approved = bookingService.createBooking(booker.getId(), futureBooking(item.getId()));
+        BookingDtoResponse rejected = bookingService.createBooking(booker.getId(), futureBooking(item.getId()));
+        bookingService.createBooking(booker.getId(), futureBooking(item.getId()));
+        bookingService.approveBooking(owner.getId(), approved.getId(), "true");
+        bookingService.approveBooking(owner.getId(), rejected.getId(), "false");
+
+        BookingSummaryDto expected = BookingSummaryDto.builder().all(3).future(3).waiting(1).rejected(1).build();
+        assertThat(bookingCounterService.getSummary(booker.getId(), BookingRole.BOOKER)).isEqualTo(expected);
+        assertThat(bookingCounterService.getSummary(owner.getId(), BookingRole.OWNER)).isEqualTo(expected);
+        assertThat(bookingCounterService.getSummary(owner.getId(), BookingRole.BOOKER))
+                .isEqualTo(BookingSummaryDto.builder().build());
+    }
+
+    @Test
+    public void finishedBookingMovesToPastAfterClockAdvance() {
+        UserDtoResponse owner = userService.createUser(testUser);
+        UserDtoResponse booker = userService.createUser(testUser2);
+        ItemDtoResponse item = itemService.createItem(testItem, owner.getId());
+        bookingService.createBooking(booker.getId(), BookingDto.builder().itemId(item.getId())
+                .start(LocalDateTime.now().minusDays(2)).end(LocalDateTime.now().minusDays(1)).build());
+        bookingService.createBooking(booker.getId(), BookingDto.builder().itemId(item.getId())
+                .start(LocalDateTime.now().minusDays(1)).end(LocalDateTime.now().plusDays(1)).build());
+
+        bookingCounterService.advanceClock();
+
+        BookingSummaryDto summary = bookingCounterService.getSummary(booker.getId(), BookingRole.BOOKER);
+        assertThat(summary.getAll()).isEqualTo(2);
+        assertThat(summary.getPast()).isEqualTo(1);
+        assertThat(summary.getCurrent()).isEqualTo(1);
+        assertThat(summary.getFuture()).isZero();
+    }
+
+    @Test
+    public void fullPageWithoutCounterRowCreatesItOutsideReadOnlyTransaction() {
+        UserDtoResponse owner = userService.createUser(testUser);
+        UserDtoResponse booker = userService.createUser(testUser2);
+        ItemDtoResponse item = itemService.createItem(testItem, owner.getId());
+        bookingService.createBooking(booker.getId(), futureBooking(item.getId()));
+        bookingService.createBooking(booker.getId(), futureBooking(item.getId()));
+        counterRepository.deleteAll();
+        // H2 не запрещает запись в read-only транзакции, как PostgreSQL, поэтому проверяем это сами.
+        // У репозитория нет реального метода, шпион делегирует его прокси Spring Data
+        Answer<?> repository = mockingDetails(counterRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                throw new IllegalStateException("cannot execute INSERT in a read-only transaction");
+            }
+            return repository.answer(invocation);
+        }).when(counterRepository).mergeIfAbsent(anyLong(), anyString(), anyLong(), anyLong(), anyLong(),
+                anyLong(), anyLong(), anyLong());
+
+        BookingListDto bookings = bookingService.getAllBookingsForUser(PageRequest.of(0, 1), booker.getId(), "ALL");
+        BookingListDto owned = bookingService.getAllBookingsForItemsUser(PageRequest.of(0, 1), owner.getId(), "ALL");
+
+        assertThat(bookings.getTotal()).isEqualTo(TotalCount.exact(2));
+        assertThat(owned.getTotal()).isEqualTo(TotalCount.exact(2));
+        assertThat(counterRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void summaryForUnknownUser() {
+        assertThatThrownBy(() -> bookingCounterService.getSummary(99L, BookingRole.BOOKER))
+                .isInstanceOf(ObjectNotFoundException.class);
+    }
+
+    private BookingDto futureBooking(Long itemId) {
+        return BookingDto.builder().itemId(itemId)
+                .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2)).build();
+    }
+}
@@ -9,6 +9,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingCompactDto;
+import ru.practicum.shareit.booking.dto.BookingCompactListDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.dto.BookingListDto;
@@ -511,5 +513,33 @@ public class BookingServiceImplTest {
         rejectedBookingForItem11 = bookingService.approveBooking(user1.getId(), bookingService.createBooking(user2.getId(), rejectedBookingForItem1).getId(), "false");
         rejectedBookingForItem22 = bookingService.approveBooking(user2.getId(), bookingService.createBooking(user1.getId(), rejectedBookingForItem2).getId(), "false");
     }
-}
 
+    @Test
+    public void compactViewMatchesFullView() {
+        UserDtoResponse owner = userService.createUser(testUser);
+        UserDtoResponse booker = userService.createUser(testUser2);
+        ItemDtoResponse item1 = itemService.createItem(testItem, owner.getId());
+        ItemDtoResponse item2 = itemService.createItem(testItem2, owner.getId());
+        for (int i = 1; i <= 3; i++) {
+            bookingService.createBooking(booker.getId(), BookingDto.builder()
+                    .itemId(i == 3 ? item2.getId() : item1.getId())
+                    .start(LocalDateTime.now().plusDays(i)).end(LocalDateTime.now().plusDays(i + 1)).build());
+        }
+
+        for (String state : List.of("ALL", "FUTURE", "WAITING", "PAST")) {
+            List<Long> full = bookingService.getAllBookingsForItemsUser(PageRequest.of(0, 10), owner.getId(), state)
+                    .getBookings().stream().map(BookingDtoResponse::getId).collect(Collectors.toList());
+            BookingCompactListDto compact = bookingService.getCompactBookingsForItemsUser(
+                    PageRequest.of(0, 10), owner.getId(), state);
+
+            assertThat(compact.getBookings()).extracting(BookingCompactDto::getId).isEqualTo(full);
+        }
+        BookingCompactListDto compact = bookingService.getCompactBookingsForUser(
+                PageRequest.of(0, 10), booker.getId(), "ALL");
+
+        assertThat(compact.getItems()).containsOnlyKeys(item1.getId(), item2.getId());
+        assertThat(compact.getItems().get(item1.getId()).getName()).isEqualTo(item1.getName());
+        assertThat(compact.getUsers()).containsOnlyKeys(booker.getId());
+        assertThat(compact.getUsers().get(booker.getId()).getEmail()).isEqualTo(booker.getEmail());
+    }
+}
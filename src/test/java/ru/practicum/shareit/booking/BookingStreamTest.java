@@ -0,0 +1,208 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.OutboxEventType;
+import ru.practicum.shareit.outbox.event.DomainEvent;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.booking.stream.history-size=2")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@ActiveProfiles("test")
+@Sql(scripts = {"file:src/main/resources/schema.sql"})
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BookingStreamTest {
+    private final MockMvc mvc;
+    private final BookingService bookingService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper objectMapper;
+    private User owner;
+    private User booker;
+    private BookingDto bookingDto;
+    private static final String userIdHeader = "X-Sharer-User-Id";
+    private static final String lastEventIdHeader = "Last-Event-ID";
+
+    @BeforeEach
+    public void setUp() {
+        owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@test.ru");
+        booker = new User();
+        booker.setName("booker");
+        booker.setEmail("booker@test.ru");
+        userRepository.save(owner);
+        userRepository.save(booker);
+        Item item = new Item();
+        item.setName("test item");
+        item.setDescription("test item description");
+        item.setAvailable(Boolean.TRUE);
+        item.setOwner(owner);
+        itemRepository.save(item);
+        bookingDto = BookingDto.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .itemId(item.getId())
+                .build();
+    }
+
+    @Test
+    @SneakyThrows
+    public void resumeStreamFromLastEventId() {
+        var booking = bookingService.createBooking(booker.getId(), bookingDto);
+        bookingService.approveBooking(owner.getId(), booking.getId(), "true");
+        MvcResult result = mvc.perform(
+                        get("/bookings/stream")
+                                .header(userIdHeader, booker.getId())
+                                .header(lastEventIdHeader, 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String content = result.getResponse().getContentAsString();
+        assertThat(content).doesNotContain("event:booking-created");
+        assertThat(content).contains("id:2", "event:booking-approved");
+    }
+
+    @Test
+    @SneakyThrows
+    public void streamIsAddressedOnlyToOwnerAndBooker() {
+        User stranger = new User();
+        stranger.setName("stranger");
+        stranger.setEmail("stranger@test.ru");
+        userRepository.save(stranger);
+        var booking = bookingService.createBooking(booker.getId(), bookingDto);
+        bookingService.approveBooking(owner.getId(), booking.getId(), "true");
+        MvcResult ownerResult = mvc.perform(
+                        get("/bookings/stream")
+                                .header(userIdHeader, owner.getId())
+                                .header(lastEventIdHeader, 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult strangerResult = mvc.perform(
+                        get("/bookings/stream")
+                                .header(userIdHeader, stranger.getId())
+                                .header(lastEventIdHeader, 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(ownerResult.getResponse().getContentAsString()).contains("event:booking-approved");
+        assertThat(strangerResult.getResponse().getContentAsString()).doesNotContain("event:booking-approved");
+    }
+
+    @Test
+    @SneakyThrows
+    public void lastEventIdUnknownToNodeResetsStream() {
+        var booking = bookingService.createBooking(booker.getId(), bookingDto);
+        bookingService.approveBooking(owner.getId(), booking.getId(), "true");
+        MvcResult result = mvc.perform(
+                        get("/bookings/stream")
+                                .header(userIdHeader, owner.getId())
+                                .header(lastEventIdHeader, 0))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(result.getResponse().getContentAsString()).contains("event:stream-reset");
+    }
+
+    @Test
+    @SneakyThrows
+    public void eventFromAnotherNodeIsStreamedWithOutboxId() {
+        BookingDtoResponse booking = bookingService.createBooking(booker.getId(), bookingDto);
+        // другой узел одобрил бронирование: здесь есть только его строка outbox и уведомление релея
+        booking.setStatus(Status.APPROVED);
+        OutboxEvent event = saveRemoteEvent(booking, OutboxEventType.BOOKING_APPROVED);
+        publishRemoteEvent(event);
+        MvcResult result = mvc.perform(
+                        get("/bookings/stream")
+                                .header(userIdHeader, booker.getId())
+                                .header(lastEventIdHeader, event.getId() - 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String content = result.getResponse().getContentAsString();
+        assertThat(content).doesNotContain("event:stream-reset");
+        assertThat(content).contains("id:" + event.getId(), "event:booking-approved");
+    }
+
+    @Test
+    @SneakyThrows
+    public void eventWithLowerIdArrivingLaterIsReplayed() {
+        BookingDtoResponse booking = bookingService.createBooking(booker.getId(), bookingDto);
+        booking.setStatus(Status.APPROVED);
+        OutboxEvent earlier = saveRemoteEvent(booking, OutboxEventType.BOOKING_APPROVED);
+        booking.setStatus(Status.REJECTED);
+        OutboxEvent later = saveRemoteEvent(booking, OutboxEventType.BOOKING_REJECTED);
+        // id выданы при вставке, а закоммичено и доставлено первым событие с большим id
+        publishRemoteEvent(later);
+        publishRemoteEvent(earlier);
+        MvcResult result = mvc.perform(
+                        get("/bookings/stream")
+                                .header(userIdHeader, booker.getId())
+                                .header(lastEventIdHeader, later.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String content = result.getResponse().getContentAsString();
+        assertThat(content).doesNotContain("event:stream-reset", "event:booking-rejected");
+        assertThat(content).contains("id:" + earlier.getId(), "event:booking-approved");
+    }
+
+    @Test
+    @SneakyThrows
+    public void streamForNotExistingUser() {
+        mvc.perform(
+                        get("/bookings/stream")
+                                .header(userIdHeader, 99))
+                .andExpect(status().isNotFound());
+    }
+
+    @SneakyThrows
+    private OutboxEvent saveRemoteEvent(BookingDtoResponse booking, OutboxEventType eventType) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(AggregateType.BOOKING);
+        event.setAggregateId(booking.getId());
+        event.setEventType(eventType);
+        event.setPayload(objectMapper.writeValueAsString(booking));
+        event.setCreated(LocalDateTime.now());
+        event.setPublishedAt(LocalDateTime.now());
+        return outboxEventRepository.save(event);
+    }
+
+    private void publishRemoteEvent(OutboxEvent event) {
+        events.publishEvent(DomainEvent.builder()
+                .aggregateType(event.getAggregateType())
+                .aggregateId(event.getAggregateId())
+                .eventType(event.getEventType())
+                .eventId(event.getId())
+                .build());
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.cache.enums.CacheRegion;
+import ru.practicum.shareit.cache.service.CacheInvalidationService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserDtoResponse;
+import ru.practicum.shareit.user.dto.UserDtoUpdate;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"spring.cache.type=generic", "shareit.cache.max-size=2"})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class CacheInvalidationTest {
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final CacheInvalidationService cacheInvalidation;
+
+    @Test
+    public void updateUserEvictsCachedUser() {
+        UserDtoResponse user = userService.createUser(new UserDto("testUser", "test@email.com"));
+        assertThat(userService.getUserById(user.getId()).getName()).isEqualTo("testUser");
+
+        userService.updateUser(UserDtoUpdate.builder().name("updatedUser").build(), user.getId());
+
+        assertThat(userService.getUserById(user.getId()).getName()).isEqualTo("updatedUser");
+    }
+
+    @Test
+    public void cachedUserIsServedUntilInvalidated() {
+        UserDtoResponse user = userService.createUser(new UserDto("testUser", "test@email.com"));
+        userService.getUserById(user.getId());
+        userRepository.findById(user.getId()).ifPresent(entity -> {
+            entity.setName("changedElsewhere");
+            userRepository.save(entity);
+        });
+
+        assertThat(userService.getUserById(user.getId()).getName()).isEqualTo("testUser");
+
+        cacheInvalidation.invalidate(CacheRegion.USERS, user.getId());
+
+        assertThat(userService.getUserById(user.getId()).getName()).isEqualTo("changedElsewhere");
+    }
+
+    @Test
+    public void leastRecentlyReadUserIsEvictedWhenCacheIsFull() {
+        UserDtoResponse first = userService.createUser(new UserDto("first", "first@email.com"));
+        UserDtoResponse second = userService.createUser(new UserDto("second", "second@email.com"));
+        UserDtoResponse third = userService.createUser(new UserDto("third", "third@email.com"));
+        userService.getUserById(first.getId());
+        userService.getUserById(second.getId());
+        userService.getUserById(first.getId());
+        userService.getUserById(third.getId());
+        renameElsewhere(first.getId(), "firstChanged");
+        renameElsewhere(second.getId(), "secondChanged");
+
+        assertThat(userService.getUserById(first.getId()).getName()).isEqualTo("first");
+        assertThat(userService.getUserById(second.getId()).getName()).isEqualTo("secondChanged");
+    }
+
+    private void renameElsewhere(Long id, String name) {
+        userRepository.findById(id).ifPresent(entity -> {
+            entity.setName(name);
+            userRepository.save(entity);
+        });
+    }
+}
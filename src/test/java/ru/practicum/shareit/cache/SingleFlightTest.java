@@ -0,0 +1,92 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.cache.enums.CacheRegion;
+import ru.practicum.shareit.cache.event.CacheInvalidatedEvent;
+import ru.practicum.shareit.cache.service.SingleFlight;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "shareit.single-flight.max-wait=5000")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class SingleFlightTest {
+    private final SingleFlight singleFlight;
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    public void concurrentReadsShareOneLoad() throws Exception {
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            results.add(executor.submit(() -> singleFlight.load(CacheRegion.ITEMS, 1L, () -> {
+                loads.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "drill";
+            })));
+            started.await(5, TimeUnit.SECONDS);
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.load(CacheRegion.ITEMS, 1L, () -> {
+                    loads.incrementAndGet();
+                    return "drill";
+                })));
+            }
+            Thread.sleep(500);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("drill");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("shareit.single-flight.coalescing-ratio").tag("region", "items").gauge().value())
+                .isEqualTo((callers - 1) / (double) callers);
+    }
+
+    @Test
+    public void invalidationStartsNewLoad() {
+        AtomicInteger loads = new AtomicInteger();
+
+        String result = singleFlight.load(CacheRegion.REQUESTS, 1L, () -> {
+            singleFlight.onInvalidated(CacheInvalidatedEvent.builder()
+                    .region(CacheRegion.REQUESTS).ids(Set.of(1L)).build());
+            return singleFlight.load(CacheRegion.REQUESTS, 1L, () -> "fresh" + loads.incrementAndGet());
+        });
+
+        assertThat(result).isEqualTo("fresh1");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.count;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserDtoResponse;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "shareit.total-count.exact-threshold=2")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class TotalCountTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService itemRequestService;
+
+    @Test
+    public void personalItemsAndOtherRequestsAreCounted() {
+        UserDtoResponse owner = userService.createUser(new UserDto("owner", "owner@email.com"));
+        UserDtoResponse requester = userService.createUser(new UserDto("requester", "requester@email.com"));
+        for (int i = 0; i < 5; i++) {
+            item(owner, "item" + i);
+            itemRequestService.createItemRequest(ItemRequestDto.builder().description("request" + i).build(),
+                    requester.getId());
+        }
+
+        assertThat(itemService.getPersonalItems(PageRequest.of(0, 2), owner.getId()).getTotal())
+                .isEqualTo(TotalCount.exact(5));
+        assertThat(itemService.getPersonalItems(PageRequest.of(2, 2), owner.getId()).getTotal())
+                .isEqualTo(TotalCount.exact(5));
+        assertThat(itemRequestService.getOtherRequests(PageRequest.of(0, 2), owner.getId()).getTotal())
+                .isEqualTo(TotalCount.exact(5));
+        assertThat(itemRequestService.getOtherRequests(PageRequest.of(0, 2), requester.getId()).getTotal())
+                .isEqualTo(TotalCount.exact(0));
+    }
+
+    @Test
+    public void bookingsAreCountedByCounters() {
+        UserDtoResponse owner = userService.createUser(new UserDto("owner", "owner@email.com"));
+        UserDtoResponse booker = userService.createUser(new UserDto("booker", "booker@email.com"));
+        ItemDtoResponse item = item(owner, "drill");
+        for (int i = 1; i <= 3; i++) {
+            bookingService.createBooking(booker.getId(), BookingDto.builder().itemId(item.getId())
+                    .start(LocalDateTime.now().plusDays(i)).end(LocalDateTime.now().plusDays(i + 1)).build());
+        }
+
+        assertThat(bookingService.getAllBookingsForUser(PageRequest.of(0, 2), booker.getId(), "ALL").getTotal())
+                .isEqualTo(TotalCount.exact(3));
+        assertThat(bookingService.getAllBookingsForItemsUser(PageRequest.of(0, 2), owner.getId(), "WAITING")
+                .getTotal()).isEqualTo(TotalCount.exact(3));
+        assertThat(bookingService.getAllBookingsForUser(PageRequest.of(0, 2), booker.getId(), "FUTURE").getTotal())
+                .isEqualTo(TotalCount.approximate(3));
+        assertThat(bookingService.getAllBookingsForUser(PageRequest.of(0, 5), booker.getId(), "FUTURE").getTotal())
+                .isEqualTo(TotalCount.exact(3));
+    }
+
+    private ItemDtoResponse item(UserDtoResponse owner, String name) {
+        return itemService.createItem(ItemDto.builder().name(name).description("test description").available(true)
+                .build(), owner.getId());
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.error;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.error.handler.exception.ErrorLogSampler;
+import ru.practicum.shareit.error.handler.exception.InvalidDataException;
+import ru.practicum.shareit.error.handler.exception.ObjectNotFoundException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ErrorLogSamplerTest {
+
+    @Test
+    public void domainExceptionsAreStacklessWithLazyMessage() {
+        ObjectNotFoundException e = new ObjectNotFoundException("Пользователя с id=%s нет", 42L);
+
+        assertThat(e.getStackTrace()).isEmpty();
+        assertThat(e.getTemplate()).isEqualTo("Пользователя с id=%s нет");
+        assertThat(e.getArguments()).containsExactly(42L);
+        assertThat(e.getMessage()).isEqualTo("Пользователя с id=42 нет");
+        assertThat(new InvalidDataException("100% готово").getMessage()).isEqualTo("100% готово");
+    }
+
+    @Test
+    public void logsAreLimitedPerExceptionType() {
+        ErrorLogSampler sampler = new ErrorLogSampler(3, 0);
+        int logged = 0;
+        for (int i = 0; i < 100; i++) {
+            if (sampler.acquire(ObjectNotFoundException.class) >= 0) {
+                logged++;
+            }
+        }
+
+        assertThat(logged).isLessThanOrEqualTo(6);
+        assertThat(sampler.acquire(InvalidDataException.class)).isZero();
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class GeoHashTest {
+
+    @Test
+    public void encodesKnownPoint() {
+        assertThat(GeoHash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+        assertThat(GeoHash.encode(57.64911, 10.40744, 5)).isEqualTo("u4pru");
+    }
+
+    @Test
+    public void coverContainsPointsWithinRadius() {
+        double latitude = 55.7558;
+        double longitude = 37.6173;
+        double radius = 3;
+
+        var cells = GeoHash.cover(latitude, longitude, radius);
+
+        assertThat(cells).hasSizeLessThanOrEqualTo(9);
+        for (int step = 0; step < 360; step += 15) {
+            double angle = Math.toRadians(step);
+            double pointLatitude = latitude + Math.sin(angle) * radius / GeoHash.KM_PER_DEGREE;
+            double pointLongitude = longitude + Math.cos(angle) * radius / GeoHash.KM_PER_DEGREE
+                    / Math.cos(Math.toRadians(latitude));
+            String hash = GeoHash.encode(pointLatitude, pointLongitude, GeoHash.MAX_PRECISION);
+
+            assertThat(cells).anyMatch(hash::startsWith);
+            assertThat(GeoHash.distanceKm(latitude, longitude, pointLatitude, pointLongitude))
+                    .isCloseTo(radius, within(0.01));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.graphql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserDtoResponse;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class GraphQlControllerTest {
+    private static final String userIdHeader = "X-Sharer-User-Id";
+    private static final String itemQuery = "query($id: ID!) { item(id: $id) { name "
+            + "owner { name } "
+            + "request { description requester { name } items { name owner { name } } } "
+            + "comments { text author { name } } "
+            + "bookings { status booker { name } item { name } } } }";
+
+    private final MockMvc mvc;
+    private final ObjectMapper objectMapper;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+    @SpyBean
+    private UserRepository userRepository;
+    @SpyBean
+    private ItemRepository itemRepository;
+    @SpyBean
+    private CommentRepository commentRepository;
+    @SpyBean
+    private BookingRepository bookingRepository;
+    private UserDtoResponse owner;
+    private UserDtoResponse booker;
+    private UserDtoResponse stranger;
+    private ItemDtoResponse drill;
+
+    @BeforeEach
+    public void setUp() {
+        owner = userService.createUser(new UserDto("owner", "owner@email.com"));
+        booker = userService.createUser(new UserDto("booker", "booker@email.com"));
+        stranger = userService.createUser(new UserDto("stranger", "stranger@email.com"));
+        ItemRequestDtoResponse request = itemRequestService.createItemRequest(
+                ItemRequestDto.builder().description("need a drill").build(), booker.getId());
+        drill = itemService.createItem(ItemDto.builder().name("drill").description("test description")
+                .available(true).requestId(request.getId()).build(), owner.getId());
+        Item item = itemRepository.findById(drill.getId()).orElseThrow();
+        User bookerUser = userRepository.findById(booker.getId()).orElseThrow();
+        User strangerUser = userRepository.findById(stranger.getId()).orElseThrow();
+        bookingRepository.save(booking(item, bookerUser, LocalDateTime.now().minusDays(2)));
+        bookingRepository.save(booking(item, bookerUser, LocalDateTime.now().plusDays(1)));
+        bookingRepository.save(booking(item, strangerUser, LocalDateTime.now().plusDays(3)));
+        commentRepository.save(comment(item, bookerUser, "good"));
+        commentRepository.save(comment(item, strangerUser, "loud"));
+    }
+
+    @Test
+    public void nestedItemQueryIsBatched() throws Exception {
+        graphQl(itemQuery, drill.getId(), owner.getId())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors").doesNotExist())
+                .andExpect(jsonPath("$.data.item.name").value("drill"))
+                .andExpect(jsonPath("$.data.item.owner.name").value("owner"))
+                .andExpect(jsonPath("$.data.item.request.requester.name").value("booker"))
+                .andExpect(jsonPath("$.data.item.request.items[0].owner.name").value("owner"))
+                .andExpect(jsonPath("$.data.item.comments[*].author.name").value(
+                        contains("booker", "stranger")))
+                .andExpect(jsonPath("$.data.item.bookings", hasSize(3)));
+
+        // пользователи всех уровней читаются не больше чем двумя IN-запросами, списки — одним на поле
+        verify(userRepository, atMost(2)).findRowsByIdIn(anyCollection());
+        verify(commentRepository, times(1)).findRowsByItemIdIn(anyCollection());
+        verify(bookingRepository, times(1)).findRowsByItemIdIn(anyCollection());
+        verify(itemRepository, times(1)).findRowsByRequestIdIn(anyCollection());
+    }
+
+    @Test
+    public void bookerSeesOnlyOwnBookings() throws Exception {
+        graphQl(itemQuery, drill.getId(), booker.getId())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.item.bookings", hasSize(2)))
+                .andExpect(jsonPath("$.data.item.bookings[*].booker.name").value(
+                        everyItem(is("booker"))));
+    }
+
+    @Test
+    public void tooDeepQueryIsRejected() throws Exception {
+        String query = "query($id: ID!) { item(id: $id) { owner { items { owner { items { owner { items "
+                + "{ owner { items { name } } } } } } } } } }";
+
+        graphQl(query, drill.getId(), owner.getId())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors").isNotEmpty())
+                .andExpect(jsonPath("$.data").doesNotExist());
+
+        verify(userRepository, times(0)).findRowsByIdIn(anyCollection());
+    }
+
+    private ResultActions graphQl(String query, Long id, Long userId) throws Exception {
+        MvcResult result = mvc.perform(post("/graphql")
+                        .header(userIdHeader, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "query", query,
+                                "variables", Map.of("id", id)))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(result));
+    }
+
+    private static Booking booking(Item item, User user, LocalDateTime start) {
+        return Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(user)
+                .status(Status.APPROVED)
+                .build();
+    }
+
+    private static Comment comment(Item item, User author, String text) {
+        Comment comment = new Comment();
+        comment.setItem(item);
+        comment.setAuthor(author);
+        comment.setText(text);
+        comment.setCreated(LocalDateTime.now());
+        return comment;
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.idempotency.repository.IdempotencyRecordRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserDtoResponse;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class IdempotencyFilterTest {
+    private final MockMvc mvc;
+    private final ObjectMapper objectMapper;
+    private final UserService userService;
+    private final ItemRepository itemRepository;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private UserDtoResponse owner;
+    private static final String userIdHeader = "X-Sharer-User-Id";
+    private static final String idempotencyKeyHeader = "Idempotency-Key";
+
+    @BeforeEach
+    public void setUp() {
+        owner = userService.createUser(new UserDto("owner", "owner@email.com"));
+    }
+
+    @Test
+    public void retryReplaysFirstResponse() throws Exception {
+        String first = createItem("drill", "key-1")
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        String second = createItem("drill", "key-1")
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(itemRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    public void sameKeyWithDifferentBodyIsRejected() throws Exception {
+        createItem("drill", "key-1").andExpect(status().isCreated());
+
+        createItem("saw", "key-1").andExpect(status().isUnprocessableEntity());
+        createItem("saw", "key-2").andExpect(status().isCreated());
+        assertThat(itemRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void concurrentDuplicatesExecuteOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<MvcResult>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> createItem("drill", "key-1").andReturn()));
+            }
+            List<String> bodies = new ArrayList<>();
+            for (Future<MvcResult> result : results) {
+                assertThat(result.get().getResponse().getStatus()).isEqualTo(201);
+                bodies.add(result.get().getResponse().getContentAsString());
+            }
+            assertThat(bodies).containsOnly(bodies.get(0));
+            assertThat(itemRepository.count()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void replayReturnsSameBytes() throws Exception {
+        byte[] first = createItem("дрель", "key-1")
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] second = createItem("дрель", "key-1")
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    public void requestWithoutUserIsNotRemembered() throws Exception {
+        ItemDto item = ItemDto.builder().name("drill").description("test description").available(true).build();
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(post("/items")
+                            .header(idempotencyKeyHeader, "key-1")
+                            .content(objectMapper.writeValueAsString(item))
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().is4xxClientError())
+                    .andExpect(header().doesNotExist("Idempotent-Replayed"));
+        }
+        assertThat(idempotencyRecordRepository.count()).isZero();
+    }
+
+    private ResultActions createItem(String name, String key) throws Exception {
+        ItemDto item = ItemDto.builder().name(name).description("test description").available(true).build();
+        return mvc.perform(post("/items")
+                .header(userIdHeader, owner.getId())
+                .header(idempotencyKeyHeader, key)
+                .content(objectMapper.writeValueAsString(item))
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+}
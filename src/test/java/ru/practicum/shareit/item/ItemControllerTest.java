@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,16 +14,22 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.count.TotalCount;
+import ru.practicum.shareit.fields.FieldSet;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.serialization.JacksonProtobufHttpMessageConverter;
+import ru.practicum.shareit.serialization.ProtobufMessages;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -272,9 +280,10 @@ public class ItemControllerTest {
     @Test
     public void getPersonalItems() {
         //given
-        var itemListDto = ItemListDto.builder().items(List.of(itemDtoResponse)).build();
+        var itemListDto = ItemListDto.builder().items(List.of(itemDtoResponse)).total(TotalCount.approximate(1500))
+                .build();
         //when
-        when(itemService.getPersonalItems(any(Pageable.class), anyLong())).thenReturn(itemListDto);
+        when(itemService.getPersonalItems(any(Pageable.class), anyLong(), any(FieldSet.class))).thenReturn(itemListDto);
         mvc.perform(
                         get("/items")
                                 .param("from", "0")
@@ -282,8 +291,29 @@ public class ItemControllerTest {
                                 .header("X-Sharer-User-Id", 1))
                 .andExpectAll(
                         status().isOk(),
-                        content().json(objectMapper.writeValueAsString(itemListDto))
+                        content().json(objectMapper.writeValueAsString(itemListDto)),
+                        header().string("X-Total-Count", "1500"),
+                        header().string("X-Total-Count-Approximate", "true")
+                );
+    }
+
+    @SneakyThrows
+    @Test
+    public void getPersonalItemsWithFields() {
+        //given
+        var itemListDto = ItemListDto.builder().items(List.of(itemDtoResponse)).total(TotalCount.exact(1)).build();
+        //when
+        when(itemService.getPersonalItems(any(Pageable.class), anyLong(), any(FieldSet.class))).thenReturn(itemListDto);
+        mvc.perform(
+                        get("/items")
+                                .param("fields", "name")
+                                .header(userIdHeader, 1))
+                //then
+                .andExpectAll(
+                        status().isOk(),
+                        content().json("[{\"id\":1,\"name\":\"item test\"}]", true)
                 );
+        verify(itemService).getPersonalItems(any(Pageable.class), eq(1L), eq(FieldSet.parse("name")));
     }
 
     @SneakyThrows
@@ -298,7 +328,7 @@ public class ItemControllerTest {
                 .andExpectAll(
                         status().isBadRequest()
                 );
-        verify(itemService, times(0)).getPersonalItems(any(Pageable.class), anyLong());
+        verify(itemService, times(0)).getPersonalItems(any(Pageable.class), anyLong(), any(FieldSet.class));
     }
 
     @SneakyThrows
@@ -313,7 +343,7 @@ public class ItemControllerTest {
                 .andExpectAll(
                         status().isBadRequest()
                 );
-        verify(itemService, times(0)).getPersonalItems(any(Pageable.class), anyLong());
+        verify(itemService, times(0)).getPersonalItems(any(Pageable.class), anyLong(), any(FieldSet.class));
     }
 
     @SneakyThrows
@@ -328,7 +358,7 @@ public class ItemControllerTest {
                 .andExpectAll(
                         status().isBadRequest()
                 );
-        verify(itemService, times(0)).getPersonalItems(any(Pageable.class), anyLong());
+        verify(itemService, times(0)).getPersonalItems(any(Pageable.class), anyLong(), any(FieldSet.class));
     }
 
     @SneakyThrows
@@ -337,7 +367,7 @@ public class ItemControllerTest {
         //given
         var itemListDto = ItemListDto.builder().items(List.of(itemDtoResponse)).build();
         //when
-        when(itemService.getFoundItems(any(Pageable.class), anyString())).thenReturn(itemListDto);
+        when(itemService.getFoundItems(any(Pageable.class), anyString(), any(FieldSet.class))).thenReturn(itemListDto);
         mvc.perform(
                         get("/items/search")
                                 .param("from", "0")
@@ -349,6 +379,52 @@ public class ItemControllerTest {
                 );
     }
 
+    @SneakyThrows
+    @Test
+    public void getFoundItemsAsCbor() {
+        //given
+        var itemListDto = ItemListDto.builder().items(List.of(itemDtoResponse)).build();
+        //when
+        when(itemService.getFoundItems(any(Pageable.class), anyString(), any(FieldSet.class))).thenReturn(itemListDto);
+        byte[] body = mvc.perform(
+                        get("/items/search")
+                                .param("text", "description")
+                                .accept(MediaType.APPLICATION_CBOR))
+                .andExpectAll(
+                        status().isOk(),
+                        content().contentType(MediaType.APPLICATION_CBOR)
+                )
+                .andReturn().getResponse().getContentAsByteArray();
+        //then
+        assertThat(new ObjectMapper(new CBORFactory()).readTree(body))
+                .isEqualTo(objectMapper.readTree(objectMapper.writeValueAsString(itemListDto)));
+    }
+
+    @SneakyThrows
+    @Test
+    public void getFoundItemsAsProtobuf() {
+        //given
+        var itemListDto = ItemListDto.builder().items(List.of(itemDtoResponse)).build();
+        var messages = new ProtobufMessages(new ObjectMapper(new ProtobufFactory()), ProtobufMessages.loadSchema());
+        //when
+        when(itemService.getFoundItems(any(Pageable.class), anyString(), any(FieldSet.class))).thenReturn(itemListDto);
+        byte[] body = mvc.perform(
+                        get("/items/search")
+                                .param("text", "description")
+                                .accept(JacksonProtobufHttpMessageConverter.PROTOBUF))
+                .andExpectAll(
+                        status().isOk(),
+                        content().contentType(JacksonProtobufHttpMessageConverter.PROTOBUF)
+                )
+                .andReturn().getResponse().getContentAsByteArray();
+        //then
+        var item = messages.readTree(ItemListDto.class, body).get("items").get(0);
+        assertThat(item.get("id").asLong()).isEqualTo(itemDtoResponse.getId());
+        assertThat(item.get("name").asText()).isEqualTo(itemDtoResponse.getName());
+        assertThat(item.get("available").asBoolean()).isTrue();
+        assertThat(item.has("lastBooking")).isFalse();
+    }
+
     @SneakyThrows
     @Test
     public void getFoundItemsWitchIncorrectParamFrom() {
@@ -361,7 +437,7 @@ public class ItemControllerTest {
                 .andExpectAll(
                         status().isBadRequest()
                 );
-        verify(itemService, times(0)).getFoundItems(any(Pageable.class), anyString());
+        verify(itemService, times(0)).getFoundItems(any(Pageable.class), anyString(), any(FieldSet.class));
     }
 
     @SneakyThrows
@@ -376,7 +452,7 @@ public class ItemControllerTest {
                 .andExpectAll(
                         status().isBadRequest()
                 );
-        verify(itemService, times(0)).getFoundItems(any(Pageable.class), anyString());
+        verify(itemService, times(0)).getFoundItems(any(Pageable.class), anyString(), any(FieldSet.class));
     }
 
     @SneakyThrows
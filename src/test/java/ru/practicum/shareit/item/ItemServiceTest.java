@@ -12,14 +12,20 @@ import org.springframework.test.context.jdbc.Sql;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.error.handler.exception.InvalidDataException;
 import ru.practicum.shareit.error.handler.exception.ObjectNotAvailableException;
 import ru.practicum.shareit.error.handler.exception.ObjectNotFoundException;
+import ru.practicum.shareit.fields.FieldSet;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentDtoResponse;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.dto.ItemDtoUpdate;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.CommentSnapshotBackfill;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -42,6 +48,8 @@ public class ItemServiceTest {
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemRepository itemRepository;
+    private final CommentSnapshotBackfill commentSnapshotBackfill;
     private final ItemRequestRepository itemRequestRepository;
     private ItemDto item1Dto;
     private ItemDto item2Dto;
@@ -209,6 +217,26 @@ public class ItemServiceTest {
                 .ignoringFields("comments").isEqualTo(findItem);
     }
 
+    @Test
+    public void getPersonalItemsWithFields() {
+        userRepository.save(user1);
+        userRepository.save(user2);
+        var savedItem1 = itemService.createItem(item1Dto, user1.getId());
+        createLastAndNextBookings(savedItem1);
+        bookingRepository.save(lastBooking);
+        bookingRepository.save(nextBooking);
+
+        var personalItemsList = itemService.getPersonalItems(PageRequest.of(0, 2), user1.getId(),
+                FieldSet.parse("name,nextBooking"));
+
+        assertThat(personalItemsList.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getName()).isEqualTo(savedItem1.getName());
+            assertThat(item.getLastBooking()).isNull();
+            assertThat(item.getNextBooking()).isNotNull();
+            assertThat(item.getComments()).isNull();
+        });
+    }
+
     @Test
     public void getPersonalItemsWithNotExistingUser() {
         userRepository.save(user1);
@@ -256,6 +284,39 @@ public class ItemServiceTest {
         assertThat(findItems.getItems()).isEmpty();
     }
 
+    @Test
+    public void getNearbyItems() {
+
+        userRepository.save(user1);
+        item1Dto.setLatitude(55.7558);
+        item1Dto.setLongitude(37.6173);
+        item2Dto.setLatitude(55.7600);
+        item2Dto.setLongitude(37.6200);
+        var savedItem1 = itemService.createItem(item1Dto, user1.getId());
+        var savedItem2 = itemService.createItem(item2Dto, user1.getId());
+        itemService.createItem(ItemDto.builder().name("far item").description("test").available(true)
+                .latitude(59.9343).longitude(30.3351).build(), user1.getId());
+
+        var nearby = itemService.getNearbyItems(PageRequest.of(0, 10), 55.7590, 37.6190, 2.0, null);
+
+        assertThat(nearby.getItems()).extracting(ItemDtoResponse::getId)
+                .containsExactly(savedItem2.getId(), savedItem1.getId());
+
+        nearby = itemService.getNearbyItems(PageRequest.of(0, 10), 55.7590, 37.6190, 2.0, "ITEM2");
+
+        assertThat(nearby.getItems()).extracting(ItemDtoResponse::getId).containsExactly(savedItem2.getId());
+    }
+
+    @Test
+    public void createItemWithHalfOfCoordinates() {
+
+        userRepository.save(user1);
+        item1Dto.setLatitude(55.7558);
+
+        assertThatThrownBy(() -> itemService.createItem(item1Dto, user1.getId()))
+                .isInstanceOf(InvalidDataException.class);
+    }
+
     @Test
     public void addComment() {
 
@@ -284,6 +345,60 @@ public class ItemServiceTest {
 
     }
 
+    @Test
+    public void getPersonalItemsWithLatestComments() {
+
+        CommentDto commentDto = CommentDto.builder()
+                .text("Nice item, awesome author")
+                .build();
+        userRepository.save(user1);
+        userRepository.save(user2);
+        var savedItem1 = itemService.createItem(item1Dto, user1.getId());
+        createLastAndNextBookings(savedItem1);
+        bookingRepository.save(lastBooking);
+        var savedComment1 = itemService.addComment(savedItem1.getId(), user2.getId(), commentDto);
+        commentDto.setText("Nice item, awesome author2");
+        var savedComment2 = itemService.addComment(savedItem1.getId(), user2.getId(), commentDto);
+        commentDto.setText("Nice item, awesome author3");
+        var savedComment3 = itemService.addComment(savedItem1.getId(), user2.getId(), commentDto);
+        commentDto.setText("Nice item, awesome author4");
+        var savedComment4 = itemService.addComment(savedItem1.getId(), user2.getId(), commentDto);
+
+        var personalItemsList = itemService.getPersonalItems(PageRequest.of(0, 2), user1.getId());
+
+        // список отдаёт снимок: число комментариев и последние три, все — в карточке вещи
+        assertThat(personalItemsList.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getCommentCount()).isEqualTo(4);
+            assertThat(item.getComments()).extracting(CommentDtoResponse::getId).containsExactly(
+                    savedComment2.getId(), savedComment3.getId(), savedComment4.getId());
+        });
+        assertThat(itemService.getItemByItemId(user1.getId(), savedItem1.getId()).getComments())
+                .extracting(CommentDtoResponse::getId).containsExactlyInAnyOrder(savedComment1.getId(),
+                        savedComment2.getId(), savedComment3.getId(), savedComment4.getId());
+    }
+
+    @Test
+    public void commentSnapshotIsBackfilledForOldComments() {
+        userRepository.save(user1);
+        userRepository.save(user2);
+        var savedItem1 = itemService.createItem(item1Dto, user1.getId());
+        Item item = itemRepository.findById(savedItem1.getId()).get();
+        for (String text : new String[]{"first", "second", "third", "fourth"}) {
+            Comment comment = new Comment();
+            comment.setText(text);
+            comment.setItem(item);
+            comment.setAuthor(user2);
+            comment.setCreated(LocalDateTime.now());
+            commentRepository.save(comment);
+        }
+
+        commentSnapshotBackfill.backfill();
+
+        Item backfilled = itemRepository.findById(savedItem1.getId()).get();
+        assertThat(backfilled.getCommentCount()).isEqualTo(4);
+        assertThat(backfilled.getLatestComments()).doesNotContain("first").contains("second", "third", "fourth");
+    }
+
     @Test
     public void addCommentFromUserWithNotExistingBooks() {
 
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.matching;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.matching.dto.ItemMatchDto;
+import ru.practicum.shareit.matching.dto.RequestMatchDto;
+import ru.practicum.shareit.matching.service.MatchingService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserDtoResponse;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class MatchingServiceTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+    private final MatchingService matchingService;
+
+    @Test
+    public void newItemMatchesOpenRequestsOfOtherUsers() {
+        UserDtoResponse owner = userService.createUser(new UserDto("owner", "owner@email.com"));
+        UserDtoResponse requester = userService.createUser(new UserDto("requester", "requester@email.com"));
+        ItemRequestDtoResponse drillRequest = request(requester, "Нужна дрель для ремонта");
+        request(requester, "Ищу палатку на выходные");
+        request(owner, "Нужна дрель");
+        ItemDtoResponse drill = item(owner, "Дрель", "Аккумуляторная дрель с набором свёрл", null);
+
+        assertThat(matchingService.getMatchingRequests(requester.getId(), drill.getId(), 10).getRequests())
+                .extracting(RequestMatchDto::getId)
+                .containsExactly(drillRequest.getId());
+        assertThat(matchingService.getCandidates(requester.getId(), drillRequest.getId(), 10).getItems())
+                .extracting(ItemMatchDto::getId)
+                .containsExactly(drill.getId());
+
+        item(owner, "Дрель ударная", "Дрель для бетона", drillRequest.getId());
+
+        assertThat(matchingService.getMatchingRequests(requester.getId(), drill.getId(), 10).getRequests()).isEmpty();
+    }
+
+    @Test
+    public void tokenizerStemsAndDropsStopWords() {
+        assertThat(Tokenizer.tokens("Нужна дрели, для ДРЕЛЬЮ!", "drill")).containsExactlyInAnyOrder("дрел", "dril");
+    }
+
+    private ItemRequestDtoResponse request(UserDtoResponse requester, String description) {
+        return itemRequestService.createItemRequest(
+                ItemRequestDto.builder().description(description).build(), requester.getId());
+    }
+
+    private ItemDtoResponse item(UserDtoResponse owner, String name, String description, Long requestId) {
+        return itemService.createItem(ItemDto.builder().name(name).description(description).available(true)
+                .requestId(requestId).build(), owner.getId());
+    }
+}
@@ -0,0 +1,200 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.handler.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.enums.AggregateType;
+import ru.practicum.shareit.outbox.enums.OutboxEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.outbox.service.OutboxRelay;
+import ru.practicum.shareit.outbox.service.OutboxSubscriber;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "shareit.outbox.relay.enabled=false",
+        "shareit.outbox.relay.backoff=0",
+        "shareit.outbox.relay.max-attempts=2"})
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@ActiveProfiles("test")
+@Sql(scripts = {"file:src/main/resources/schema.sql"})
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class OutboxRelayTest {
+    private final OutboxRelay relay;
+    private final OutboxEventRepository outboxEvents;
+    private final RecordingSubscriber subscriber;
+    private final BookingService bookingService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private User owner;
+    private User booker;
+    private BookingDto bookingDto;
+
+    @TestConfiguration
+    static class SubscriberConfig {
+        @Bean
+        RecordingSubscriber recordingSubscriber(JdbcTemplate jdbc) {
+            return new RecordingSubscriber(jdbc);
+        }
+    }
+
+    static class RecordingSubscriber implements OutboxSubscriber {
+        private final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+        private final JdbcTemplate jdbc;
+        private int failures;
+        private int aborts;
+        private int aborted;
+
+        RecordingSubscriber(JdbcTemplate jdbc) {
+            this.jdbc = jdbc;
+        }
+
+        @Override
+        public void onEvent(OutboxEvent event) {
+            if (aborts > 0) {
+                aborts--;
+                // на PostgreSQL после ошибки запроса транзакция релея непригодна, пока её не откатить
+                // к точке сохранения; H2 так не делает, поэтому проверяем, что откат снимает запись подписчика
+                jdbc.update("INSERT INTO users (name, email) VALUES (?, ?)", "partial", "partial@test.ru");
+                aborted++;
+                throw new IllegalStateException("current transaction is aborted");
+            }
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("subscriber is down");
+            }
+            events.add(event);
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@test.ru");
+        booker = new User();
+        booker.setName("booker");
+        booker.setEmail("booker@test.ru");
+        userRepository.save(owner);
+        userRepository.save(booker);
+        Item item = new Item();
+        item.setName("test item");
+        item.setDescription("test item description");
+        item.setAvailable(Boolean.TRUE);
+        item.setOwner(owner);
+        itemRepository.save(item);
+        bookingDto = BookingDto.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .itemId(item.getId())
+                .build();
+    }
+
+    @Test
+    public void bookingChangesAreRelayedInOrder() {
+        var booking = bookingService.createBooking(booker.getId(), bookingDto);
+        bookingService.approveBooking(owner.getId(), booking.getId(), "true");
+
+        int relayed = relay.relayPending();
+
+        assertThat(relayed).isEqualTo(2);
+        assertThat(subscriber.events).allMatch(event -> event.getAggregateType() == AggregateType.BOOKING
+                && event.getAggregateId().equals(booking.getId()));
+        assertThat(subscriber.events.stream().map(OutboxEvent::getEventType).collect(Collectors.toList()))
+                .containsExactly(OutboxEventType.BOOKING_CREATED, OutboxEventType.BOOKING_APPROVED);
+        assertThat(outboxEvents.countByPublishedAtIsNullAndDeadAtIsNull()).isZero();
+    }
+
+    @Test
+    public void failedDeliveryIsRetried() {
+        bookingService.createBooking(booker.getId(), bookingDto);
+        subscriber.failures = 1;
+
+        assertThat(relay.relayPending()).isZero();
+        assertThat(outboxEvents.findAll()).singleElement()
+                .satisfies(event -> assertThat(event.getAttempts()).isEqualTo(1));
+
+        assertThat(relay.relayPending()).isEqualTo(1);
+        assertThat(subscriber.events).singleElement()
+                .satisfies(event -> assertThat(event.getEventType()).isEqualTo(OutboxEventType.BOOKING_CREATED));
+    }
+
+    @Test
+    public void undeliverableEventGoesToDeadLetter() {
+        var booking = bookingService.createBooking(booker.getId(), bookingDto);
+        subscriber.failures = 2;
+
+        assertThat(relay.relayPending()).isZero();
+        assertThat(relay.relayPending()).isZero();
+        assertThat(outboxEvents.findAll()).singleElement()
+                .satisfies(event -> assertThat(event.getDeadAt()).isNotNull());
+        assertThat(outboxEvents.countByDeadAtIsNotNull()).isEqualTo(1);
+        assertThat(outboxEvents.countByPublishedAtIsNullAndDeadAtIsNull()).isZero();
+
+        // событие в dead letter держит следующие события агрегата, пока его не вернут в очередь
+        bookingService.approveBooking(owner.getId(), booking.getId(), "true");
+        assertThat(relay.relayPending()).isZero();
+        assertThat(subscriber.events).isEmpty();
+
+        OutboxEvent dead = outboxEvents.findAll().stream()
+                .filter(event -> event.getDeadAt() != null).findFirst().orElseThrow();
+        dead.setDeadAt(null);
+        dead.setAttempts(0);
+        dead.setNextAttemptAt(null);
+        outboxEvents.save(dead);
+        assertThat(relay.relayPending()).isEqualTo(2);
+        assertThat(subscriber.events.stream().map(OutboxEvent::getEventType).collect(Collectors.toList()))
+                .containsExactly(OutboxEventType.BOOKING_CREATED, OutboxEventType.BOOKING_APPROVED);
+    }
+
+    @Test
+    public void failedSubscriberWritesAreRolledBackToSavepoint() {
+        bookingService.createBooking(booker.getId(), bookingDto);
+        subscriber.aborts = 2;
+
+        assertThat(relay.relayPending()).isZero();
+        assertThat(subscriber.aborted).isEqualTo(1);
+        assertThat(outboxEvents.findAll()).singleElement()
+                .satisfies(event -> assertThat(event.getAttempts()).isEqualTo(1));
+        assertThat(userRepository.count()).isEqualTo(2);
+
+        assertThat(relay.relayPending()).isZero();
+        assertThat(subscriber.aborted).isEqualTo(2);
+        assertThat(outboxEvents.findAll()).singleElement()
+                .satisfies(event -> assertThat(event.getDeadAt()).isNotNull());
+        assertThat(userRepository.count()).isEqualTo(2);
+        assertThat(subscriber.events).isEmpty();
+    }
+
+    @Test
+    public void rolledBackChangeLeavesNoEvent() {
+        assertThatThrownBy(
+                () -> bookingService.createBooking(owner.getId(), bookingDto)
+        ).isInstanceOf(ObjectNotFoundException.class);
+        assertThat(outboxEvents.count()).isZero();
+    }
+}
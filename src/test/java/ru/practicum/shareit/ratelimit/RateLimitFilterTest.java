@@ -0,0 +1,82 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "shareit.rate-limit.enabled=true",
+        "shareit.rate-limit.search.capacity=2",
+        "shareit.rate-limit.search.per-second=0.01"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class RateLimitFilterTest {
+    private final MockMvc mvc;
+    private static final String userIdHeader = "X-Sharer-User-Id";
+
+    @Test
+    public void searchIsLimitedPerUser() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(get("/items/search").param("text", "drill").header(userIdHeader, 1))
+                    .andExpect(status().isOk());
+        }
+
+        mvc.perform(get("/items/search").param("text", "drill").header(userIdHeader, 1))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.code").value(429));
+        mvc.perform(get("/items/search").param("text", "drill").header(userIdHeader, 2))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void searchWithoutUserIsLimitedPerAddress() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(get("/items/search").param("text", "drill"))
+                    .andExpect(status().isOk());
+        }
+
+        mvc.perform(get("/items/search").param("text", "drill"))
+                .andExpect(status().isTooManyRequests());
+        mvc.perform(get("/items/search").param("text", "drill").header(userIdHeader, "not-a-number"))
+                .andExpect(status().isTooManyRequests());
+        mvc.perform(get("/items/search").param("text", "drill").with(request -> {
+                    request.setRemoteAddr("10.0.0.2");
+                    return request;
+                }))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void bucketRefillsAndIdleBucketsAreEvicted() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1, 4, 100);
+        long second = 1_000_000_000L;
+
+        assertThat(limiter.tryAcquire(1, 0)).isZero();
+        assertThat(limiter.tryAcquire(1, 0)).isZero();
+        assertThat(limiter.tryAcquire(1, 0)).isEqualTo(second);
+        assertThat(limiter.tryAcquire(1, second)).isZero();
+
+        limiter.evictIdle(second);
+        assertThat(limiter.size()).isEqualTo(1);
+        limiter.evictIdle(3 * second);
+        assertThat(limiter.size()).isZero();
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.fields.FieldSet;
 import ru.practicum.shareit.request.dto.*;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -199,7 +200,7 @@ public class ItemRequestControllerTest {
                 .requests(List.of(requestDtoResponseWithMD))
                 .build();
         //when
-        when(itemRequestService.getOtherRequests(any(PageRequest.class), anyLong())).thenReturn(itemRequestListDto);
+        when(itemRequestService.getOtherRequests(any(PageRequest.class), anyLong(), any(FieldSet.class))).thenReturn(itemRequestListDto);
         mvc.perform(
                         get("/requests/all")
                                 .header(userIdHeader, 1)
@@ -226,7 +227,7 @@ public class ItemRequestControllerTest {
                         //then
                         status().isBadRequest()
                 );
-        verify(itemRequestService, times(0)).getOtherRequests(any(PageRequest.class), anyLong());
+        verify(itemRequestService, times(0)).getOtherRequests(any(PageRequest.class), anyLong(), any(FieldSet.class));
     }
 
     @Test
@@ -241,7 +242,7 @@ public class ItemRequestControllerTest {
                 .andExpectAll(
                         status().isBadRequest()
                 );
-        verify(itemRequestService, times(0)).getOtherRequests(any(PageRequest.class), anyLong());
+        verify(itemRequestService, times(0)).getOtherRequests(any(PageRequest.class), anyLong(), any(FieldSet.class));
     }
 
     @Test
@@ -253,7 +254,7 @@ public class ItemRequestControllerTest {
                         .param("from", "0")
                         .param("size", "24343")
         ).andDo(print());
-        verify(itemRequestService, times(0)).getOtherRequests(any(PageRequest.class), anyLong());
+        verify(itemRequestService, times(0)).getOtherRequests(any(PageRequest.class), anyLong(), any(FieldSet.class));
     }
 
     @Test
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.count.TotalCount;
+import ru.practicum.shareit.count.TotalCounter;
+import ru.practicum.shareit.fields.FieldSet;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemDataForRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+import ru.practicum.shareit.request.dto.ItemRequestListDto;
+import ru.practicum.shareit.request.dto.RequestDtoResponseWithMD;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserDtoResponse;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mockingDetails;
+
+@SpringBootTest(properties = "shareit.request.feed.capacity=3")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ItemRequestFeedTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+    @SpyBean
+    private TotalCounter totalCounter;
+
+    @Test
+    public void feedExcludesOwnRequestsAndFollowsCursor() {
+        UserDtoResponse requester = userService.createUser(new UserDto("requester", "requester@email.com"));
+        UserDtoResponse reader = userService.createUser(new UserDto("reader", "reader@email.com"));
+        ItemRequestDtoResponse first = request(requester, "first");
+        request(reader, "own");
+        ItemRequestDtoResponse second = request(requester, "second");
+        ItemRequestDtoResponse third = request(requester, "third");
+        ItemDtoResponse answer = itemService.createItem(ItemDto.builder().name("drill").description("test description")
+                .available(true).requestId(second.getId()).build(), reader.getId());
+
+        ItemRequestListDto page = itemRequestService.getOtherRequests(PageRequest.of(0, 2), reader.getId());
+
+        assertThat(page.getRequests()).extracting(RequestDtoResponseWithMD::getId)
+                .containsExactly(third.getId(), second.getId());
+        assertThat(page.getRequests().get(1).getItems()).extracting(ItemDataForRequestDto::getId)
+                .containsExactly(answer.getId());
+        assertThat(page.getNextCursor()).isEqualTo(second.getId());
+
+        // first уже вытеснен из окна, его страница читается из базы
+        ItemRequestListDto next = itemRequestService.getOtherRequests(page.getNextCursor(), 2, reader.getId());
+
+        assertThat(next.getRequests()).extracting(RequestDtoResponseWithMD::getId).containsExactly(first.getId());
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void pageOutsideFeedWithoutItemsReadsRows() {
+        UserDtoResponse requester = userService.createUser(new UserDto("requester", "requester@email.com"));
+        UserDtoResponse reader = userService.createUser(new UserDto("reader", "reader@email.com"));
+        ItemRequestDtoResponse first = request(requester, "first");
+        itemService.createItem(ItemDto.builder().name("drill").description("test description")
+                .available(true).requestId(first.getId()).build(), reader.getId());
+        request(requester, "second");
+        request(requester, "third");
+        ItemRequestDtoResponse fourth = request(requester, "fourth");
+
+        ItemRequestListDto page = itemRequestService.getOtherRequests(PageRequest.of(0, 3, Sort.by(
+                Sort.Direction.DESC, "created")), reader.getId(), FieldSet.parse("description"));
+        ItemRequestListDto next = itemRequestService.getOtherRequests(page.getNextCursor(), 2, reader.getId(),
+                FieldSet.parse("description"));
+
+        assertThat(page.getRequests().get(0).getId()).isEqualTo(fourth.getId());
+        assertThat(next.getRequests()).singleElement().satisfies(request -> {
+            assertThat(request.getId()).isEqualTo(first.getId());
+            assertThat(request.getDescription()).isEqualTo("first");
+            assertThat(request.getItems()).isNull();
+        });
+    }
+
+    @Test
+    public void cursorPageFromCompleteFeedIsCountedWithoutQuery() {
+        UserDtoResponse requester = userService.createUser(new UserDto("requester", "requester@email.com"));
+        UserDtoResponse reader = userService.createUser(new UserDto("reader", "reader@email.com"));
+        request(requester, "first");
+        request(reader, "own");
+        request(requester, "second");
+        ItemRequestListDto page = itemRequestService.getOtherRequests(PageRequest.of(0, 1), reader.getId());
+        clearInvocations(totalCounter);
+
+        ItemRequestListDto next = itemRequestService.getOtherRequests(page.getNextCursor(), 1, reader.getId());
+
+        assertThat(next.getTotal()).isEqualTo(TotalCount.exact(2));
+        assertThat(mockingDetails(totalCounter).getInvocations()).isEmpty();
+    }
+
+    private ItemRequestDtoResponse request(UserDtoResponse requester, String description) {
+        return itemRequestService.createItemRequest(
+                ItemRequestDto.builder().description(description).build(), requester.getId());
+    }
+}
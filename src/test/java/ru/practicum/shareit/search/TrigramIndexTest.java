@@ -0,0 +1,36 @@
+package ru.practicum.shareit.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TrigramIndexTest {
+
+    @Test
+    public void findsWordsWithTyposRankedBySimilarity() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Дрель", "Аккумуляторная дрель");
+        index.put(2L, "Дрель-шуруповёрт", "Ударная");
+        index.put(3L, "Стол", "Складной стол");
+
+        assertThat(index.search("дрелль", 0.4, 10)).containsExactly(1L, 2L);
+        assertThat(index.search("дрелль", 0.4, 1)).containsExactly(1L);
+        assertThat(index.search("cтул", 0.4, 10)).isEmpty();
+        assertThat(index.search("складой", 0.4, 10)).containsExactly(3L);
+    }
+
+    @Test
+    public void removedItemIsNotFound() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Дрель", "Аккумуляторная дрель");
+        index.put(1L, "Пила", "Циркулярная пила");
+
+        assertThat(index.search("дрель", 0.4, 10)).isEmpty();
+        assertThat(index.search("пила", 0.4, 10)).containsExactly(1L);
+
+        index.remove(1L);
+
+        assertThat(index.search("пила", 0.4, 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+}
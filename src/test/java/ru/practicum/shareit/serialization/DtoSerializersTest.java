@@ -0,0 +1,80 @@
+package ru.practicum.shareit.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.item.dto.CommentDtoResponse;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.request.dto.ItemDataForRequestDto;
+import ru.practicum.shareit.request.dto.RequestDtoResponseWithMD;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DtoSerializersTest {
+    private final ObjectMapper defaultMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper tunedMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .addModule(JsonConfig.dtoModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    public void bookingMatchesReflectiveSerialization() throws Exception {
+        List<BookingDtoResponse> bookings = List.of(
+                BookingDtoResponse.builder()
+                        .id(1L)
+                        .start(LocalDateTime.of(2023, 1, 2, 3, 4, 5))
+                        .end(LocalDateTime.of(2023, 1, 2, 3, 4, 5, 120_000_000))
+                        .item(new BookingDtoResponse.ItemData(1, 2, "Дрель \"Bosch\"", "описание", null))
+                        .booker(new BookingDtoResponse.UserData(3, "booker@test.ru", "booker"))
+                        .status(Status.WAITING)
+                        .build(),
+                BookingDtoResponse.builder().id(2L).start(LocalDateTime.of(2023, 1, 2, 0, 0, 0, 1)).build());
+
+        assertThat(tunedMapper.writeValueAsString(bookings)).isEqualTo(defaultMapper.writeValueAsString(bookings));
+    }
+
+    @Test
+    public void itemMatchesReflectiveSerialization() throws Exception {
+        ItemDtoResponse item = ItemDtoResponse.builder()
+                .id(1L)
+                .name("item")
+                .description("description")
+                .available(true)
+                .latitude(55.7558)
+                .longitude(37.6173)
+                .lastBooking(BookingShortDto.builder().id(1L).bookerId(2L).build())
+                .commentCount(1)
+                .comments(Set.of(CommentDtoResponse.builder()
+                        .id(1L).text("text").authorName("author").created(LocalDateTime.of(2023, 5, 6, 7, 8)).build()))
+                .build();
+        ItemDtoResponse empty = ItemDtoResponse.builder().build();
+
+        assertThat(tunedMapper.writeValueAsString(List.of(item, empty)))
+                .isEqualTo(defaultMapper.writeValueAsString(List.of(item, empty)));
+    }
+
+    @Test
+    public void requestMatchesReflectiveSerialization() throws Exception {
+        RequestDtoResponseWithMD request = RequestDtoResponseWithMD.builder()
+                .id(1L)
+                .description("нужна дрель")
+                .created(LocalDateTime.of(2023, 5, 6, 7, 8, 9, 123_456_789))
+                .items(Set.of(ItemDataForRequestDto.builder().id(1L).name("дрель").available(true).requestId(1L).build()))
+                .build();
+
+        assertThat(tunedMapper.writeValueAsString(request)).isEqualTo(defaultMapper.writeValueAsString(request));
+    }
+}
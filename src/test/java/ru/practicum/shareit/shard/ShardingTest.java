@@ -0,0 +1,178 @@
+package ru.practicum.shareit.shard;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserDtoResponse;
+import ru.practicum.shareit.user.dto.UserDtoUpdate;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "shareit.sharding.enabled=true",
+        "shareit.sharding.urls=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "spring.jpa.open-in-view=false"
+})
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ShardingTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService itemRequestService;
+    private final ShardRouter router;
+    private final JdbcTemplate jdbc;
+
+    @Test
+    public void itemsLiveOnOwnerShardAndBookerListIsMerged() {
+        UserDtoResponse owner1 = userService.createUser(new UserDto("owner1", "owner1@email.com"));
+        UserDtoResponse owner2 = userService.createUser(new UserDto("owner2", "owner2@email.com"));
+        UserDtoResponse booker = userService.createUser(new UserDto("booker", "booker@email.com"));
+        ItemDtoResponse item1 = itemService.createItem(item("drill"), owner1.getId());
+        ItemDtoResponse item2 = itemService.createItem(item("saw"), owner2.getId());
+
+        assertThat(router.shardForId(item1.getId())).isEqualTo(router.shardForOwner(owner1.getId()));
+        assertThat(router.shardForId(item2.getId())).isEqualTo(router.shardForOwner(owner2.getId()));
+        assertThat(router.shardForId(item1.getId())).isNotEqualTo(router.shardForId(item2.getId()));
+        assertThat(itemService.getItemByItemId(booker.getId(), item1.getId()).getName()).isEqualTo("drill");
+
+        BookingDtoResponse early = bookingService.createBooking(booker.getId(), booking(item1.getId(), 1));
+        BookingDtoResponse middle = bookingService.createBooking(booker.getId(), booking(item2.getId(), 2));
+        BookingDtoResponse late = bookingService.createBooking(booker.getId(), booking(item1.getId(), 3));
+
+        assertThat(bookingService.getAllBookingsForUser(PageRequest.of(0, 10), booker.getId(), "ALL").getBookings())
+                .extracting(BookingDtoResponse::getId)
+                .containsExactly(late.getId(), middle.getId(), early.getId());
+        assertThat(bookingService.getAllBookingsForUser(PageRequest.of(1, 1), booker.getId(), "ALL").getBookings())
+                .extracting(BookingDtoResponse::getId)
+                .containsExactly(middle.getId());
+        assertThat(itemService.getFoundItems(PageRequest.of(0, 10), "test").getItems())
+                .extracting(ItemDtoResponse::getId)
+                .containsExactly(Math.min(item1.getId(), item2.getId()), Math.max(item1.getId(), item2.getId()));
+    }
+
+    @Test
+    public void fuzzySearchPagesFollowShardScores() {
+        UserDtoResponse owner1 = userService.createUser(new UserDto("owner1", "owner1@email.com"));
+        UserDtoResponse owner2 = userService.createUser(new UserDto("owner2", "owner2@email.com"));
+        // у всех трёх вещей второе слово запроса ниже порога сходства, поэтому на шарде их оценки равны
+        // и порядок задаёт id, хотя сходство «удалая» и «удобная» с «ударная» различается
+        ItemDtoResponse first = itemService.createItem(item("дрель", "удобная"), owner2.getId());
+        ItemDtoResponse second = itemService.createItem(item("дрель", "нарядная"), owner1.getId());
+        ItemDtoResponse third = itemService.createItem(item("дрель", "удалая"), owner2.getId());
+        List<Long> expected = Stream.of(first, second, third).map(ItemDtoResponse::getId).sorted()
+                .collect(Collectors.toList());
+
+        List<Long> paged = new ArrayList<>();
+        for (int page = 0; page < 4; page++) {
+            itemService.getFoundItemsFuzzy(PageRequest.of(page, 1), "дрель ударная").getItems()
+                    .forEach(found -> paged.add(found.getId()));
+        }
+
+        assertThat(paged).containsExactlyElementsOf(expected);
+        assertThat(itemService.getFoundItemsFuzzy(PageRequest.of(0, 10), "дрель ударная").getItems())
+                .extracting(ItemDtoResponse::getId)
+                .containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void failedReplicaWriteRemovesUserFromPrimaryShard() {
+        // на втором шарде email уже занят, поэтому копия пользователя туда не запишется
+        router.onShard(1, () -> jdbc.update("INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)",
+                1000L, "stale", "user@email.com"));
+
+        assertThatThrownBy(() -> userService.createUser(new UserDto("user", "user@email.com")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(router.onShard(0, () -> jdbc.queryForObject("SELECT COUNT(*) FROM users", Integer.class)))
+                .isZero();
+        router.onShard(1, () -> jdbc.update("DELETE FROM users WHERE user_id = ?", 1000L));
+        UserDtoResponse retried = userService.createUser(new UserDto("user", "user@email.com"));
+        assertThat(userService.getUserById(retried.getId()).getEmail()).isEqualTo("user@email.com");
+    }
+
+    @Test
+    public void failedReplicaUpdateRestoresUserOnPrimaryShard() {
+        UserDtoResponse user = userService.createUser(new UserDto("user", "user@email.com"));
+        router.onShard(1, () -> jdbc.update("INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)",
+                1000L, "stale", "taken@email.com"));
+
+        assertThatThrownBy(() -> userService.updateUser(
+                UserDtoUpdate.builder().name("renamed").email("taken@email.com").build(), user.getId()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(router.onShard(0, () -> jdbc.queryForObject(
+                "SELECT email FROM users WHERE user_id = ?", String.class, user.getId())))
+                .isEqualTo("user@email.com");
+        assertThat(userService.getUserById(user.getId()).getName()).isEqualTo("user");
+    }
+
+    @Test
+    public void failedPrimaryDeleteRestoresUserOnOtherShards() {
+        UserDtoResponse owner = userService.createUser(new UserDto("owner", "owner@email.com"));
+        if (router.shardForOwner(owner.getId()) != 0) {
+            owner = userService.createUser(new UserDto("owner2", "owner2@email.com"));
+        }
+        itemService.createItem(item("drill"), owner.getId());
+        Long ownerId = owner.getId();
+
+        // вещь владельца на нулевом шарде не даёт удалить его там, а с первого шарда он уже удалён
+        assertThatThrownBy(() -> userService.deleteUser(ownerId))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(router.onShard(1, () -> jdbc.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE user_id = ?", Integer.class, ownerId))).isOne();
+    }
+
+    @Test
+    public void failedReplicaRequestWriteRemovesOutboxEvent() {
+        UserDtoResponse requester = userService.createUser(new UserDto("requester", "requester@email.com"));
+        router.onShard(1, () -> jdbc.update("DELETE FROM users WHERE user_id = ?", requester.getId()));
+
+        assertThatThrownBy(() -> itemRequestService.createItemRequest(ItemRequestDto.builder().description("drill").build(), requester.getId()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(router.onShard(0, () -> jdbc.queryForObject("SELECT COUNT(*) FROM requests", Integer.class)))
+                .isZero();
+        assertThat(router.onShard(0, () -> jdbc.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE event_type = 'REQUEST_CREATED' AND published_at IS NULL",
+                Integer.class))).isZero();
+    }
+
+    private ItemDto item(String name) {
+        return item(name, "test description");
+    }
+
+    private ItemDto item(String name, String description) {
+        return ItemDto.builder().name(name).description(description).available(true).build();
+    }
+
+    private BookingDto booking(Long itemId, int days) {
+        return BookingDto.builder().itemId(itemId)
+                .start(LocalDateTime.now().plusDays(days)).end(LocalDateTime.now().plusDays(days).plusHours(1)).build();
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.startup;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles({"test", "lazy"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class LazyStartupTest {
+    private final ConfigurableApplicationContext context;
+    private final JdbcTemplate jdbc;
+
+    @Test
+    public void backgroundWorkersStartEagerlyInLazyProfile() {
+        assertThat(context.getBeanFactory().containsSingleton("outboxRelay")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("idempotencyStore")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("bookingPartitionMaintenance")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("userController")).isFalse();
+    }
+
+    @Test
+    public void schemaIsCreatedInLazyProfile() {
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' "
+                + "AND TABLE_NAME IN ('USERS', 'ITEMS', 'BOOKINGS', 'OUTBOX_EVENTS')", Integer.class)).isEqualTo(4);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM users", Integer.class)).isZero();
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.suggest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SuggestTrieTest {
+
+    @Test
+    public void completesByWeightAndFollowsUpdates() {
+        SuggestTrie trie = new SuggestTrie(3, 100);
+        trie.add("дрель", 5);
+        trie.add("дрезина", 1);
+        trie.add("дрова", 3);
+        trie.add("стол", 7);
+
+        assertThat(trie.complete("др", 10)).containsExactly("дрель", "дрова", "дрезина");
+        assertThat(trie.complete("дре", 1)).containsExactly("дрель");
+        assertThat(trie.complete("ж", 10)).isEmpty();
+
+        trie.add("дрель", -5);
+        trie.add("дрезина", 4);
+
+        assertThat(trie.complete("др", 10)).containsExactly("дрезина", "дрова");
+        assertThat(trie.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void keepsHeaviestTermsWhenFull() {
+        SuggestTrie trie = new SuggestTrie(5, 10);
+        trie.replaceAll(Map.of("a1", 1, "a2", 2, "a3", 3, "a4", 4, "a5", 5,
+                "a6", 6, "a7", 7, "a8", 8, "a9", 9, "b1", 10));
+
+        trie.add("b2", 11);
+
+        assertThat(trie.size()).isLessThanOrEqualTo(10);
+        assertThat(trie.complete("a", 10)).doesNotContain("a1");
+        assertThat(trie.complete("b", 10)).containsExactly("b2", "b1");
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ServerTimingTest {
+    private final MockMvc mvc;
+    private final ObjectMapper objectMapper;
+    private static final String serverTimingHeader = "Server-Timing";
+
+    @Test
+    public void writeRequestReportsAllPhases() throws Exception {
+        String serverTiming = mvc.perform(post("/users")
+                        .content(objectMapper.writeValueAsString(new UserDto("testUser", "test@email.com")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader(serverTimingHeader);
+
+        assertThat(serverTiming)
+                .contains("controller;dur=", "validation;dur=", "tx-begin;dur=", "tx-commit;dur=",
+                        "db;dur=", "mapping;dur=", "serialization;dur=")
+                .matches(".*total;dur=\\d+\\.\\d{2}$");
+    }
+
+    @Test
+    public void readRequestReportsDatabaseTime() throws Exception {
+        String serverTiming = mvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(serverTimingHeader);
+
+        assertThat(serverTiming).contains("controller;dur=", "db;dur=", "total;dur=");
+    }
+
+    @Test
+    public void asyncRequestKeepsBodyAndReportsTiming() throws Exception {
+        MockMvc asyncMvc = MockMvcBuilders.standaloneSetup(new AsyncController())
+                .addFilters(new ServerTimingFilter(true, 0))
+                .build();
+        MvcResult started = asyncMvc.perform(get("/async"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String serverTiming = asyncMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().string("done"))
+                .andReturn().getResponse().getHeader(serverTimingHeader);
+
+        assertThat(serverTiming).matches(".*total;dur=\\d+\\.\\d{2}$");
+    }
+
+    // без @Controller, чтобы сканирование компонентов не добавило эндпоинт в контекст приложения
+    @RequestMapping
+    private static class AsyncController {
+        @GetMapping("/async")
+        @ResponseBody
+        public Callable<String> async() {
+            return () -> "done";
+        }
+    }
+}